@@ -16,6 +16,17 @@ public class IdentityResolver {
     private final UserService userService;
     private final GuestService guestService;
 
+    public User resolveForRead(
+            UserPrincipal principal,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ){
+        if (principal == null) {
+            return guestService.resolveExistingOrProvisionalGuest(request);
+        }
+        return resolve(principal, request, response);
+    }
+
     public User resolve(
             UserPrincipal principal,
             HttpServletRequest request,
@@ -28,20 +39,20 @@ public class IdentityResolver {
         UUID supabaseUserId = principal.getSupabaseUserId();
         String email = principal.getEmail();
 
-        String guestId = guestService.extractGuestIdFromCookie(request);
+        boolean hasGuestCookie = guestService.extractGuestCookie(request) != null;
 
-        var existingUser = userService.findBySupabaseUserId(supabaseUserId);
+        var existingUser = userService.findCachedBySupabaseUserId(supabaseUserId);
         if (existingUser.isPresent()) {
-            if (guestId != null) guestService.clearGuestCookie(response);
+            if (hasGuestCookie) guestService.clearGuestCookie(response);
             return existingUser.get();
         }
 
-        if (guestId != null) {
-            var guestOpt = userService.findByGuestId(guestId);
+        if (hasGuestCookie) {
+            var guestOpt = guestService.findGuest(request);
             if (guestOpt.isPresent()) {
                 User g = guestOpt.get();
                 if (g.isGuest() && g.getSupabaseUserId() == null) {
-                    User upgraded = userService.upgradeGuestToAuthenticated(guestId, supabaseUserId, email);
+                    User upgraded = userService.upgradeGuestToAuthenticated(g.getGuestId(), supabaseUserId, email);
                     guestService.clearGuestCookie(response);
                     return upgraded;
                 }
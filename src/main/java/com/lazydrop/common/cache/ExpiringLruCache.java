@@ -0,0 +1,119 @@
+package com.lazydrop.common.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * Small in-process cache bounded by entry count (LRU) and by a per-entry deadline.
+ * Publishes {@code lazydrop.cache.gets} (hit/miss), {@code lazydrop.cache.evictions}
+ * and {@code lazydrop.cache.size}, all tagged with the cache name.
+ */
+public final class ExpiringLruCache<K, V> {
+
+    private record Entry<V>(V value, long expiresAtMillis) {
+        boolean isExpired(long nowMillis) {
+            return nowMillis >= expiresAtMillis;
+        }
+    }
+
+    private final int maxSize;
+    private final Duration ttl;
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public ExpiringLruCache(String name, int maxSize, Duration ttl, MeterRegistry meterRegistry) {
+        if (maxSize <= 0) throw new IllegalArgumentException("Cache max size must be positive");
+        if (ttl.isNegative() || ttl.isZero()) throw new IllegalArgumentException("Cache ttl must be positive");
+
+        this.maxSize = maxSize;
+        this.ttl = ttl;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > ExpiringLruCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        this.hits = Counter.builder("lazydrop.cache.gets")
+                .tag("cache", name).tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("lazydrop.cache.gets")
+                .tag("cache", name).tag("result", "miss")
+                .register(meterRegistry);
+        this.evictions = Counter.builder("lazydrop.cache.evictions")
+                .tag("cache", name)
+                .register(meterRegistry);
+        Gauge.builder("lazydrop.cache.size", this, ExpiringLruCache::size)
+                .tag("cache", name)
+                .register(meterRegistry);
+    }
+
+    public Optional<V> get(K key) {
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && !entry.isExpired(now)) {
+                hits.increment();
+                return Optional.of(entry.value());
+            }
+            if (entry != null) {
+                entries.remove(key);
+            }
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+
+    public void put(K key, V value) {
+        putUntil(key, value, Instant.now().plus(ttl));
+    }
+
+    /**
+     * Caches {@code value} until the earlier of {@code expiresAt} and the configured ttl.
+     */
+    public void putUntil(K key, V value, Instant expiresAt) {
+        long deadline = Math.min(expiresAt.toEpochMilli(), System.currentTimeMillis() + ttl.toMillis());
+        synchronized (entries) {
+            entries.put(key, new Entry<>(value, deadline));
+        }
+    }
+
+    public void invalidate(K key) {
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+
+    public void invalidateIf(Predicate<V> predicate) {
+        synchronized (entries) {
+            entries.values().removeIf(entry -> predicate.test(entry.value()));
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.lazydrop.common.concurrent;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Caps how many asynchronous operations are in flight without blocking the submitting thread.
+ * Operations past the limit wait in a bounded FIFO queue and start as earlier ones complete;
+ * once the queue is full, submissions fail with {@link RejectedExecutionException}.
+ * Publishes {@code lazydrop.async.in-flight} and {@code lazydrop.async.queued}, tagged with the limiter name.
+ */
+public final class AsyncConcurrencyLimiter {
+
+    private record Pending<T>(Supplier<CompletableFuture<T>> operation, CompletableFuture<T> result) {
+        CompletableFuture<T> begin() {
+            CompletableFuture<T> started;
+            try {
+                started = operation.get();
+            } catch (RuntimeException e) {
+                started = CompletableFuture.failedFuture(e);
+            }
+            started.whenComplete((value, error) -> {
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(value);
+                }
+            });
+            return started;
+        }
+    }
+
+    private final String name;
+    private final int maxInFlight;
+    private final int maxQueued;
+
+    // guarded by this
+    private final Queue<Pending<?>> queue = new ArrayDeque<>();
+    private int inFlight;
+
+    public AsyncConcurrencyLimiter(String name, int maxInFlight, int maxQueued, MeterRegistry meterRegistry) {
+        if (maxInFlight <= 0) throw new IllegalArgumentException("Max in-flight operations must be positive");
+        if (maxQueued < 0) throw new IllegalArgumentException("Max queued operations must not be negative");
+
+        this.name = name;
+        this.maxInFlight = maxInFlight;
+        this.maxQueued = maxQueued;
+
+        Gauge.builder("lazydrop.async.in-flight", this, AsyncConcurrencyLimiter::inFlight)
+                .tag("limiter", name)
+                .register(meterRegistry);
+        Gauge.builder("lazydrop.async.queued", this, AsyncConcurrencyLimiter::queued)
+                .tag("limiter", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts {@code operation} now if a slot is free, otherwise once one frees up. The returned future
+     * completes with the operation's outcome.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> operation) {
+        Pending<T> pending = new Pending<>(operation, new CompletableFuture<>());
+        synchronized (this) {
+            if (inFlight >= maxInFlight) {
+                if (queue.size() >= maxQueued) {
+                    return CompletableFuture.failedFuture(
+                            new RejectedExecutionException("Too many queued operations for " + name));
+                }
+                queue.add(pending);
+                return pending.result();
+            }
+            inFlight++;
+        }
+
+        run(pending);
+        return pending.result();
+    }
+
+    /**
+     * Runs operations in this slot one after another. Operations that finish synchronously are chained in
+     * this loop rather than from their completion callbacks, so a long queue cannot overflow the stack.
+     */
+    private void run(Pending<?> pending) {
+        while (pending != null) {
+            CompletableFuture<?> started = pending.begin();
+            if (!started.isDone()) {
+                started.whenComplete((value, error) -> run(releaseSlot()));
+                return;
+            }
+            pending = releaseSlot();
+        }
+    }
+
+    /**
+     * Hands the slot to the next queued operation, or frees it when none is waiting.
+     */
+    private synchronized Pending<?> releaseSlot() {
+        Pending<?> next = queue.poll();
+        if (next == null) {
+            inFlight--;
+        }
+        return next;
+    }
+
+    synchronized int inFlight() {
+        return inFlight;
+    }
+
+    synchronized int queued() {
+        return queue.size();
+    }
+}
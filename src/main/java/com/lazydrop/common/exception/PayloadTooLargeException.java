@@ -0,0 +1,9 @@
+package com.lazydrop.common.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class PayloadTooLargeException extends LazyDropException {
+    public PayloadTooLargeException(String message) {
+        super(HttpStatus.CONTENT_TOO_LARGE, "PAYLOAD_TOO_LARGE", message);
+    }
+}
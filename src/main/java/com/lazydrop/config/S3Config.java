@@ -2,18 +2,25 @@ package com.lazydrop.config;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.S3Configuration;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 
 import java.net.URI;
+import java.time.Duration;
 
 @Configuration
+@ConditionalOnProperty(name = "app.storage.backend", havingValue = "s3", matchIfMissing = true)
 @RequiredArgsConstructor
 public class S3Config {
 
@@ -31,6 +38,40 @@ public class S3Config {
                 .build();
     }
 
+    /**
+     * Non-blocking client for bulk delete, head and list work. Connections are pooled explicitly and
+     * acquisitions that wait too long fail fast instead of piling up behind a slow origin.
+     */
+    @Bean(destroyMethod = "close")
+    public S3AsyncClient s3AsyncClient(
+            @Value("${app.storage.async.max-connections:64}") int maxConnections,
+            @Value("${app.storage.async.max-pending-acquires:10000}") int maxPendingAcquires,
+            @Value("${app.storage.async.connection-timeout:5s}") Duration connectionTimeout,
+            @Value("${app.storage.async.connection-acquire-timeout:10s}") Duration acquireTimeout,
+            @Value("${app.storage.async.read-timeout:30s}") Duration readTimeout,
+            @Value("${app.storage.async.write-timeout:30s}") Duration writeTimeout,
+            @Value("${app.storage.async.api-call-timeout:2m}") Duration apiCallTimeout
+    ) {
+        return S3AsyncClient.builder()
+                .endpointOverride(URI.create(spaces.getEndpoint()))
+                .region(Region.of(spaces.getRegion()))
+                .credentialsProvider(credentials())
+                .serviceConfiguration(S3Configuration.builder()
+                        .pathStyleAccessEnabled(true)
+                        .build())
+                .httpClientBuilder(NettyNioAsyncHttpClient.builder()
+                        .maxConcurrency(maxConnections)
+                        .maxPendingConnectionAcquires(maxPendingAcquires)
+                        .connectionTimeout(connectionTimeout)
+                        .connectionAcquisitionTimeout(acquireTimeout)
+                        .readTimeout(readTimeout)
+                        .writeTimeout(writeTimeout))
+                .overrideConfiguration(ClientOverrideConfiguration.builder()
+                        .apiCallTimeout(apiCallTimeout)
+                        .build())
+                .build();
+    }
+
     @Bean
     @Qualifier("originPresigner")
     public S3Presigner s3Presigner() {
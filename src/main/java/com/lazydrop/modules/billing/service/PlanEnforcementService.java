@@ -6,7 +6,6 @@ import com.lazydrop.modules.subscription.model.PlanLimits;
 import com.lazydrop.modules.subscription.service.SubscriptionService;
 import com.lazydrop.modules.user.model.User;
 import com.lazydrop.modules.session.core.repository.DropSessionRepository;
-import com.lazydrop.modules.session.file.repository.DropFileRepository;
 import com.lazydrop.modules.session.core.dto.DropSessionStatus;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -20,7 +19,6 @@ public class PlanEnforcementService {
 
     private final SubscriptionService subscriptionService;
     private final DropSessionRepository sessionRepo;
-    private final DropFileRepository fileRepo;
 
     public void checkSessionCreationLimit(User owner) {
         PlanLimits limits = subscriptionService.getLimitsForUser(owner);
@@ -38,21 +36,65 @@ public class PlanEnforcementService {
 
     public void checkFileUploadLimits(DropSession session, Long fileSizeBytes) {
         PlanLimits limits = subscriptionService.getLimitsForUser(session.getOwner());
-        long currentFileCount = fileRepo.countByDropSession(session);
+        checkFileSize(limits, fileSizeBytes);
 
-        if (fileSizeBytes > limits.maxFileSizeBytes()) {
-            throw new PlanLimitExceededException("File size exceeds the " + (limits.maxFileSizeBytes() / 1024 / 1024) + "MB limit for the owner's plan.");
+        if (session.getFileCount() >= limits.maxFilesPerSession()) {
+            throw new PlanLimitExceededException("This session has reached the maximum file count allowed by the owner's plan.");
         }
+    }
 
-        if (currentFileCount >= limits.maxFilesPerSession()) {
+    /**
+     * Checks the plan limits and counts the file against the session in one conditional update,
+     * so concurrent confirms cannot overshoot {@code maxFilesPerSession}.
+     */
+    public void reserveFileSlot(DropSession session, Long fileSizeBytes) {
+        PlanLimits limits = subscriptionService.getLimitsForUser(session.getOwner());
+        checkFileSize(limits, fileSizeBytes);
+
+        long sizeBytes = fileSizeBytes == null ? 0 : fileSizeBytes;
+        if (sessionRepo.tryAddFiles(session.getId(), 1, sizeBytes, limits.maxFilesPerSession()) == 0) {
             throw new PlanLimitExceededException("This session has reached the maximum file count allowed by the owner's plan.");
         }
     }
 
-    public void checkParticipantLimit(User sessionOwner, long currentParticipantCount) {
-        PlanLimits limits = subscriptionService.getLimitsForUser(sessionOwner);
-        if (currentParticipantCount >= limits.maxParticipantsPerSession()) {
+    public void checkBatchUploadLimits(DropSession session, List<Long> fileSizesBytes) {
+        PlanLimits limits = subscriptionService.getLimitsForUser(session.getOwner());
+        fileSizesBytes.forEach(size -> checkFileSize(limits, size));
+
+        if (session.getFileCount() + fileSizesBytes.size() > limits.maxFilesPerSession()) {
+            throw new PlanLimitExceededException("This batch would exceed the maximum file count allowed by the owner's plan.");
+        }
+    }
+
+    /**
+     * Batch variant of {@link #reserveFileSlot}: the whole batch is counted in one conditional update, or not at all.
+     */
+    public void reserveFileSlots(DropSession session, List<Long> fileSizesBytes) {
+        PlanLimits limits = subscriptionService.getLimitsForUser(session.getOwner());
+        fileSizesBytes.forEach(size -> checkFileSize(limits, size));
+
+        long totalBytes = fileSizesBytes.stream().mapToLong(size -> size == null ? 0 : size).sum();
+        if (sessionRepo.tryAddFiles(session.getId(), fileSizesBytes.size(), totalBytes, limits.maxFilesPerSession()) == 0) {
+            throw new PlanLimitExceededException("This batch would exceed the maximum file count allowed by the owner's plan.");
+        }
+    }
+
+    public void reserveParticipantSlot(DropSession session) {
+        PlanLimits limits = subscriptionService.getLimitsForUser(session.getOwner());
+        if (sessionRepo.tryIncrementParticipantCount(session.getId(), limits.maxParticipantsPerSession()) == 0) {
             throw new PlanLimitExceededException("This session has reached the maximum participant limit.");
         }
     }
-}
\ No newline at end of file
+
+    public void reserveNoteSlot(DropSession session, PlanLimits limits) {
+        if (sessionRepo.tryIncrementNoteCount(session.getId(), limits.maxNotesPerSession()) == 0) {
+            throw new PlanLimitExceededException("Session notes limit reached for this session");
+        }
+    }
+
+    private void checkFileSize(PlanLimits limits, Long fileSizeBytes) {
+        if (fileSizeBytes > limits.maxFileSizeBytes()) {
+            throw new PlanLimitExceededException("File size exceeds the " + (limits.maxFileSizeBytes() / 1024 / 1024) + "MB limit for the owner's plan.");
+        }
+    }
+}
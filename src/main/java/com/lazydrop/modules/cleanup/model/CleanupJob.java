@@ -0,0 +1,52 @@
+package com.lazydrop.modules.cleanup.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.UuidGenerator;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Durable unit of post-session cleanup. Rows are deleted once the job succeeds; a job left in
+ * {@link CleanupJobStatus#RUNNING} past {@code nextRunAt} is treated as an expired lease and reclaimed.
+ */
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+@Entity
+@Table(
+        name = "cleanup_job",
+        uniqueConstraints = @UniqueConstraint(name = "ux_cleanup_job_type_session", columnNames = {"type", "session_id"}),
+        indexes = @Index(name = "idx_cleanup_job_status_next_run", columnList = "status,next_run_at")
+)
+public class CleanupJob {
+
+    @Id
+    @UuidGenerator(style = UuidGenerator.Style.VERSION_7)
+    @Column(nullable = false, updatable = false)
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 50)
+    private CleanupJobType type;
+
+    @Column(name = "session_id", nullable = false)
+    private UUID sessionId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 50)
+    private CleanupJobStatus status;
+
+    @Column(name = "attempt_count", nullable = false)
+    private int attemptCount;
+
+    @Column(name = "next_run_at", nullable = false)
+    private Instant nextRunAt;
+
+    @Column(name = "last_error", columnDefinition = "text")
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,7 @@
+package com.lazydrop.modules.cleanup.model;
+
+public enum CleanupJobStatus {
+    PENDING,
+    RUNNING,
+    FAILED
+}
@@ -0,0 +1,6 @@
+package com.lazydrop.modules.cleanup.model;
+
+public enum CleanupJobType {
+    SESSION_FILES,
+    SESSION_NOTES
+}
@@ -0,0 +1,69 @@
+package com.lazydrop.modules.cleanup.repository;
+
+import com.lazydrop.modules.cleanup.model.CleanupJob;
+import com.lazydrop.modules.cleanup.model.CleanupJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface CleanupJobRepository extends JpaRepository<CleanupJob, UUID> {
+
+    @Modifying
+    @Query(nativeQuery = true, value = """
+        insert into cleanup_job (id, type, session_id, status, attempt_count, next_run_at, created_at)
+        select gen_random_uuid(), t, :sessionId, 'PENDING', 0, :now, :now
+        from unnest(cast(array[:types] as varchar[])) as t
+        on conflict (type, session_id) do nothing
+    """)
+    int enqueue(@Param("types") List<String> types, @Param("sessionId") UUID sessionId, @Param("now") Instant now);
+
+    /**
+     * Claims due jobs, including RUNNING jobs whose lease has expired, and pushes their
+     * {@code next_run_at} out to {@code leaseUntil}. Concurrent workers skip each other's rows.
+     */
+    @Query(nativeQuery = true, value = """
+        update cleanup_job
+        set status = 'RUNNING',
+            attempt_count = attempt_count + 1,
+            next_run_at = :leaseUntil
+        where id in (
+            select id from cleanup_job
+            where status in ('PENDING', 'RUNNING')
+              and next_run_at <= :now
+            order by next_run_at
+            limit :limit
+            for update skip locked
+        )
+        returning id
+    """)
+    List<UUID> claimDue(@Param("now") Instant now, @Param("leaseUntil") Instant leaseUntil, @Param("limit") int limit);
+
+    @Modifying
+    @Query("""
+        update CleanupJob j
+        set j.status = :status,
+            j.nextRunAt = :nextRunAt,
+            j.lastError = :lastError
+        where j.id = :id
+    """)
+    int reschedule(
+            @Param("id") UUID id,
+            @Param("status") CleanupJobStatus status,
+            @Param("nextRunAt") Instant nextRunAt,
+            @Param("lastError") String lastError
+    );
+
+    long countByStatus(CleanupJobStatus status);
+
+    @Query("""
+        select min(j.nextRunAt) from CleanupJob j
+        where j.status = com.lazydrop.modules.cleanup.model.CleanupJobStatus.PENDING
+    """)
+    Optional<Instant> findOldestPendingRunAt();
+}
@@ -0,0 +1,28 @@
+package com.lazydrop.modules.cleanup.scheduler;
+
+import com.lazydrop.modules.cleanup.service.CleanupJobService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CleanupJobScheduler {
+
+    private final CleanupJobService cleanupJobService;
+
+    @Scheduled(fixedDelayString = "${app.cleanup.poll-interval-ms:5000}", initialDelay = 15_000)
+    public void drainCleanupJobs() {
+        int processed = cleanupJobService.drain();
+        if (processed > 0) {
+            log.info("Processed {} cleanup job(s)", processed);
+        }
+    }
+
+    @Scheduled(fixedRate = 30_000, initialDelay = 15_000)
+    public void refreshCleanupMetrics() {
+        cleanupJobService.refreshMetrics();
+    }
+}
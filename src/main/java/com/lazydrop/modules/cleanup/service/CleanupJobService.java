@@ -0,0 +1,178 @@
+package com.lazydrop.modules.cleanup.service;
+
+import com.lazydrop.modules.cleanup.model.CleanupJob;
+import com.lazydrop.modules.cleanup.model.CleanupJobStatus;
+import com.lazydrop.modules.cleanup.model.CleanupJobType;
+import com.lazydrop.modules.cleanup.repository.CleanupJobRepository;
+import com.lazydrop.modules.session.core.event.DropSessionEndedEvent;
+import com.lazydrop.modules.session.file.service.DropFileService;
+import com.lazydrop.modules.session.note.service.DropSessionNoteService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Persistent queue for work that has to happen after a session ends: deleting its stored objects
+ * and its notes. Jobs are enqueued in the transaction that ends the session, claimed with
+ * {@code FOR UPDATE SKIP LOCKED} so several nodes can drain the queue together, run on a bounded
+ * worker pool and retried with exponential backoff until {@code app.cleanup.max-attempts}.
+ */
+@Service
+@Slf4j
+public class CleanupJobService {
+
+    private static final Duration LEASE = Duration.ofMinutes(5);
+    private static final int MAX_ROUNDS_PER_DRAIN = 10;
+
+    private final CleanupJobRepository jobRepo;
+    private final TransactionTemplate txTemplate;
+    private final DropFileService dropFileService;
+    private final DropSessionNoteService noteService;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService workers;
+
+    private final int batchSize;
+    private final int maxAttempts;
+
+    private final Map<CleanupJobStatus, AtomicLong> depth = new EnumMap<>(CleanupJobStatus.class);
+    private final AtomicLong lagSeconds = new AtomicLong();
+
+    public CleanupJobService(
+            CleanupJobRepository jobRepo,
+            TransactionTemplate txTemplate,
+            DropFileService dropFileService,
+            DropSessionNoteService noteService,
+            MeterRegistry meterRegistry,
+            @Value("${app.cleanup.workers:4}") int workerCount,
+            @Value("${app.cleanup.batch-size:20}") int batchSize,
+            @Value("${app.cleanup.max-attempts:10}") int maxAttempts
+    ) {
+        this.jobRepo = jobRepo;
+        this.txTemplate = txTemplate;
+        this.dropFileService = dropFileService;
+        this.noteService = noteService;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.workers = Executors.newFixedThreadPool(workerCount, Thread.ofPlatform()
+                .name("cleanup-worker-", 0)
+                .daemon(true)
+                .factory());
+
+        for (CleanupJobStatus status : CleanupJobStatus.values()) {
+            AtomicLong value = new AtomicLong();
+            depth.put(status, value);
+            Gauge.builder("lazydrop.cleanup.queue.depth", value, AtomicLong::get)
+                    .tag("status", status.name().toLowerCase())
+                    .register(meterRegistry);
+        }
+        Gauge.builder("lazydrop.cleanup.queue.lag", lagSeconds, AtomicLong::get)
+                .baseUnit("seconds")
+                .description("Age of the oldest due pending cleanup job")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdown();
+    }
+
+    @EventListener
+    @Transactional
+    public void handleSessionEnded(DropSessionEndedEvent event) {
+        List<String> types = Arrays.stream(CleanupJobType.values()).map(Enum::name).toList();
+        jobRepo.enqueue(types, event.getSessionId(), Instant.now());
+    }
+
+    /**
+     * Claims and runs due jobs until the queue is empty or {@value #MAX_ROUNDS_PER_DRAIN} batches have run.
+     */
+    public int drain() {
+        int processed = 0;
+        for (int round = 0; round < MAX_ROUNDS_PER_DRAIN; round++) {
+            Instant now = Instant.now();
+            List<UUID> claimed = txTemplate.execute(status -> jobRepo.claimDue(now, now.plus(LEASE), batchSize));
+            if (claimed == null || claimed.isEmpty()) break;
+
+            CompletableFuture.allOf(claimed.stream()
+                    .map(id -> CompletableFuture.runAsync(() -> run(id), workers))
+                    .toArray(CompletableFuture[]::new)).join();
+
+            processed += claimed.size();
+            if (claimed.size() < batchSize) break;
+        }
+        return processed;
+    }
+
+    public void refreshMetrics() {
+        depth.forEach((status, value) -> value.set(jobRepo.countByStatus(status)));
+        lagSeconds.set(jobRepo.findOldestPendingRunAt()
+                .map(oldest -> Math.max(0, Duration.between(oldest, Instant.now()).toSeconds()))
+                .orElse(0L));
+    }
+
+    private void run(UUID jobId) {
+        CleanupJob job = jobRepo.findById(jobId).orElse(null);
+        if (job == null) return;
+
+        try {
+            switch (job.getType()) {
+                case SESSION_FILES -> dropFileService.cleanupSessionFiles(job.getSessionId());
+                case SESSION_NOTES -> noteService.deleteSessionNotes(job.getSessionId());
+            }
+            jobRepo.deleteById(jobId);
+            jobCounter(job.getType(), "success").increment();
+        } catch (Exception e) {
+            markFailed(job, e);
+        }
+    }
+
+    private void markFailed(CleanupJob job, Exception ex) {
+        boolean exhausted = job.getAttemptCount() >= maxAttempts;
+        CleanupJobStatus status = exhausted ? CleanupJobStatus.FAILED : CleanupJobStatus.PENDING;
+        Instant nextRunAt = exhausted ? Instant.now() : Instant.now().plus(backoff(job.getAttemptCount()));
+        String lastError = truncate(ex.getClass().getSimpleName() + ": " + ex.getMessage(), 500);
+
+        txTemplate.executeWithoutResult(s -> jobRepo.reschedule(job.getId(), status, nextRunAt, lastError));
+        jobCounter(job.getType(), exhausted ? "dead" : "retry").increment();
+
+        log.warn("Cleanup job failed: id={} type={} session={} attempt={} next={} err={}",
+                job.getId(), job.getType(), job.getSessionId(), job.getAttemptCount(),
+                exhausted ? "none" : nextRunAt, lastError);
+    }
+
+    private Counter jobCounter(CleanupJobType type, String result) {
+        return Counter.builder("lazydrop.cleanup.jobs")
+                .tag("type", type.name().toLowerCase())
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static Duration backoff(int attempt) {
+        long seconds = Math.min(3600, 30L << Math.min(attempt - 1, 7));
+        return Duration.ofSeconds(seconds);
+    }
+
+    private static String truncate(String value, int max) {
+        return value.length() <= max ? value : value.substring(0, max);
+    }
+}
@@ -3,11 +3,11 @@ package com.lazydrop.modules.session.core.controller;
 import com.lazydrop.auth.IdentityResolver;
 import com.lazydrop.common.exception.ResourceNotFoundException;
 import com.lazydrop.modules.session.core.mapper.DropSessionMapper;
-import com.lazydrop.modules.session.file.repository.DropFileRepository;
-import com.lazydrop.modules.session.participant.repository.DropSessionParticipantRepository;
 import com.lazydrop.security.UserPrincipal;
 import com.lazydrop.modules.session.core.dto.DropSessionResponse;
 import com.lazydrop.modules.session.core.model.DropSession;
+import com.lazydrop.modules.session.core.model.DropSessionCounters;
+import com.lazydrop.modules.session.core.model.DropSessionSnapshot;
 import com.lazydrop.modules.session.core.service.DropSessionService;
 import com.lazydrop.modules.user.model.User;
 import jakarta.annotation.Nullable;
@@ -30,16 +30,18 @@ public class DropSessionController{
 
     private final DropSessionService dropSessionService;
     private final IdentityResolver identityResolver;
-    private final DropSessionParticipantRepository participantRepository;
-    private final DropFileRepository dropFileRepository;
 
     @Value("${app.join.base.url}")
     private String joinBaseUrl;
 
     private DropSessionResponse mapSession(DropSession session, User user) {
-        int participantCount = (int) participantRepository.countByDropSession(session);
-        long fileCount = dropFileRepository.countByDropSession(session);
-        return DropSessionMapper.toDropSessionResponse(session, user, joinBaseUrl, participantCount, fileCount);
+        return mapSession(DropSessionSnapshot.from(session), user);
+    }
+
+    private DropSessionResponse mapSession(DropSessionSnapshot session, User user) {
+        DropSessionCounters counters = dropSessionService.findCounters(session.id())
+                .orElse(DropSessionCounters.EMPTY);
+        return DropSessionMapper.toDropSessionResponse(session, user, joinBaseUrl, counters.participantCount(), counters.fileCount());
     }
 
     @PostMapping
@@ -54,10 +56,10 @@ public class DropSessionController{
     public ResponseEntity<DropSessionResponse> getByCode(@PathVariable String code,  @AuthenticationPrincipal @Nullable UserPrincipal userPrincipal,
                                                          HttpServletRequest req,
                                                          HttpServletResponse res){
-        DropSession session = dropSessionService.findByCode(code)
+        DropSessionSnapshot session = dropSessionService.findSnapshotByCode(code)
                 .orElseThrow(() -> new ResourceNotFoundException("Session not found"));
 
-        User user = identityResolver.resolve(userPrincipal, req, res);
+        User user = identityResolver.resolveForRead(userPrincipal, req, res);
 
         return ResponseEntity.ok(mapSession(session, user));
     }
@@ -66,9 +68,9 @@ public class DropSessionController{
     public ResponseEntity<DropSessionResponse> getBySessionId(@PathVariable UUID sessionId,  @AuthenticationPrincipal @Nullable UserPrincipal userPrincipal,
                                                               HttpServletRequest req,
                                                               HttpServletResponse res){
-        DropSession session = dropSessionService.findById(sessionId)
+        DropSessionSnapshot session = dropSessionService.findSnapshotById(sessionId)
                 .orElseThrow(() -> new ResourceNotFoundException("Session not found"));
-        User user = identityResolver.resolve(userPrincipal, req, res);
+        User user = identityResolver.resolveForRead(userPrincipal, req, res);
 
         return ResponseEntity.ok(mapSession(session, user));
     }
@@ -94,15 +96,16 @@ public class DropSessionController{
             HttpServletRequest req,
             HttpServletResponse res
     ) {
-        User owner = identityResolver.resolve(userPrincipal, req, res);
+        User owner = identityResolver.resolveForRead(userPrincipal, req, res);
 
         var sessions = dropSessionService.getActiveSessionsForUser(owner);
 
         var dtos = sessions.stream()
-                .map(s -> mapSession(s, owner))
+                .map(s -> DropSessionMapper.toDropSessionResponse(
+                        s.snapshot(), owner, joinBaseUrl, s.participantCount(), s.fileCount()))
                 .toList();
 
-        long ownedActive = sessions.stream().filter(s -> s.getOwner().getId().equals(owner.getId())).count();
+        long ownedActive = sessions.stream().filter(s -> s.ownerId().equals(owner.getId())).count();
         long joinedActive = sessions.size() - ownedActive;
 
         return ResponseEntity.ok(Map.of(
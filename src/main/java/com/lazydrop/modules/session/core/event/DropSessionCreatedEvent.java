@@ -0,0 +1,15 @@
+package com.lazydrop.modules.session.core.event;
+
+import com.lazydrop.modules.session.core.model.DropSessionSnapshot;
+
+public class DropSessionCreatedEvent {
+    private final DropSessionSnapshot session;
+
+    public DropSessionCreatedEvent(DropSessionSnapshot session) {
+        this.session = session;
+    }
+
+    public DropSessionSnapshot getSession() {
+        return session;
+    }
+}
@@ -2,6 +2,7 @@ package com.lazydrop.modules.session.core.mapper;
 
 import com.lazydrop.modules.session.core.dto.DropSessionResponse;
 import com.lazydrop.modules.session.core.model.DropSession;
+import com.lazydrop.modules.session.core.model.DropSessionSnapshot;
 import com.lazydrop.modules.user.model.User;
 
 import java.time.Instant;
@@ -15,13 +16,19 @@ public class DropSessionMapper {
     public static DropSessionResponse toDropSessionResponse(
             DropSession session, User me, String joinBaseUrl,
             int participantCount, long fileCount) {
-        boolean isOwner = session.getOwner().getId().equals(me.getId());
+        return toDropSessionResponse(DropSessionSnapshot.from(session), me, joinBaseUrl, participantCount, fileCount);
+    }
+
+    public static DropSessionResponse toDropSessionResponse(
+            DropSessionSnapshot session, User me, String joinBaseUrl,
+            int participantCount, long fileCount) {
+        boolean isOwner = session.ownerId().equals(me.getId());
         long remainingSeconds = 0;
-        if (session.getExpiresAt() != null) {
-            remainingSeconds = session.getExpiresAt().getEpochSecond() - Instant.now().getEpochSecond();
+        if (session.expiresAt() != null) {
+            remainingSeconds = session.expiresAt().getEpochSecond() - Instant.now().getEpochSecond();
         }
 
-        String code = session.getCode();
+        String code = session.code();
         String codeDisplay = code != null && code.length() == 8
                 ? code.substring(0, 4) + "-" + code.substring(4)
                 : code;
@@ -33,12 +40,12 @@ public class DropSessionMapper {
 
         return DropSessionResponse.builder()
                 .code(code)
-                .id(session.getId().toString())
+                .id(session.id().toString())
                 .codeDisplay(codeDisplay)
-                .ownerId(session.getOwner().getId().toString())
-                .expiresAt(session.getExpiresAt())
+                .ownerId(session.ownerId().toString())
+                .expiresAt(session.expiresAt())
                 .remainingSeconds(remainingSeconds)
-                .status(session.getStatus())
+                .status(session.status())
                 .myRole(isOwner ? "OWNER" : "PEER")
                 .qrCodeData(qrCodeData)
                 .participantCount(participantCount)
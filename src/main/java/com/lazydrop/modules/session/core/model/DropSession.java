@@ -35,7 +35,7 @@ public class DropSession {
     @JoinColumn(name = "owner_id", nullable = false)
     private User owner;
 
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String code;
 
     @Column(name = "created_at", nullable = false, updatable = false)
@@ -43,6 +43,7 @@ public class DropSession {
 
     @Column(name = "expires_at", nullable = false)
     private Instant expiresAt;
+
     
     @Column(name = "ended_at")
     private Instant endedAt;
@@ -54,6 +55,23 @@ public class DropSession {
     @Enumerated(EnumType.STRING)
     private SessionEndReason endReason;
 
+    // Counters are maintained by conditional UPDATEs in DropSessionRepository, never by entity flushes.
+    @Builder.Default
+    @Column(name = "participant_count", nullable = false, updatable = false)
+    private int participantCount = 0;
+
+    @Builder.Default
+    @Column(name = "file_count", nullable = false, updatable = false)
+    private int fileCount = 0;
+
+    @Builder.Default
+    @Column(name = "note_count", nullable = false, updatable = false)
+    private int noteCount = 0;
+
+    @Builder.Default
+    @Column(name = "total_bytes", nullable = false, updatable = false)
+    private long totalBytes = 0;
+
     @PrePersist
     protected void onCreate() {
         if (createdAt == null) {
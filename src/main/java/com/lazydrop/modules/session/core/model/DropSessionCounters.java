@@ -0,0 +1,13 @@
+package com.lazydrop.modules.session.core.model;
+
+/**
+ * Denormalized per-session counters kept on the {@code drop_session} row.
+ */
+public record DropSessionCounters(
+        int participantCount,
+        int fileCount,
+        int noteCount,
+        long totalBytes
+) {
+    public static final DropSessionCounters EMPTY = new DropSessionCounters(0, 0, 0, 0);
+}
@@ -0,0 +1,38 @@
+package com.lazydrop.modules.session.core.model;
+
+import com.lazydrop.common.exception.DropSessionExpiredException;
+import com.lazydrop.modules.session.core.dto.DropSessionStatus;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Immutable view of the {@link DropSession} columns that are safe to share across requests.
+ */
+public record DropSessionSnapshot(
+        UUID id,
+        String code,
+        UUID ownerId,
+        Instant expiresAt,
+        DropSessionStatus status
+) {
+    public static DropSessionSnapshot from(DropSession session) {
+        return new DropSessionSnapshot(
+                session.getId(),
+                session.getCode(),
+                session.getOwner().getId(),
+                session.getExpiresAt(),
+                session.getStatus()
+        );
+    }
+
+    public boolean isUsable() {
+        return status == DropSessionStatus.OPEN || status == DropSessionStatus.CONNECTED;
+    }
+
+    public void assertUsable() {
+        if (!isUsable()) {
+            throw new DropSessionExpiredException("DropSession is not active");
+        }
+    }
+}
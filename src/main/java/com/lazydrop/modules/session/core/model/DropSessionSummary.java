@@ -0,0 +1,23 @@
+package com.lazydrop.modules.session.core.model;
+
+import com.lazydrop.modules.session.core.dto.DropSessionStatus;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * {@link DropSessionSnapshot} plus the participant and file counts, loaded in one query for dashboard listings.
+ */
+public record DropSessionSummary(
+        UUID id,
+        String code,
+        UUID ownerId,
+        Instant expiresAt,
+        DropSessionStatus status,
+        int participantCount,
+        int fileCount
+) {
+    public DropSessionSnapshot snapshot() {
+        return new DropSessionSnapshot(id, code, ownerId, expiresAt, status);
+    }
+}
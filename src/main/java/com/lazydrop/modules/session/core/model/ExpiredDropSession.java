@@ -0,0 +1,29 @@
+package com.lazydrop.modules.session.core.model;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Row returned by the bulk expiry {@code UPDATE ... RETURNING id, code, owner_id, expires_at}.
+ */
+public record ExpiredDropSession(
+        UUID id,
+        String code,
+        UUID ownerId,
+        Instant expiresAt
+) {
+    public static ExpiredDropSession fromRow(Object[] row) {
+        return new ExpiredDropSession((UUID) row[0], (String) row[1], (UUID) row[2], toInstant(row[3]));
+    }
+
+    private static Instant toInstant(Object value) {
+        return switch (value) {
+            case Instant instant -> instant;
+            case OffsetDateTime offsetDateTime -> offsetDateTime.toInstant();
+            case Timestamp timestamp -> timestamp.toInstant();
+            default -> throw new IllegalArgumentException("Unexpected expires_at type: " + value.getClass());
+        };
+    }
+}
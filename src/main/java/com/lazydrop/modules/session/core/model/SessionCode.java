@@ -0,0 +1,34 @@
+package com.lazydrop.modules.session.core.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Reservation of a join code. A row without {@code releasedAt} is owned by a live session
+ * (or by a node's pre-allocated pool); released rows become reusable after a quarantine.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(
+        name = "session_code",
+        indexes = {
+                @Index(name = "idx_session_code_released_at", columnList = "released_at")
+        }
+)
+public class SessionCode {
+    @Id
+    @Column(nullable = false, updatable = false)
+    private String code;
+
+    @Column(name = "reserved_at", nullable = false)
+    private Instant reservedAt;
+
+    @Column(name = "released_at")
+    private Instant releasedAt;
+}
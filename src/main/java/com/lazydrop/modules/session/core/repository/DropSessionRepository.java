@@ -1,9 +1,15 @@
 package com.lazydrop.modules.session.core.repository;
 
 import com.lazydrop.modules.session.core.model.DropSession;
+import com.lazydrop.modules.session.core.model.DropSessionCounters;
+import com.lazydrop.modules.session.core.model.DropSessionSnapshot;
+import com.lazydrop.modules.session.core.model.DropSessionSummary;
 import com.lazydrop.modules.session.core.dto.DropSessionStatus;
 import com.lazydrop.modules.user.model.User;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -15,12 +21,33 @@ import java.util.UUID;
 
 public interface DropSessionRepository extends JpaRepository<DropSession, UUID> {
 
-    Optional<DropSession> findByCode(String code);
+    Optional<DropSession> findFirstByCodeOrderByCreatedAtDesc(String code);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from DropSession s where s.id = :id")
+    Optional<DropSession> findByIdForUpdate(@Param("id") UUID id);
 
     long countByOwnerAndStatusInAndExpiresAtAfter(User owner, Collection<DropSessionStatus> statuses, Instant expiresAtAfter);
 
     List<DropSession> findByStatusInAndExpiresAtBefore(List<DropSessionStatus> open, Instant now);
 
+    @Query(nativeQuery = true, value = """
+        update drop_session
+        set status = 'EXPIRED',
+            end_reason = 'EXPIRED',
+            ended_at = :now
+        where id in (
+            select id from drop_session
+            where status in ('OPEN', 'CONNECTED')
+              and expires_at < :now
+            order by expires_at
+            limit :limit
+            for update skip locked
+        )
+        returning id, code, owner_id, expires_at
+    """)
+    List<Object[]> expireDue(@Param("now") Instant now, @Param("limit") int limit);
+
     List<DropSession> findByOwnerAndStatusInAndExpiresAtAfter(
             User owner,
             List<DropSessionStatus> statuses,
@@ -28,19 +55,94 @@ public interface DropSessionRepository extends JpaRepository<DropSession, UUID>
     );
 
     @Query("""
-    select distinct s
+    select new com.lazydrop.modules.session.core.model.DropSessionSummary(
+        s.id, s.code, s.owner.id, s.expiresAt, s.status,
+        s.participantCount, s.fileCount)
     from DropSession s
-    left join DropSessionParticipant p
-      on p.dropSession = s and p.user = :user
     where s.expiresAt > :now
       and s.status in :statuses
-      and (s.owner = :user or p.id is not null)
+      and (s.owner = :user or exists (
+            select 1 from DropSessionParticipant m
+            where m.dropSession = s and m.user = :user))
   """)
-    List<DropSession> findActiveForUser(
+    List<DropSessionSummary> findActiveSummariesForUser(
             @Param("user") User user,
             @Param("statuses") List<DropSessionStatus> statuses,
             @Param("now") Instant now
     );
 
     List<DropSession> findByOwnerAndStatusIn(User testUser, List<DropSessionStatus> open);
+
+    @Query("""
+    select new com.lazydrop.modules.session.core.model.DropSessionSnapshot(
+        s.id, s.code, s.owner.id, s.expiresAt, s.status)
+    from DropSession s
+    where s.status in :statuses
+      and s.expiresAt < :before
+  """)
+    List<DropSessionSnapshot> findSnapshotsByStatusInAndExpiresAtBefore(
+            @Param("statuses") List<DropSessionStatus> statuses,
+            @Param("before") Instant before
+    );
+
+    @Query("""
+    select new com.lazydrop.modules.session.core.model.DropSessionCounters(
+        s.participantCount, s.fileCount, s.noteCount, s.totalBytes)
+    from DropSession s
+    where s.id = :id
+  """)
+    Optional<DropSessionCounters> findCountersById(@Param("id") UUID id);
+
+    @Query("select s.id from DropSession s where s.id in :ids")
+    List<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query(nativeQuery = true, value = """
+        update drop_session
+        set participant_count = participant_count + 1
+        where id = :id and participant_count < :limit
+    """)
+    int tryIncrementParticipantCount(@Param("id") UUID id, @Param("limit") int limit);
+
+    @Modifying
+    @Query(nativeQuery = true, value = """
+        update drop_session
+        set participant_count = greatest(participant_count + :delta, 0)
+        where id = :id
+    """)
+    int adjustParticipantCount(@Param("id") UUID id, @Param("delta") int delta);
+
+    @Modifying
+    @Query(nativeQuery = true, value = """
+        update drop_session
+        set file_count = file_count + :files,
+            total_bytes = total_bytes + :sizeBytes
+        where id = :id and file_count + :files <= :limit
+    """)
+    int tryAddFiles(@Param("id") UUID id, @Param("files") int files, @Param("sizeBytes") long sizeBytes, @Param("limit") int limit);
+
+    @Modifying
+    @Query(nativeQuery = true, value = """
+        update drop_session
+        set file_count = greatest(file_count - :files, 0),
+            total_bytes = greatest(total_bytes - :bytes, 0)
+        where id = :id
+    """)
+    int decrementFileCount(@Param("id") UUID id, @Param("files") int files, @Param("bytes") long bytes);
+
+    @Modifying
+    @Query(nativeQuery = true, value = """
+        update drop_session
+        set note_count = note_count + 1
+        where id = :id and note_count < :limit
+    """)
+    int tryIncrementNoteCount(@Param("id") UUID id, @Param("limit") int limit);
+
+    @Modifying
+    @Query(nativeQuery = true, value = """
+        update drop_session
+        set note_count = greatest(note_count - :notes, 0)
+        where id = :id
+    """)
+    int decrementNoteCount(@Param("id") UUID id, @Param("notes") long notes);
 }
@@ -0,0 +1,60 @@
+package com.lazydrop.modules.session.core.repository;
+
+import com.lazydrop.modules.session.core.model.SessionCode;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface SessionCodeRepository extends JpaRepository<SessionCode, String> {
+
+    @Query(nativeQuery = true, value = """
+        insert into session_code (code, reserved_at)
+        select c, :now from unnest(cast(array[:codes] as varchar[])) as c
+        on conflict (code) do nothing
+        returning code
+    """)
+    List<String> reserveFresh(@Param("codes") Collection<String> codes, @Param("now") Instant now);
+
+    @Query(nativeQuery = true, value = """
+        update session_code
+        set reserved_at = :now,
+            released_at = null
+        where code in (
+            select code from session_code
+            where released_at < :cutoff
+            order by released_at
+            limit :limit
+            for update skip locked
+        )
+        returning code
+    """)
+    List<String> reclaimReleased(@Param("cutoff") Instant cutoff, @Param("limit") int limit, @Param("now") Instant now);
+
+    @Modifying
+    @Query("""
+        update SessionCode c
+        set c.releasedAt = :now
+        where c.code in :codes
+          and c.releasedAt is null
+    """)
+    int release(@Param("codes") Collection<String> codes, @Param("now") Instant now);
+
+    @Modifying
+    @Query(nativeQuery = true, value = """
+        update session_code sc
+        set released_at = :now
+        where sc.released_at is null
+          and sc.reserved_at < :cutoff
+          and not exists (
+              select 1 from drop_session s
+              where s.code = sc.code
+                and s.status in ('OPEN', 'CONNECTED')
+          )
+    """)
+    int releaseAbandoned(@Param("cutoff") Instant cutoff, @Param("now") Instant now);
+}
@@ -0,0 +1,128 @@
+package com.lazydrop.modules.session.core.scheduler;
+
+import com.lazydrop.modules.session.core.event.DropSessionCreatedEvent;
+import com.lazydrop.modules.session.core.event.DropSessionEndedEvent;
+import com.lazydrop.modules.session.core.model.DropSessionSnapshot;
+import com.lazydrop.modules.session.core.service.DropSessionService;
+import com.lazydrop.modules.websocket.MessageType;
+import com.lazydrop.modules.websocket.WebSocketNotifier;
+import com.lazydrop.modules.websocket.payload.DropSessionExpiringPayload;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Ends sessions at their {@code expiresAt} instead of waiting for the next sweep.
+ * <p>
+ * Deadlines of sessions created on this node sit in the task scheduler's delay queue. On startup every
+ * node re-arms all live sessions due within {@code app.session-expiry.rearm-horizon}, whichever node
+ * created them; {@link DropSessionService#expireSession} takes a row lock and re-checks the status, so
+ * the duplicate fires across nodes are no-ops. {@link DropSessionScheduler#expireSessions()} remains as
+ * a safety net for sessions due past the horizon and for nodes that went away.
+ */
+@Component
+@Slf4j
+public class DropSessionExpiryTimer {
+
+    private record Deadlines(ScheduledFuture<?> expiry, ScheduledFuture<?> warning) {
+        void cancel() {
+            expiry.cancel(false);
+            if (warning != null) warning.cancel(false);
+        }
+    }
+
+    private final TaskScheduler taskScheduler;
+    private final DropSessionService dropSessionService;
+    private final WebSocketNotifier webSocketNotifier;
+    private final Duration warningBefore;
+    private final Duration rearmHorizon;
+
+    private final Map<UUID, Deadlines> deadlines = new ConcurrentHashMap<>();
+
+    public DropSessionExpiryTimer(
+            TaskScheduler taskScheduler,
+            DropSessionService dropSessionService,
+            WebSocketNotifier webSocketNotifier,
+            @Value("${app.session-expiry.warning-before:60s}") Duration warningBefore,
+            @Value("${app.session-expiry.rearm-horizon:24h}") Duration rearmHorizon
+    ) {
+        this.taskScheduler = taskScheduler;
+        this.dropSessionService = dropSessionService;
+        this.webSocketNotifier = webSocketNotifier;
+        this.warningBefore = warningBefore;
+        this.rearmHorizon = rearmHorizon;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadLiveSessions() {
+        List<DropSessionSnapshot> live = dropSessionService.getLiveSessionSnapshotsDueBefore(Instant.now().plus(rearmHorizon));
+        live.forEach(this::schedule);
+        log.info("Scheduled expiry for {} live session(s)", live.size());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleSessionCreated(DropSessionCreatedEvent event) {
+        schedule(event.getSession());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleSessionEnded(DropSessionEndedEvent event) {
+        Deadlines removed = deadlines.remove(event.getSessionId());
+        if (removed != null) {
+            removed.cancel();
+        }
+    }
+
+    void schedule(DropSessionSnapshot session) {
+        if (!session.isUsable()) return;
+
+        ScheduledFuture<?> expiry = taskScheduler.schedule(() -> expire(session.id()), session.expiresAt());
+
+        ScheduledFuture<?> warning = null;
+        Instant warnAt = session.expiresAt().minus(warningBefore);
+        if (warningBefore.isPositive() && warnAt.isAfter(Instant.now())) {
+            warning = taskScheduler.schedule(() -> warn(session), warnAt);
+        }
+
+        Deadlines previous = deadlines.put(session.id(), new Deadlines(expiry, warning));
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+
+    private void expire(UUID sessionId) {
+        deadlines.remove(sessionId);
+        try {
+            if (dropSessionService.expireSession(sessionId)) {
+                log.debug("Expired DropSession {} at its deadline", sessionId);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to expire DropSession {} at its deadline; the sweep will retry", sessionId, e);
+        }
+    }
+
+    private void warn(DropSessionSnapshot session) {
+        long remainingSeconds = Math.max(0, Duration.between(Instant.now(), session.expiresAt()).toSeconds());
+        webSocketNotifier.sendEventAfterCommit(
+                session.id().toString(),
+                MessageType.DROP_SESSION_EXPIRING,
+                new DropSessionExpiringPayload(
+                        session.id().toString(),
+                        session.ownerId().toString(),
+                        session.expiresAt(),
+                        remainingSeconds));
+    }
+}
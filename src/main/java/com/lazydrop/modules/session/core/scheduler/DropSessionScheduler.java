@@ -2,6 +2,7 @@ package com.lazydrop.modules.session.core.scheduler;
 
 import com.lazydrop.modules.session.participant.service.DropSessionParticipantService;
 import com.lazydrop.modules.session.core.service.DropSessionService;
+import com.lazydrop.modules.session.core.service.SessionCodeAllocator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -16,8 +17,10 @@ public class DropSessionScheduler {
 
     private final DropSessionService dropSessionService;
     private final DropSessionParticipantService participantService;
+    private final SessionCodeAllocator sessionCodeAllocator;
 
-    @Scheduled(fixedRate = 60_000, initialDelay = 30_000)
+    // Safety net only: DropSessionExpiryTimer ends sessions at their deadline.
+    @Scheduled(fixedRateString = "${app.session-expiry.sweep-interval-ms:60000}", initialDelay = 30_000)
     public void expireSessions() {
         log.debug("Tick: expireSessions");
         int expired = dropSessionService.cleanUpExpiredSessions();
@@ -26,6 +29,20 @@ public class DropSessionScheduler {
         }
     }
 
+    @Scheduled(fixedDelay = 30_000, initialDelay = 5_000)
+    public void topUpSessionCodes() {
+        sessionCodeAllocator.topUp();
+    }
+
+    @Scheduled(fixedRate = 3_600_000, initialDelay = 60_000)
+    public void releaseAbandonedSessionCodes() {
+        log.debug("Tick: releaseAbandonedSessionCodes");
+        int released = sessionCodeAllocator.releaseAbandoned();
+        if (released > 0) {
+            log.info("Released {} abandoned session code reservation(s)", released);
+        }
+    }
+
     @Scheduled(fixedRate = 300_000, initialDelay = 30_000)
     public void cleanupDisconnectedParticipants() {
         log.debug("Tick: cleanupDisconnectedParticipants");
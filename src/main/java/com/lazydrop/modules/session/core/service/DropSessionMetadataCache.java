@@ -0,0 +1,111 @@
+package com.lazydrop.modules.session.core.service;
+
+import com.lazydrop.common.cache.ExpiringLruCache;
+import com.lazydrop.modules.session.core.model.DropSessionSnapshot;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Node-local cache of {@link DropSessionSnapshot}s by id and by join code, plus a short-lived
+ * negative cache of join codes that did not match any session.
+ * <p>
+ * Evictions only reach the node that made the change, so other nodes can serve stale entries for a bounded
+ * time: a live session ended elsewhere for up to {@code live-ttl}, as can a join code recycled elsewhere,
+ * and a code created elsewhere can still read as unknown for up to {@code unknown-code-ttl}. Ended sessions
+ * never change again, so they are kept for the full {@code ttl}.
+ */
+@Component
+public class DropSessionMetadataCache {
+
+    private final ExpiringLruCache<UUID, DropSessionSnapshot> byId;
+    private final ExpiringLruCache<String, UUID> idByCode;
+    private final ExpiringLruCache<String, Boolean> unknownCodes;
+    private final Duration liveTtl;
+
+    public DropSessionMetadataCache(
+            MeterRegistry meterRegistry,
+            @Value("${app.session-cache.max-size:10000}") int maxSize,
+            @Value("${app.session-cache.ttl:1m}") Duration ttl,
+            @Value("${app.session-cache.live-ttl:5s}") Duration liveTtl,
+            @Value("${app.session-cache.unknown-code-ttl:30s}") Duration unknownCodeTtl
+    ) {
+        this.byId = new ExpiringLruCache<>("session.id", maxSize, ttl, meterRegistry);
+        this.idByCode = new ExpiringLruCache<>("session.code", maxSize, ttl, meterRegistry);
+        this.unknownCodes = new ExpiringLruCache<>("session.unknown-code", maxSize, unknownCodeTtl, meterRegistry);
+        this.liveTtl = liveTtl;
+    }
+
+    public Optional<DropSessionSnapshot> findById(UUID sessionId) {
+        return byId.get(sessionId);
+    }
+
+    public Optional<DropSessionSnapshot> findByCode(String code) {
+        return idByCode.get(code).flatMap(this::findById);
+    }
+
+    public boolean isKnownMissingCode(String code) {
+        return unknownCodes.get(code).isPresent();
+    }
+
+    public void rememberMissingCode(String code) {
+        unknownCodes.put(code, Boolean.TRUE);
+    }
+
+    public void put(DropSessionSnapshot snapshot) {
+        unknownCodes.invalidate(snapshot.code());
+        Instant liveUntil = Instant.now().plus(liveTtl);
+        if (snapshot.isUsable()) {
+            // An open session must not be served from cache once it is due to expire, or for long after it
+            // may have been ended on another node.
+            Instant until = snapshot.expiresAt().isBefore(liveUntil) ? snapshot.expiresAt() : liveUntil;
+            byId.putUntil(snapshot.id(), snapshot, until);
+            idByCode.putUntil(snapshot.code(), snapshot.id(), until);
+        } else {
+            byId.put(snapshot.id(), snapshot);
+            // The code of an ended session may be handed to a new session on any node.
+            idByCode.putUntil(snapshot.code(), snapshot.id(), liveUntil);
+        }
+    }
+
+    /**
+     * Evicts now and again once the surrounding transaction commits, so a concurrent reader
+     * cannot re-cache the pre-commit state.
+     */
+    public void evictAfterCommit(UUID sessionId, String code) {
+        evict(sessionId, code);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(sessionId, code);
+                }
+            });
+        }
+    }
+
+    public void evictAllAfterCommit(Map<UUID, String> codesBySessionId) {
+        codesBySessionId.forEach(this::evict);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    codesBySessionId.forEach(DropSessionMetadataCache.this::evict);
+                }
+            });
+        }
+    }
+
+    private void evict(UUID sessionId, String code) {
+        byId.invalidate(sessionId);
+        idByCode.invalidate(code);
+    }
+}
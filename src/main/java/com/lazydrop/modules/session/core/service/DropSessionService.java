@@ -3,8 +3,13 @@ package com.lazydrop.modules.session.core.service;
 import com.lazydrop.common.exception.ForbiddenOperationException;
 import com.lazydrop.common.exception.ResourceNotFoundException;
 import com.lazydrop.modules.billing.service.PlanEnforcementService;
+import com.lazydrop.modules.session.core.event.DropSessionCreatedEvent;
 import com.lazydrop.modules.session.core.event.DropSessionEndedEvent;
 import com.lazydrop.modules.session.core.model.DropSession;
+import com.lazydrop.modules.session.core.model.DropSessionCounters;
+import com.lazydrop.modules.session.core.model.DropSessionSnapshot;
+import com.lazydrop.modules.session.core.model.DropSessionSummary;
+import com.lazydrop.modules.session.core.model.ExpiredDropSession;
 import com.lazydrop.modules.session.core.model.SessionEndReason;
 import com.lazydrop.modules.session.participant.service.DropSessionParticipantService;
 import com.lazydrop.modules.subscription.model.PlanLimits;
@@ -17,17 +22,19 @@ import com.lazydrop.modules.websocket.WebSocketNotifier;
 import com.lazydrop.modules.websocket.payload.DropSessionClosedPayload;
 import com.lazydrop.modules.websocket.payload.DropSessionCreatedPayload;
 import com.lazydrop.modules.websocket.payload.DropSessionExpiredPayload;
-import com.lazydrop.utility.CodeUtility;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -40,14 +47,18 @@ public class DropSessionService {
     private final SubscriptionService subscriptionService;
     private final DropSessionParticipantService participantService;
     private final PlanEnforcementService planEnforcementService;
-    private final CodeUtility codeUtility;
+    private final SessionCodeAllocator codeAllocator;
     private final WebSocketNotifier webSocketNotifier;
     private final ApplicationEventPublisher applicationEventPublisher;
+    private final DropSessionMetadataCache metadataCache;
+
+    private final TransactionTemplate txTemplate;
 
     @Value("${app.join.base.url}")
     private String joinBaseUrl;
 
-    private static final int MAX_CODE_RETRIES = 5;
+    @Value("${app.session-expiry.batch-size:500}")
+    private int expiryBatchSize;
 
     @Transactional
     public DropSession createDropSession(User owner){
@@ -57,28 +68,18 @@ public class DropSessionService {
         Instant now = Instant.now();
         Instant expiresAt = now.plus(limits.sessionExpiryMinutes(), ChronoUnit.MINUTES);
 
-        DropSession saved = null;
-        for (int attempt = 0; attempt < MAX_CODE_RETRIES; attempt++) {
-            String code = codeUtility.newAlphaNumericCode(8);
-            DropSession session = DropSession.builder()
-                    .owner(owner)
-                    .code(code)
-                    .createdAt(now)
-                    .expiresAt(expiresAt)
-                    .status(DropSessionStatus.OPEN)
-                    .build();
-            try {
-                saved = dropSessionRepository.saveAndFlush(session);
-                break;
-            } catch (org.springframework.dao.DataIntegrityViolationException ex) {
-                if (attempt == MAX_CODE_RETRIES - 1) {
-                    throw new IllegalStateException("Failed to generate a unique session code after " + MAX_CODE_RETRIES + " attempts", ex);
-                }
-                log.warn("Session code collision on attempt {}, retrying...", attempt + 1);
-            }
-        }
+        DropSession saved = dropSessionRepository.save(DropSession.builder()
+                .owner(owner)
+                .code(codeAllocator.allocate())
+                .createdAt(now)
+                .expiresAt(expiresAt)
+                .status(DropSessionStatus.OPEN)
+                .build());
 
         participantService.ensureOwnerParticipant(saved, owner);
+        DropSessionSnapshot snapshot = DropSessionSnapshot.from(saved);
+        metadataCache.put(snapshot);
+        applicationEventPublisher.publishEvent(new DropSessionCreatedEvent(snapshot));
 
         DropSessionCreatedPayload payload = new DropSessionCreatedPayload(
                 saved.getId().toString(),
@@ -101,10 +102,16 @@ public class DropSessionService {
     }
 
 
-    private void endSession(DropSession session, SessionEndReason reason){
-        if (!session.isUsable()) return;
+    /**
+     * Ends a session loaded with {@link DropSessionRepository#findByIdForUpdate}. The row lock makes a concurrent
+     * second end wait and then see the ended status, so only one caller releases the code and notifies.
+     */
+    private boolean endSession(DropSession session, SessionEndReason reason){
+        if (!session.isUsable()) return false;
         session.end(reason);
         dropSessionRepository.save(session);
+        metadataCache.evictAfterCommit(session.getId(), session.getCode());
+        codeAllocator.release(List.of(session.getCode()));
 
         if (reason == SessionEndReason.EXPIRED){
             webSocketNotifier.sendEventAfterCommit(
@@ -132,24 +139,73 @@ public class DropSessionService {
         }
 
         applicationEventPublisher.publishEvent(new DropSessionEndedEvent(session.getId(), reason));
+        return true;
     }
 
-    @Transactional
+    /**
+     * Expires overdue sessions in chunks of {@code app.session-expiry.batch-size}, one transaction per chunk,
+     * so a large backlog never loads more than one chunk of rows at a time.
+     */
     public int cleanUpExpiredSessions(){
-        Instant now = Instant.now();
-        List<DropSession> toExpire =
-                dropSessionRepository.findByStatusInAndExpiresAtBefore(
-                        List.of(DropSessionStatus.OPEN, DropSessionStatus.CONNECTED),
-                        now
-                );
-
-        toExpire.forEach(session -> endSession(session, SessionEndReason.EXPIRED));
-        return toExpire.size();
+        int total = 0;
+        int expired;
+        do {
+            expired = txTemplate.execute(status -> expireDueBatch());
+            total += expired;
+        } while (expired > 0 && expired == expiryBatchSize);
+        return total;
+    }
+
+    private int expireDueBatch() {
+        List<ExpiredDropSession> expired = dropSessionRepository.expireDue(Instant.now(), expiryBatchSize)
+                .stream()
+                .map(ExpiredDropSession::fromRow)
+                .toList();
+        if (expired.isEmpty()) return 0;
+
+        codeAllocator.release(expired.stream().map(ExpiredDropSession::code).toList());
+
+        Map<UUID, String> codesById = new HashMap<>();
+        Map<String, DropSessionExpiredPayload> payloads = new HashMap<>();
+        for (ExpiredDropSession session : expired) {
+            codesById.put(session.id(), session.code());
+            payloads.put(session.id().toString(), new DropSessionExpiredPayload(
+                    session.id().toString(),
+                    session.ownerId().toString(),
+                    session.expiresAt()));
+        }
+        metadataCache.evictAllAfterCommit(codesById);
+        webSocketNotifier.sendEventsAfterCommit(MessageType.DROP_SESSION_EXPIRED, payloads);
+        expired.forEach(session ->
+                applicationEventPublisher.publishEvent(new DropSessionEndedEvent(session.id(), SessionEndReason.EXPIRED)));
+
+        log.info("Expired {} DropSession(s) in bulk", expired.size());
+        return expired.size();
+    }
+
+    @Transactional
+    public boolean expireSession(UUID sessionId) {
+        DropSession session = dropSessionRepository.findByIdForUpdate(sessionId).orElse(null);
+        if (session == null || session.getExpiresAt().isAfter(Instant.now())) {
+            return false;
+        }
+
+        return endSession(session, SessionEndReason.EXPIRED);
+    }
+
+    /**
+     * Live sessions whose deadline falls before {@code horizon}, whichever node created them.
+     */
+    @Transactional(readOnly = true)
+    public List<DropSessionSnapshot> getLiveSessionSnapshotsDueBefore(Instant horizon) {
+        return dropSessionRepository.findSnapshotsByStatusInAndExpiresAtBefore(
+                List.of(DropSessionStatus.OPEN, DropSessionStatus.CONNECTED),
+                horizon);
     }
 
     @Transactional
     public void closeSessionById(UUID sessionId, User requester) {
-        DropSession session = dropSessionRepository.findById(sessionId)
+        DropSession session = dropSessionRepository.findByIdForUpdate(sessionId)
                 .orElseThrow(() -> new ResourceNotFoundException("Drop Session not found"));
 
         ensureOwner(session, requester);
@@ -157,8 +213,15 @@ public class DropSessionService {
     }
 
     @Transactional(readOnly = true)
-    public List<DropSession> getActiveSessionsForUser(User user) {
-        return dropSessionRepository.findActiveForUser(
+    public Optional<DropSessionCounters> findCounters(UUID sessionId) {
+        return dropSessionRepository.findCountersById(sessionId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<DropSessionSummary> getActiveSessionsForUser(User user) {
+        if (user.isProvisional()) return List.of();
+
+        return dropSessionRepository.findActiveSummariesForUser(
                 user,
                 List.of(DropSessionStatus.OPEN, DropSessionStatus.CONNECTED),
                 Instant.now()
@@ -167,7 +230,31 @@ public class DropSessionService {
 
     @Transactional(readOnly = true)
     public Optional<DropSession> findByCode(String code){
-        return dropSessionRepository.findByCode(code);
+        if (metadataCache.isKnownMissingCode(code)) {
+            return Optional.empty();
+        }
+
+        Optional<DropSession> session = dropSessionRepository.findFirstByCodeOrderByCreatedAtDesc(code);
+        session.ifPresentOrElse(
+                s -> metadataCache.put(DropSessionSnapshot.from(s)),
+                () -> metadataCache.rememberMissingCode(code));
+        return session;
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<DropSessionSnapshot> findSnapshotByCode(String code){
+        return metadataCache.findByCode(code)
+                .or(() -> findByCode(code).map(DropSessionSnapshot::from));
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<DropSessionSnapshot> findSnapshotById(UUID id){
+        return metadataCache.findById(id)
+                .or(() -> {
+                    Optional<DropSessionSnapshot> snapshot = dropSessionRepository.findById(id).map(DropSessionSnapshot::from);
+                    snapshot.ifPresent(metadataCache::put);
+                    return snapshot;
+                });
     }
 
     @Transactional(readOnly = true)
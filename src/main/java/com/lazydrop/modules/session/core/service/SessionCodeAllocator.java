@@ -0,0 +1,151 @@
+package com.lazydrop.modules.session.core.service;
+
+import com.lazydrop.modules.session.core.repository.SessionCodeRepository;
+import com.lazydrop.utility.CodeUtility;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Hands out join codes that are already reserved in {@code session_code}, so creating a
+ * session needs a single INSERT and never relies on a unique-constraint violation.
+ * <p>
+ * Codes are reserved in batches by the scheduler's {@link #topUp()}: recycled codes whose
+ * quarantine has passed first, then fresh random codes inserted with {@code ON CONFLICT DO NOTHING}.
+ * When the pool runs dry, {@link #allocate()} reserves a single code with one statement on the
+ * caller's own connection, so it never needs a second connection while a transaction is open.
+ */
+@Component
+@Slf4j
+public class SessionCodeAllocator {
+
+    static final int CODE_LENGTH = 8;
+    private static final int MAX_DIRECT_ATTEMPTS = 3;
+
+    private record ReservedCode(String code, Instant reservedAt) {}
+
+    private final SessionCodeRepository sessionCodeRepository;
+    private final CodeUtility codeUtility;
+    private final TransactionTemplate txTemplate;
+
+    private final ConcurrentLinkedQueue<ReservedCode> pool = new ConcurrentLinkedQueue<>();
+
+    private final int batchSize;
+    private final int lowWaterMark;
+    private final Duration recycleAfter;
+    private final Duration abandonAfter;
+
+    public SessionCodeAllocator(
+            SessionCodeRepository sessionCodeRepository,
+            CodeUtility codeUtility,
+            TransactionTemplate txTemplate,
+            @Value("${app.session-code.batch-size:32}") int batchSize,
+            @Value("${app.session-code.low-water-mark:8}") int lowWaterMark,
+            @Value("${app.session-code.recycle-after:7d}") Duration recycleAfter,
+            @Value("${app.session-code.abandon-after:1d}") Duration abandonAfter
+    ) {
+        this.sessionCodeRepository = sessionCodeRepository;
+        this.codeUtility = codeUtility;
+        this.txTemplate = txTemplate;
+        this.batchSize = batchSize;
+        this.lowWaterMark = lowWaterMark;
+        this.recycleAfter = recycleAfter;
+        this.abandonAfter = abandonAfter;
+    }
+
+    /**
+     * Takes a code from the pool, or reserves one directly when the pool is empty. The direct path
+     * joins the caller's transaction, so a rolled-back session creation also un-reserves its code.
+     */
+    public String allocate() {
+        ReservedCode reserved;
+        while ((reserved = pool.poll()) != null) {
+            // Held too long: releaseAbandoned() may already have handed it back.
+            if (isFresh(reserved)) {
+                return reserved.code();
+            }
+        }
+        return reserveDirectly();
+    }
+
+    /**
+     * Returns codes of ended sessions; they become reusable once {@code recycleAfter} has passed.
+     */
+    public void release(Collection<String> codes) {
+        if (codes.isEmpty()) return;
+        sessionCodeRepository.release(codes, Instant.now());
+    }
+
+    /**
+     * Refills the pool on its own transaction. Must not be called while a transaction is open.
+     */
+    public void topUp() {
+        if (pool.size() < lowWaterMark) {
+            refill();
+        }
+    }
+
+    public int releaseAbandoned() {
+        Instant now = Instant.now();
+        return sessionCodeRepository.releaseAbandoned(now.minus(abandonAfter), now);
+    }
+
+    private boolean isFresh(ReservedCode reserved) {
+        return reserved.reservedAt().isAfter(Instant.now().minus(abandonAfter.dividedBy(2)));
+    }
+
+    private String reserveDirectly() {
+        Instant now = Instant.now();
+        List<String> reclaimed = sessionCodeRepository.reclaimReleased(now.minus(recycleAfter), 1, now);
+        if (!reclaimed.isEmpty()) {
+            return reclaimed.getFirst();
+        }
+        for (int attempt = 0; attempt < MAX_DIRECT_ATTEMPTS; attempt++) {
+            List<String> fresh = sessionCodeRepository.reserveFresh(freshCandidates(1), now);
+            if (!fresh.isEmpty()) {
+                return fresh.getFirst();
+            }
+        }
+        throw new IllegalStateException("Unable to reserve a session code");
+    }
+
+    private synchronized void refill() {
+        if (pool.size() >= lowWaterMark) return;
+
+        List<String> reserved = txTemplate.execute(status -> {
+            Instant now = Instant.now();
+            List<String> codes = new ArrayList<>(
+                    sessionCodeRepository.reclaimReleased(now.minus(recycleAfter), batchSize, now));
+
+            int missing = batchSize - codes.size();
+            if (missing > 0) {
+                codes.addAll(sessionCodeRepository.reserveFresh(freshCandidates(missing), now));
+            }
+            return codes;
+        });
+
+        if (reserved == null || reserved.isEmpty()) return;
+
+        Instant reservedAt = Instant.now();
+        reserved.forEach(code -> pool.add(new ReservedCode(code, reservedAt)));
+        log.debug("Reserved {} session code(s), pool size {}", reserved.size(), pool.size());
+    }
+
+    private Set<String> freshCandidates(int count) {
+        Set<String> candidates = new LinkedHashSet<>();
+        while (candidates.size() < count) {
+            candidates.add(codeUtility.newAlphaNumericCode(CODE_LENGTH));
+        }
+        return candidates;
+    }
+}
@@ -5,17 +5,25 @@ import com.lazydrop.auth.IdentityResolver;
 import com.lazydrop.modules.session.file.dto.*;
 import com.lazydrop.modules.session.file.mapper.DropFileMapper;
 import com.lazydrop.security.UserPrincipal;
+import com.lazydrop.modules.session.file.service.DropFileArchiveService;
 import com.lazydrop.modules.session.file.service.DropFileService;
+import com.lazydrop.modules.storage.controller.ObjectResponses;
+import com.lazydrop.modules.storage.service.ObjectContent;
 import com.lazydrop.modules.user.model.User;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.UUID;
 
@@ -24,7 +32,10 @@ import java.util.UUID;
 @RequestMapping("/sessions/{sessionId}/files")
 public class DropFileController{
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final DropFileService dropFileService;
+    private final DropFileArchiveService dropFileArchiveService;
     private final IdentityResolver identityResolver;
 
 
@@ -37,7 +48,7 @@ public class DropFileController{
             HttpServletResponse response
             ) {
         User uploader = identityResolver.resolve(userPrincipal, req, response);
-        SignedUploadResponse resp = dropFileService.requestUploadUrl(sessionId, uploader, request.getFileName(), request.getContentType(), request.getFileSize(),  300);
+        SignedUploadResponse resp = dropFileService.requestUploadUrl(sessionId, uploader, request.getFileName(), request.getContentType(), request.getFileSize(), request.getSha256(), 300);
         return ResponseEntity.ok(resp);
     }
 
@@ -55,6 +66,103 @@ public class DropFileController{
         return ResponseEntity.status(HttpStatus.CREATED).body(DropFileMapper.toDropFileDto(file));
     }
 
+    @PostMapping(value = "/inline", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<DropFileDto> uploadInline(
+            @PathVariable UUID sessionId,
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @RequestParam("file") MultipartFile file,
+            HttpServletRequest req,
+            HttpServletResponse response
+    ) {
+        User uploader = identityResolver.resolve(userPrincipal, req, response);
+        var saved = dropFileService.uploadInline(sessionId, uploader, file);
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(DropFileMapper.toDropFileDto(saved));
+    }
+
+    @PostMapping("/upload-urls")
+    public ResponseEntity<List<SignedUploadResponse>> getSignedUploadUrls(
+            @PathVariable UUID sessionId,
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @Valid @RequestBody BatchUploadUrlRequest request,
+            HttpServletRequest req,
+            HttpServletResponse response
+    ) {
+        User uploader = identityResolver.resolve(userPrincipal, req, response);
+        List<SignedUploadResponse> resp = dropFileService.requestUploadUrls(sessionId, uploader, request.files(), 300);
+        return ResponseEntity.ok(resp);
+    }
+
+    @PostMapping("/confirm-batch")
+    public ResponseEntity<List<DropFileDto>> confirmUploads(
+            @PathVariable UUID sessionId,
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @Valid @RequestBody BatchConfirmRequest request,
+            HttpServletRequest req,
+            HttpServletResponse response
+    ) {
+        User uploader = identityResolver.resolve(userPrincipal, req, response);
+        List<DropFileDto> files = dropFileService.confirmUploads(sessionId, uploader, request.files())
+                .stream()
+                .map(DropFileMapper::toDropFileDto)
+                .toList();
+        return ResponseEntity.status(HttpStatus.CREATED).body(files);
+    }
+
+    @PostMapping("/multipart")
+    public ResponseEntity<MultipartUploadResponse> initiateMultipartUpload(
+            @PathVariable UUID sessionId,
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @Valid @RequestBody FileUploadRequest request,
+            HttpServletRequest req,
+            HttpServletResponse response
+    ) {
+        User uploader = identityResolver.resolve(userPrincipal, req, response);
+        MultipartUploadResponse resp = dropFileService.initiateMultipartUpload(sessionId, uploader, request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(resp);
+    }
+
+    @PostMapping("/multipart/{uploadId}/part-urls")
+    public ResponseEntity<MultipartPartUrlsResponse> getPartUploadUrls(
+            @PathVariable UUID sessionId,
+            @PathVariable UUID uploadId,
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @Valid @RequestBody MultipartPartUrlsRequest request,
+            HttpServletRequest req,
+            HttpServletResponse response
+    ) {
+        User uploader = identityResolver.resolve(userPrincipal, req, response);
+        MultipartPartUrlsResponse resp = dropFileService.requestPartUrls(sessionId, uploadId, uploader, request.partNumbers(), 3600);
+        return ResponseEntity.ok(resp);
+    }
+
+    @PostMapping("/multipart/{uploadId}/complete")
+    public ResponseEntity<DropFileDto> completeMultipartUpload(
+            @PathVariable UUID sessionId,
+            @PathVariable UUID uploadId,
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @Valid @RequestBody MultipartCompleteRequest request,
+            HttpServletRequest req,
+            HttpServletResponse response
+    ) {
+        User uploader = identityResolver.resolve(userPrincipal, req, response);
+        var file = dropFileService.completeMultipartUpload(sessionId, uploadId, uploader, request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(DropFileMapper.toDropFileDto(file));
+    }
+
+    @DeleteMapping("/multipart/{uploadId}")
+    public ResponseEntity<Void> abortMultipartUpload(
+            @PathVariable UUID sessionId,
+            @PathVariable UUID uploadId,
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            HttpServletRequest req,
+            HttpServletResponse response
+    ) {
+        User uploader = identityResolver.resolve(userPrincipal, req, response);
+        dropFileService.abortMultipartUpload(sessionId, uploadId, uploader);
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping("/{fileId}/download")
     public ResponseEntity<DownloadUrlResponse> getDownloadUrl(
             @PathVariable UUID sessionId,
@@ -63,11 +171,46 @@ public class DropFileController{
             HttpServletRequest req,
             HttpServletResponse response
     ) {
-        User requester = identityResolver.resolve(userPrincipal, req, response);
+        User requester = identityResolver.resolveForRead(userPrincipal, req, response);
         DownloadUrlResponse resp = dropFileService.getDownloadUrl(sessionId, fileId, requester, 3600);
         return ResponseEntity.ok(resp);
     }
 
+    @GetMapping("/archive")
+    public void downloadArchive(
+            @PathVariable UUID sessionId,
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            HttpServletRequest req,
+            HttpServletResponse response
+    ) throws IOException {
+        User requester = identityResolver.resolveForRead(userPrincipal, req, response);
+        List<ArchiveEntry> entries = dropFileService.getArchiveEntries(sessionId, requester);
+
+        response.setContentType("application/zip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("lazydrop-" + sessionId + ".zip")
+                .build()
+                .toString());
+        dropFileArchiveService.writeArchive(entries, response.getOutputStream());
+    }
+
+    @GetMapping("/{fileId}/content")
+    public void getContent(
+            @PathVariable UUID sessionId,
+            @PathVariable UUID fileId,
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            HttpServletRequest req,
+            HttpServletResponse response
+    ) throws IOException {
+        User requester = identityResolver.resolveForRead(userPrincipal, req, response);
+        FileContent file = dropFileService.openContent(sessionId, fileId, requester);
+
+        try (ObjectContent content = file.content()) {
+            ObjectResponses.write(req, response, content, file.fileName() == null ? "file" : file.fileName(),
+                    MediaType.APPLICATION_OCTET_STREAM_VALUE, null);
+        }
+    }
+
     @PostMapping("/{fileId}/mark-downloaded")
     public ResponseEntity<Void> markDownloaded(
             @PathVariable UUID sessionId,
@@ -81,15 +224,35 @@ public class DropFileController{
         return ResponseEntity.ok().build();
     }
 
+    @PostMapping("/mark-downloaded")
+    public ResponseEntity<List<UUID>> markDownloadedBatch(
+            @PathVariable UUID sessionId,
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @RequestBody @Valid MarkDownloadedRequest request,
+            HttpServletRequest req,
+            HttpServletResponse response
+    ) {
+        User downloader = identityResolver.resolve(userPrincipal, req, response);
+        List<UUID> recorded = dropFileService.markFilesAsDownloaded(sessionId, request.fileIds(), downloader);
+        return ResponseEntity.ok(recorded);
+    }
+
     @GetMapping()
     public ResponseEntity<List<DropFileDto>> getAllFiles(
             @PathVariable UUID sessionId,
+            @RequestParam(required = false) String since,
+            @RequestParam(required = false) Integer limit,
             @AuthenticationPrincipal UserPrincipal userPrincipal,
             HttpServletRequest req,
             HttpServletResponse response
     ){
-        User requester = identityResolver.resolve(userPrincipal, req, response);
-        List<DropFileDto> files = dropFileService.getAllFiles(sessionId, requester);
-        return ResponseEntity.ok(files);
+        User requester = identityResolver.resolveForRead(userPrincipal, req, response);
+        DropFilePage page = dropFileService.getFiles(sessionId, requester, since, limit);
+
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            ok.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return ok.body(page.files());
     }
 }
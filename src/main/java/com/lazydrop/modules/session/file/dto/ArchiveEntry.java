@@ -0,0 +1,8 @@
+package com.lazydrop.modules.session.file.dto;
+
+public record ArchiveEntry(
+        String objectPath,
+        String fileName,
+        Long sizeBytes
+) {
+}
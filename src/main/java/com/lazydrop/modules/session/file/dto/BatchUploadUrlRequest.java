@@ -0,0 +1,13 @@
+package com.lazydrop.modules.session.file.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record BatchUploadUrlRequest(
+        @NotEmpty(message = "files is required")
+        @Size(max = 100, message = "At most 100 files per batch")
+        List<@Valid FileUploadRequest> files
+) {}
@@ -0,0 +1,12 @@
+package com.lazydrop.modules.session.file.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+
+public record CompletedUploadPart(
+        @Min(value = 1, message = "partNumber must be positive")
+        int partNumber,
+
+        @NotBlank(message = "eTag is required")
+        String eTag
+) {}
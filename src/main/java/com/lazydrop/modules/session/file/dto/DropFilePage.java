@@ -0,0 +1,11 @@
+package com.lazydrop.modules.session.file.dto;
+
+import java.util.List;
+
+/**
+ * One page of a file listing; {@code nextCursor} is the {@code since} value for the next page, or null on the last one.
+ */
+public record DropFilePage(
+        List<DropFileDto> files,
+        String nextCursor
+) {}
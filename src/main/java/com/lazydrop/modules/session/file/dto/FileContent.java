@@ -0,0 +1,12 @@
+package com.lazydrop.modules.session.file.dto;
+
+import com.lazydrop.modules.storage.service.ObjectContent;
+
+/**
+ * File bytes served through the API, sized by what is actually stored. The caller must close {@code content}.
+ */
+public record FileContent(
+        String fileName,
+        ObjectContent content
+) {
+}
@@ -2,6 +2,7 @@ package com.lazydrop.modules.session.file.dto;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
 import lombok.*;
 
 @Getter
@@ -19,4 +20,7 @@ public class FileUploadRequest {
 
     @NotNull(message = "File size cannot be null")
     private long fileSize;
+
+    @Pattern(regexp = "^[0-9a-fA-F]{64}$", message = "sha256 must be 64 hex characters")
+    private String sha256;
 }
@@ -0,0 +1,14 @@
+package com.lazydrop.modules.session.file.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+import java.util.UUID;
+
+public record MarkDownloadedRequest(
+        @NotEmpty(message = "fileIds is required")
+        @Size(max = 500, message = "At most 500 files per batch")
+        List<@NotNull UUID> fileIds
+) {}
@@ -0,0 +1,11 @@
+package com.lazydrop.modules.session.file.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public record MultipartCompleteRequest(
+        @NotEmpty(message = "parts is required")
+        List<@Valid CompletedUploadPart> parts
+) {}
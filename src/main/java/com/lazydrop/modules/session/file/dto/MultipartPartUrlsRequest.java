@@ -0,0 +1,12 @@
+package com.lazydrop.modules.session.file.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record MultipartPartUrlsRequest(
+        @NotEmpty(message = "partNumbers is required")
+        @Size(max = 100, message = "At most 100 part URLs can be requested at once")
+        List<Integer> partNumbers
+) {}
@@ -0,0 +1,8 @@
+package com.lazydrop.modules.session.file.dto;
+
+import java.util.List;
+
+public record MultipartPartUrlsResponse(
+        List<PresignedPartUrl> parts,
+        int expiresIn
+) {}
@@ -0,0 +1,6 @@
+package com.lazydrop.modules.session.file.dto;
+
+public record MultipartUploadHandle(
+        String objectPath,
+        String uploadId
+) {}
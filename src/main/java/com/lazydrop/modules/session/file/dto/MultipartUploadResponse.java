@@ -0,0 +1,11 @@
+package com.lazydrop.modules.session.file.dto;
+
+import lombok.Builder;
+
+@Builder
+public record MultipartUploadResponse(
+        String uploadId,
+        String objectPath,
+        long partSize,
+        int partCount
+) {}
@@ -0,0 +1,10 @@
+package com.lazydrop.modules.session.file.dto;
+
+public record OrphanReconcileResult(
+        long scannedObjects,
+        long deletedObjects,
+        long failedObjects,
+        long reclaimedBytes,
+        boolean complete
+) {
+}
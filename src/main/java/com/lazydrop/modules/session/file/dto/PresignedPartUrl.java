@@ -0,0 +1,6 @@
+package com.lazydrop.modules.session.file.dto;
+
+public record PresignedPartUrl(
+        int partNumber,
+        String signedUrl
+) {}
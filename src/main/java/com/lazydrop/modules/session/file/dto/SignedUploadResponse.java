@@ -12,4 +12,9 @@ public class SignedUploadResponse {
     private String objectPath;
     private String token;
     private int expiresIn;
+
+    /**
+     * The owner already stores this content at {@code objectPath}; skip the PUT and confirm right away.
+     */
+    private boolean alreadyStored;
 }
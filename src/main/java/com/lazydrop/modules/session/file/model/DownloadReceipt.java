@@ -0,0 +1,11 @@
+package com.lazydrop.modules.session.file.model;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record DownloadReceipt(
+        UUID fileId,
+        UUID participantId,
+        Instant downloadedAt
+) {
+}
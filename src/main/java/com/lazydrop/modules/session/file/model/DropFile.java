@@ -16,7 +16,9 @@ import java.util.UUID;
 @Entity
 @Table(
         indexes = {
-                @Index(name = "idx_drop_file_session_created", columnList = "drop_session_id,created_at")
+                @Index(name = "idx_drop_file_session_created", columnList = "drop_session_id,created_at"),
+                @Index(name = "idx_drop_file_storage_path", columnList = "storage_path"),
+                @Index(name = "idx_drop_file_content_id", columnList = "content_id")
         }
 )
 public class DropFile {
@@ -42,6 +44,12 @@ public class DropFile {
     @Column(name = "size_bytes")
     private Long sizeBytes;
 
+    /**
+     * Set when the object is shared through {@link DropFileContent}; such objects are only deleted with their last reference.
+     */
+    @Column(name = "content_id")
+    private UUID contentId;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private Instant createdAt;
 
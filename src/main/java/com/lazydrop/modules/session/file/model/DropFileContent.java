@@ -0,0 +1,51 @@
+package com.lazydrop.modules.session.file.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.UuidGenerator;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Content-addressed index of stored objects, scoped to the uploader. Every {@link DropFile} whose
+ * {@code contentId} points here holds one reference; the object is deleted with the last one.
+ * Rows without an uploader are no longer offered for sharing but still count references.
+ */
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(
+        name = "drop_file_content",
+        uniqueConstraints = @UniqueConstraint(
+                name = "ux_drop_file_content_uploader_sha256",
+                columnNames = {"uploader_id", "sha256"}
+        )
+)
+public class DropFileContent {
+    @Id
+    @UuidGenerator(style = UuidGenerator.Style.VERSION_7)
+    @Column(nullable = false, updatable = false)
+    private UUID id;
+
+    @Column(name = "uploader_id")
+    private UUID uploaderId;
+
+    @Column(name = "sha256", nullable = false, updatable = false, length = 64)
+    private String sha256;
+
+    @Column(name = "size_bytes", nullable = false, updatable = false)
+    private long sizeBytes;
+
+    @Column(name = "object_path", nullable = false, updatable = false)
+    private String objectPath;
+
+    @Column(name = "ref_count", nullable = false)
+    private int refCount;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+}
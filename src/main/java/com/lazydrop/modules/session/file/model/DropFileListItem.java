@@ -0,0 +1,16 @@
+package com.lazydrop.modules.session.file.model;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A file row as listed to one participant, with {@code downloadedByMe} resolved by the same query.
+ */
+public record DropFileListItem(
+        UUID id,
+        String originalName,
+        Long sizeBytes,
+        Instant createdAt,
+        boolean downloadedByMe
+) {
+}
@@ -0,0 +1,73 @@
+package com.lazydrop.modules.session.file.model;
+
+import com.lazydrop.modules.session.core.model.DropSession;
+import com.lazydrop.modules.user.model.User;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.UuidGenerator;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A multipart upload that has been initiated in object storage but not yet completed or aborted.
+ */
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(
+        name = "drop_file_upload",
+        indexes = {
+                @Index(name = "idx_drop_file_upload_session", columnList = "drop_session_id"),
+                @Index(name = "idx_drop_file_upload_created_at", columnList = "created_at"),
+                @Index(name = "idx_drop_file_upload_object_path", columnList = "object_path")
+        }
+)
+public class DropFileUpload {
+    @Id
+    @UuidGenerator(style = UuidGenerator.Style.VERSION_7)
+    @Column(nullable = false, updatable = false)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "drop_session_id", nullable = false)
+    private DropSession dropSession;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "uploader", nullable = false)
+    private User uploader;
+
+    @Column(name = "object_path", nullable = false)
+    private String objectPath;
+
+    @Column(name = "upload_id", nullable = false)
+    private String uploadId;
+
+    @Column(name = "original_name")
+    private String originalName;
+
+    @Column(name = "content_type")
+    private String contentType;
+
+    @Column(name = "size_bytes", nullable = false)
+    private long sizeBytes;
+
+    @Column(name = "part_size", nullable = false)
+    private long partSize;
+
+    @Column(name = "part_count", nullable = false)
+    private int partCount;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @PrePersist
+    void onCreate() {
+        if (createdAt == null) {
+            createdAt = Instant.now();
+        }
+    }
+}
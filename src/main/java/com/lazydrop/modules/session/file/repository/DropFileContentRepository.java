@@ -0,0 +1,75 @@
+package com.lazydrop.modules.session.file.repository;
+
+import com.lazydrop.modules.session.file.model.DropFileContent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface DropFileContentRepository extends JpaRepository<DropFileContent, UUID> {
+
+    @Query("""
+    select c from DropFileContent c
+    where c.uploaderId = :uploaderId and c.sha256 in :hashes and c.refCount > 0
+  """)
+    List<DropFileContent> findAvailable(@Param("uploaderId") UUID uploaderId, @Param("hashes") Collection<String> hashes);
+
+    /**
+     * Takes a reference on live content. Content whose count already reached zero is being deleted
+     * and cannot be revived; returns {@code (id, object_path)} or nothing.
+     */
+    @Query(nativeQuery = true, value = """
+        update drop_file_content
+        set ref_count = ref_count + 1
+        where uploader_id = :uploaderId and sha256 = :sha256 and size_bytes = :sizeBytes and ref_count > 0
+        returning id, object_path
+    """)
+    List<Object[]> acquire(@Param("uploaderId") UUID uploaderId, @Param("sha256") String sha256, @Param("sizeBytes") long sizeBytes);
+
+    /**
+     * Indexes a freshly uploaded object with one reference. Returns the new id, or nothing if the
+     * uploader already has content with this hash.
+     */
+    @Query(nativeQuery = true, value = """
+        insert into drop_file_content (id, uploader_id, sha256, size_bytes, object_path, ref_count, created_at)
+        values (gen_random_uuid(), :uploaderId, :sha256, :sizeBytes, :objectPath, 1, :now)
+        on conflict (uploader_id, sha256) do nothing
+        returning id
+    """)
+    List<UUID> register(@Param("uploaderId") UUID uploaderId,
+                        @Param("sha256") String sha256,
+                        @Param("sizeBytes") long sizeBytes,
+                        @Param("objectPath") String objectPath,
+                        @Param("now") Instant now);
+
+    /**
+     * Drops one reference per occurrence of an id in {@code contentIds}.
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = """
+        update drop_file_content c
+        set ref_count = c.ref_count - r.n
+        from (
+            select id, count(*) as n
+            from unnest(cast(array[:contentIds] as uuid[])) as id
+            group by id
+        ) r
+        where c.id = r.id
+    """)
+    int release(@Param("contentIds") List<UUID> contentIds);
+
+    /**
+     * Removes released content that has no references left and returns the object paths to delete.
+     */
+    @Query(nativeQuery = true, value = """
+        delete from drop_file_content
+        where id in (:contentIds) and ref_count <= 0
+        returning object_path
+    """)
+    List<String> deleteUnreferenced(@Param("contentIds") Collection<UUID> contentIds);
+}
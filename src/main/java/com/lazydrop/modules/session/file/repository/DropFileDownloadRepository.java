@@ -1,24 +1,54 @@
 package com.lazydrop.modules.session.file.repository;
 
-import com.lazydrop.modules.session.core.model.DropSession;
-import com.lazydrop.modules.session.file.model.DropFile;
 import com.lazydrop.modules.session.file.model.DropFileDownload;
-import com.lazydrop.modules.session.participant.model.DropSessionParticipant;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
-import java.util.Set;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 public interface DropFileDownloadRepository extends JpaRepository<DropFileDownload, UUID> {
-    boolean existsByParticipantAndFile(DropSessionParticipant participant, DropFile file);
-
-    @Query("""
-  select d.file.id from DropFileDownload d
-  where d.participant = :participant and d.file.dropSession = :session
-""")
-    Set<UUID> findDownloadedFileIds(@Param("participant") DropSessionParticipant participant,
-                                    @Param("session") DropSession session);
+    /**
+     * Resolves which of {@code fileIds} the user may mark as downloaded: files of the session, provided the
+     * user is a participant and the session is still live. Returns {@code (file_id, participant_id)} rows.
+     */
+    @Query(nativeQuery = true, value = """
+        select f.id as file_id, p.id as participant_id
+        from drop_file f
+        join drop_session s on s.id = f.drop_session_id
+        join drop_session_participants p on p.drop_session_id = s.id and p.user_id = :userId
+        where s.id = :sessionId
+          and f.id in (:fileIds)
+          and s.status in ('OPEN', 'CONNECTED')
+          and s.expires_at > :now
+    """)
+    List<Object[]> findReceiptTargets(@Param("sessionId") UUID sessionId,
+                                      @Param("userId") UUID userId,
+                                      @Param("fileIds") Collection<UUID> fileIds,
+                                      @Param("now") Instant now);
 
+    /**
+     * Multi-row receipt insert. Rows whose file or participant has been deleted since they were
+     * buffered are skipped, and duplicates are ignored.
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = """
+        insert into drop_file_download (id, file_id, participant_id, downloaded_at)
+        select gen_random_uuid(), r.file_id, r.participant_id, r.downloaded_at
+        from unnest(
+            cast(array[:fileIds] as uuid[]),
+            cast(array[:participantIds] as uuid[]),
+            cast(array[:downloadedAts] as timestamptz[])
+        ) as r(file_id, participant_id, downloaded_at)
+        where exists (select 1 from drop_file f where f.id = r.file_id)
+          and exists (select 1 from drop_session_participants p where p.id = r.participant_id)
+        on conflict (participant_id, file_id) do nothing
+    """)
+    int insertReceipts(@Param("fileIds") List<UUID> fileIds,
+                       @Param("participantIds") List<UUID> participantIds,
+                       @Param("downloadedAts") List<Instant> downloadedAts);
 }
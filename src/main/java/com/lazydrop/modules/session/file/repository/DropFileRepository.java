@@ -1,10 +1,17 @@
 package com.lazydrop.modules.session.file.repository;
 
 import com.lazydrop.modules.session.file.model.DropFile;
+import com.lazydrop.modules.session.file.model.DropFileListItem;
 import com.lazydrop.modules.session.core.model.DropSession;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.lang.NonNull;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -15,6 +22,40 @@ public interface DropFileRepository extends JpaRepository <DropFile, UUID>{
     @NonNull Optional<DropFile> findById(@NonNull UUID id);
     void deleteByDropSession(DropSession dropSession);
 
+    List<DropFile> findByDropSession_Id(UUID dropSessionId);
+
+    @Modifying
+    @Query("delete from DropFile f where f.id in :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query("select f.storagePath from DropFile f where f.storagePath in :paths")
+    List<String> findStoragePathsIn(@Param("paths") Collection<String> paths);
+
     @Override
     void delete(@NonNull DropFile entity);
+
+    @Query("select f.createdAt from DropFile f where f.id = :id")
+    Optional<Instant> findCreatedAtById(@Param("id") UUID id);
+
+    /**
+     * Files of the session created after the {@code (afterCreatedAt, afterId)} keyset cursor, oldest first,
+     * with the participant's receipt left-joined in. Served by {@code idx_drop_file_session_created}.
+     */
+    @Query("""
+    select new com.lazydrop.modules.session.file.model.DropFileListItem(
+        f.id, f.originalName, f.sizeBytes, f.createdAt,
+        case when d.id is not null then true else false end)
+    from DropFile f
+    left join DropFileDownload d on d.file = f and d.participant.id = :participantId
+    where f.dropSession.id = :sessionId
+      and (f.createdAt > :afterCreatedAt or (f.createdAt = :afterCreatedAt and f.id > :afterId))
+    order by f.createdAt, f.id
+  """)
+    List<DropFileListItem> findListItemsAfter(
+            @Param("sessionId") UUID sessionId,
+            @Param("participantId") UUID participantId,
+            @Param("afterCreatedAt") Instant afterCreatedAt,
+            @Param("afterId") UUID afterId,
+            Pageable pageable
+    );
 }
@@ -0,0 +1,30 @@
+package com.lazydrop.modules.session.file.repository;
+
+import com.lazydrop.modules.session.file.model.DropFileUpload;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface DropFileUploadRepository extends JpaRepository<DropFileUpload, UUID> {
+
+    Optional<DropFileUpload> findByIdAndDropSession_Id(UUID id, UUID dropSessionId);
+
+    List<DropFileUpload> findByDropSession_Id(UUID dropSessionId);
+
+    List<DropFileUpload> findByCreatedAtBeforeOrderByCreatedAt(Instant cutoff, Pageable pageable);
+
+    @Query("select u.objectPath from DropFileUpload u where u.objectPath in :paths")
+    List<String> findObjectPathsIn(@Param("paths") Collection<String> paths);
+
+    @Modifying
+    @Query("delete from DropFileUpload u where u.id = :id")
+    int deleteUploadById(@Param("id") UUID id);
+}
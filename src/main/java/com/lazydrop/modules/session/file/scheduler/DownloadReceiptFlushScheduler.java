@@ -0,0 +1,23 @@
+package com.lazydrop.modules.session.file.scheduler;
+
+import com.lazydrop.modules.session.file.service.DownloadReceiptBuffer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DownloadReceiptFlushScheduler {
+
+    private final DownloadReceiptBuffer downloadReceiptBuffer;
+
+    @Scheduled(fixedDelayString = "${app.download-receipts.flush-interval-ms:500}")
+    public void flushDownloadReceipts() {
+        int written = downloadReceiptBuffer.flush();
+        if (written > 0) {
+            log.debug("Flushed {} download receipt(s)", written);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.lazydrop.modules.session.file.scheduler;
+
+import com.lazydrop.modules.session.file.service.DropFileService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DropFileUploadScheduler {
+
+    private static final int ABORT_BATCH_SIZE = 100;
+
+    private final DropFileService dropFileService;
+
+    @Value("${app.multipart.abandon-after:24h}")
+    private Duration abandonAfter;
+
+    @Scheduled(fixedRate = 3_600_000, initialDelay = 120_000)
+    public void abortStaleMultipartUploads() {
+        log.debug("Tick: abortStaleMultipartUploads");
+        int aborted = dropFileService.abortStaleUploads(abandonAfter, ABORT_BATCH_SIZE);
+        if (aborted > 0) {
+            log.info("Aborted {} stale multipart upload(s)", aborted);
+        }
+    }
+}
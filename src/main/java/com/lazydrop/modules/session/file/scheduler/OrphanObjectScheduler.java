@@ -0,0 +1,29 @@
+package com.lazydrop.modules.session.file.scheduler;
+
+import com.lazydrop.modules.session.file.dto.OrphanReconcileResult;
+import com.lazydrop.modules.session.file.service.OrphanObjectReconciler;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrphanObjectScheduler {
+
+    private final OrphanObjectReconciler reconciler;
+
+    @Scheduled(fixedDelayString = "${app.storage.reconcile.interval-ms:21600000}", initialDelay = 600_000)
+    public void reconcileOrphanedObjects() {
+        log.debug("Tick: reconcileOrphanedObjects");
+        try {
+            OrphanReconcileResult result = reconciler.reconcile();
+            log.info("Orphan reconcile {}: scanned={} deleted={} failed={} reclaimedBytes={}",
+                    result.complete() ? "finished" : "paused",
+                    result.scannedObjects(), result.deletedObjects(), result.failedObjects(), result.reclaimedBytes());
+        } catch (Exception e) {
+            log.error("Orphan reconcile failed", e);
+        }
+    }
+}
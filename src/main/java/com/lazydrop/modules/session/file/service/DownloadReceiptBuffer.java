@@ -0,0 +1,159 @@
+package com.lazydrop.modules.session.file.service;
+
+import com.lazydrop.modules.session.file.model.DownloadReceipt;
+import com.lazydrop.modules.session.file.repository.DropFileDownloadRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+/**
+ * Write-behind buffer for {@code drop_file_download} rows. Receipts are queued without locking and
+ * written in multi-row inserts, either every {@code app.download-receipts.flush-interval-ms} (see
+ * {@code DownloadReceiptFlushScheduler}) or as soon as {@code batch-size} receipts are waiting.
+ * A failed flush puts its receipts back; whatever is left is flushed on shutdown.
+ */
+@Component
+@Slf4j
+public class DownloadReceiptBuffer {
+
+    private static final Duration SHUTDOWN_FLUSH_TIMEOUT = Duration.ofSeconds(10);
+
+    private final DropFileDownloadRepository downloadRepository;
+    private final TransactionTemplate txTemplate;
+    private final TaskScheduler taskScheduler;
+
+    private final int batchSize;
+    private final int maxPending;
+
+    private final ConcurrentLinkedQueue<DownloadReceipt> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicBoolean flushing = new AtomicBoolean();
+
+    private final Counter flushed;
+    private final Counter dropped;
+
+    public DownloadReceiptBuffer(
+            DropFileDownloadRepository downloadRepository,
+            TransactionTemplate txTemplate,
+            TaskScheduler taskScheduler,
+            MeterRegistry meterRegistry,
+            @Value("${app.download-receipts.batch-size:500}") int batchSize,
+            @Value("${app.download-receipts.max-pending:100000}") int maxPending
+    ) {
+        this.downloadRepository = downloadRepository;
+        this.txTemplate = txTemplate;
+        this.taskScheduler = taskScheduler;
+        this.batchSize = batchSize;
+        this.maxPending = maxPending;
+
+        this.flushed = Counter.builder("lazydrop.download-receipts.flushed").register(meterRegistry);
+        this.dropped = Counter.builder("lazydrop.download-receipts.dropped").register(meterRegistry);
+        Gauge.builder("lazydrop.download-receipts.pending", pendingCount, AtomicInteger::get).register(meterRegistry);
+    }
+
+    public void add(DownloadReceipt receipt) {
+        if (pendingCount.get() >= maxPending) {
+            dropped.increment();
+            log.warn("Download receipt buffer full; dropping receipt for file {}", receipt.fileId());
+            return;
+        }
+        pending.offer(receipt);
+        if (pendingCount.incrementAndGet() >= batchSize && !flushing.get()) {
+            taskScheduler.schedule(this::flush, Instant.now());
+        }
+    }
+
+    /**
+     * Files the participant has marked as downloaded that are not written yet.
+     */
+    public Set<UUID> pendingFileIds(UUID participantId) {
+        return pending.stream()
+                .filter(r -> r.participantId().equals(participantId))
+                .map(DownloadReceipt::fileId)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Writes everything queued so far, one batch at a time. Concurrent callers return immediately.
+     */
+    public int flush() {
+        if (!flushing.compareAndSet(false, true)) return 0;
+        try {
+            int written = 0;
+            List<DownloadReceipt> batch;
+            while (!(batch = drainBatch()).isEmpty()) {
+                if (!write(batch)) break;
+                written += batch.size();
+            }
+            return written;
+        } finally {
+            flushing.set(false);
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        int remaining = pendingCount.get();
+        long deadline = System.nanoTime() + SHUTDOWN_FLUSH_TIMEOUT.toNanos();
+
+        // flush() returns 0 while another flush is running or when a write fails; keep trying until the deadline
+        while (pendingCount.get() > 0 && System.nanoTime() < deadline) {
+            if (flush() == 0) {
+                LockSupport.parkNanos(Duration.ofMillis(50).toNanos());
+            }
+        }
+
+        if (pendingCount.get() > 0) {
+            log.error("Shut down with {} unwritten download receipt(s)", pendingCount.get());
+        } else if (remaining > 0) {
+            log.info("Flushed {} download receipt(s) on shutdown", remaining);
+        }
+    }
+
+    private List<DownloadReceipt> drainBatch() {
+        // Collapse repeats of the same (participant, file) within a batch; the insert ignores the rest
+        Map<List<UUID>, DownloadReceipt> batch = new LinkedHashMap<>();
+        DownloadReceipt receipt;
+        while (batch.size() < batchSize && (receipt = pending.poll()) != null) {
+            pendingCount.decrementAndGet();
+            batch.putIfAbsent(List.of(receipt.participantId(), receipt.fileId()), receipt);
+        }
+        return new ArrayList<>(batch.values());
+    }
+
+    private boolean write(List<DownloadReceipt> batch) {
+        try {
+            txTemplate.executeWithoutResult(status -> downloadRepository.insertReceipts(
+                    batch.stream().map(DownloadReceipt::fileId).toList(),
+                    batch.stream().map(DownloadReceipt::participantId).toList(),
+                    batch.stream().map(DownloadReceipt::downloadedAt).toList()));
+            flushed.increment(batch.size());
+            return true;
+        } catch (Exception e) {
+            log.warn("Failed to write {} download receipt(s); will retry", batch.size(), e);
+            pending.addAll(batch);
+            pendingCount.addAndGet(batch.size());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.lazydrop.modules.session.file.service;
+
+import com.lazydrop.common.exception.ResourceNotFoundException;
+import com.lazydrop.modules.session.file.dto.ArchiveEntry;
+import com.lazydrop.modules.storage.service.StorageService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Streams a ZIP of session files straight from storage to the client. Each object is copied through
+ * one fixed-size buffer, so memory per request stays constant regardless of how much is archived,
+ * and nothing is written to local disk.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DropFileArchiveService {
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    // Formats that are already compressed; deflating them again only burns CPU
+    private static final Set<String> COMPRESSED_EXTENSIONS = Set.of(
+            "zip", "gz", "tgz", "bz2", "xz", "7z", "rar", "zst",
+            "jpg", "jpeg", "png", "gif", "webp", "heic", "avif",
+            "mp3", "m4a", "aac", "ogg", "opus", "flac",
+            "mp4", "m4v", "mov", "mkv", "webm", "avi",
+            "pdf", "docx", "xlsx", "pptx", "epub", "apk", "jar");
+
+    private final StorageService storageService;
+
+    public void writeArchive(List<ArchiveEntry> entries, OutputStream out) throws IOException {
+        byte[] buffer = new byte[COPY_BUFFER_SIZE];
+        Set<String> usedNames = new HashSet<>();
+
+        ZipOutputStream zip = new ZipOutputStream(out);
+        for (ArchiveEntry entry : entries) {
+            InputStream object;
+            try {
+                object = storageService.openObject(entry.objectPath());
+            } catch (ResourceNotFoundException e) {
+                log.warn("Skipping {} in archive: object no longer exists", entry.objectPath());
+                continue;
+            }
+
+            String name = uniqueName(sanitize(entry.fileName()), usedNames);
+            // ZipOutputStream's STORED method needs the CRC up front, which would mean reading each
+            // object twice; deflating at level 0 writes the bytes as-is in a single pass instead.
+            zip.setLevel(isCompressed(name) ? Deflater.NO_COMPRESSION : Deflater.DEFAULT_COMPRESSION);
+            zip.putNextEntry(new ZipEntry(name));
+
+            try (InputStream in = object) {
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    zip.write(buffer, 0, read);
+                }
+            }
+            zip.closeEntry();
+        }
+        zip.finish();
+        zip.flush();
+    }
+
+    private static boolean isCompressed(String name) {
+        int dot = name.lastIndexOf('.');
+        return dot >= 0 && COMPRESSED_EXTENSIONS.contains(name.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+
+    private static String sanitize(String fileName) {
+        if (fileName == null || fileName.isBlank()) return "file";
+        String name = fileName.replace('\\', '_').replace('/', '_').strip();
+        return name.equals(".") || name.equals("..") ? "file" : name;
+    }
+
+    private static String uniqueName(String name, Set<String> usedNames) {
+        if (usedNames.add(name)) return name;
+
+        int dot = name.lastIndexOf('.');
+        String base = dot > 0 ? name.substring(0, dot) : name;
+        String ext = dot > 0 ? name.substring(dot) : "";
+        for (int n = 2; ; n++) {
+            String candidate = base + " (" + n + ")" + ext;
+            if (usedNames.add(candidate)) return candidate;
+        }
+    }
+}
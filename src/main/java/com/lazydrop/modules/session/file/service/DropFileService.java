@@ -1,22 +1,31 @@
 package com.lazydrop.modules.session.file.service;
 
+import com.lazydrop.common.exception.BadRequestException;
 import com.lazydrop.common.exception.ForbiddenOperationException;
 import com.lazydrop.common.exception.ResourceNotFoundException;
 import com.lazydrop.modules.billing.service.PlanEnforcementService;
-import com.lazydrop.modules.session.core.event.DropSessionEndedEvent;
+import com.lazydrop.modules.session.core.repository.DropSessionRepository;
 import com.lazydrop.modules.session.core.service.DropSessionService;
-import com.lazydrop.modules.session.file.dto.DownloadUrlResponse;
-import com.lazydrop.modules.session.file.dto.DropFileDto;
-import com.lazydrop.modules.session.file.dto.FileConfirmRequest;
-import com.lazydrop.modules.session.file.dto.SignedUploadResponse;
-import com.lazydrop.modules.session.file.model.DropFileDownload;
+import com.lazydrop.modules.session.file.dto.*;
+import com.lazydrop.modules.session.file.model.DownloadReceipt;
+import com.lazydrop.modules.session.file.model.DropFileContent;
+import com.lazydrop.modules.session.file.model.DropFileListItem;
+import com.lazydrop.modules.session.file.model.DropFileUpload;
+import com.lazydrop.modules.session.file.repository.DropFileContentRepository;
 import com.lazydrop.modules.session.file.repository.DropFileDownloadRepository;
+import com.lazydrop.modules.session.file.repository.DropFileUploadRepository;
 import com.lazydrop.modules.session.participant.model.DropSessionParticipant;
 import com.lazydrop.modules.session.participant.service.DropSessionParticipantService;
 import com.lazydrop.modules.subscription.service.SubscriptionService;
 import com.lazydrop.modules.session.file.model.DropFile;
 import com.lazydrop.modules.session.core.model.DropSession;
 import com.lazydrop.modules.session.file.repository.DropFileRepository;
+import com.lazydrop.modules.storage.dto.BulkDeleteResult;
+import com.lazydrop.modules.storage.dto.SignedDownloadUrl;
+import com.lazydrop.modules.storage.model.InlineObject;
+import com.lazydrop.modules.storage.service.DownloadUrlCache;
+import com.lazydrop.modules.storage.service.ObjectContent;
+import com.lazydrop.modules.storage.service.ObjectDiskCache;
 import com.lazydrop.modules.storage.service.StorageService;
 import com.lazydrop.modules.user.model.User;
 import com.lazydrop.modules.websocket.MessageType;
@@ -24,17 +33,36 @@ import com.lazydrop.modules.websocket.WebSocketNotifier;
 import com.lazydrop.modules.websocket.payload.DropSessionFilesCleanedPayload;
 import com.lazydrop.modules.websocket.payload.FileDownloadedPayload;
 import com.lazydrop.modules.websocket.payload.FileUploadedPayload;
+import com.lazydrop.modules.websocket.payload.FilesUploadedPayload;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-
-
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -46,12 +74,33 @@ public class DropFileService {
     private final DropFileDownloadRepository dropFileDownloadRepository;
     private final SubscriptionService subscriptionService;
     private final StorageService storageService;
+    private final DownloadUrlCache downloadUrlCache;
+    private final ObjectDiskCache objectDiskCache;
+    private final DownloadReceiptBuffer downloadReceiptBuffer;
     private final WebSocketNotifier webSocketNotifier;
     private final DropSessionParticipantService dropSessionParticipantService;
     private final PlanEnforcementService planEnforcementService;
+    private final DropSessionRepository dropSessionRepository;
+    private final DropFileUploadRepository dropFileUploadRepository;
+    private final DropFileContentRepository dropFileContentRepository;
+    private final TransactionTemplate txTemplate;
+
+    @Value("${app.multipart.min-part-size:8MB}")
+    private DataSize multipartMinPartSize;
+
+    @Value("${app.storage.inline.max-size:256KB}")
+    private DataSize inlineMaxSize;
+
+    @Value("${app.files.since-overlap:10s}")
+    private Duration sinceOverlap;
+
+    private static final int MAX_MULTIPART_PARTS = 10_000;
+    private static final int MAX_FILE_PAGE_SIZE = 500;
+    private static final UUID MIN_UUID = new UUID(0L, 0L);
+    private static final UUID MAX_UUID = new UUID(-1L, -1L);
 
     @Transactional(readOnly = true)
-    public SignedUploadResponse requestUploadUrl(UUID sessionId, User uploader, String fileName, String contentType, long contentLength, int expiresInSec) {
+    public SignedUploadResponse requestUploadUrl(UUID sessionId, User uploader, String fileName, String contentType, long contentLength, String sha256, int expiresInSec) {
         DropSession session = dropSessionService.findById(sessionId)
                 .orElseThrow(() -> new ResourceNotFoundException("DropSession not found"));
 
@@ -61,7 +110,14 @@ public class DropFileService {
 
         planEnforcementService.checkFileUploadLimits(session, contentLength);
 
-        return storageService.createSignedUploadUrl(sessionId.toString(), fileName, contentType, expiresInSec);
+        if (sha256 != null) {
+            DropFileContent stored = findStoredContent(uploader, List.of(sha256)).get(normalizeHash(sha256));
+            if (stored != null && stored.getSizeBytes() == contentLength) {
+                return alreadyStored(stored);
+            }
+        }
+
+        return storageService.createSignedUploadUrl(sessionId.toString(), fileName, contentType, contentLength, expiresInSec);
     }
 
     @Transactional
@@ -73,33 +129,255 @@ public class DropFileService {
 
         DropSessionParticipant participant = requireParticipant(session, uploader);
 
-        planEnforcementService.checkFileUploadLimits(session, request.getSizeBytes());
+        planEnforcementService.reserveFileSlot(session, request.getSizeBytes());
 
-        DropFile file = DropFile.builder()
-                .dropSession(session)
-                .uploader(uploader)
-                .storagePath(request.getObjectPath())
-                .originalName(request.getOriginalName())
-                .sizeBytes(request.getSizeBytes())
-                .createdAt(Instant.now())
+        ContentLink content = linkContent(session, uploader, request.getObjectPath(), request.getSha256(), request.getSizeBytes());
+
+        return saveUploadedFile(session, uploader, participant,
+                content.objectPath(), content.contentId(), request.getOriginalName(), request.getSizeBytes());
+    }
+
+    /**
+     * Small files skip the presign/PUT/confirm round-trips: the bytes arrive with the request and are
+     * stored inline, in the same transaction as the {@link DropFile} row.
+     */
+    @Transactional
+    public DropFile uploadInline(UUID sessionId, User uploader, MultipartFile upload) {
+        if (upload.isEmpty()) {
+            throw new BadRequestException("File is empty");
+        }
+        if (upload.getSize() > inlineMaxSize.toBytes()) {
+            throw new BadRequestException("Files over " + inlineMaxSize.toKilobytes() + " KB must be uploaded with an upload URL");
+        }
+
+        DropSession session = dropSessionService.findById(sessionId)
+                .orElseThrow(() -> new ResourceNotFoundException("DropSession with id " + sessionId + " not found"));
+
+        session.assertUsable();
+
+        DropSessionParticipant participant = requireParticipant(session, uploader);
+
+        planEnforcementService.reserveFileSlot(session, upload.getSize());
+
+        byte[] data;
+        try {
+            data = upload.getBytes();
+        } catch (IOException e) {
+            throw new BadRequestException("Could not read the uploaded file");
+        }
+
+        String fileName = upload.getOriginalFilename() == null || upload.getOriginalFilename().isBlank()
+                ? "file" : upload.getOriginalFilename();
+        String objectPath = storageService.putObject(sessionId.toString(), fileName, upload.getContentType(), data);
+
+        return saveUploadedFile(session, uploader, participant, objectPath, null, fileName, (long) data.length);
+    }
+
+    @Transactional(readOnly = true)
+    public List<SignedUploadResponse> requestUploadUrls(UUID sessionId, User uploader, List<FileUploadRequest> files, int expiresInSec) {
+        DropSession session = dropSessionService.findById(sessionId)
+                .orElseThrow(() -> new ResourceNotFoundException("DropSession not found"));
+
+        session.assertUsable();
+
+        requireParticipant(session, uploader);
+
+        planEnforcementService.checkBatchUploadLimits(session,
+                files.stream().map(FileUploadRequest::getFileSize).toList());
+
+        Map<String, DropFileContent> stored = findStoredContent(uploader,
+                files.stream().map(FileUploadRequest::getSha256).filter(Objects::nonNull).toList());
+
+        return files.stream()
+                .map(f -> {
+                    DropFileContent content = f.getSha256() == null ? null : stored.get(normalizeHash(f.getSha256()));
+                    if (content != null && content.getSizeBytes() == f.getFileSize()) {
+                        return alreadyStored(content);
+                    }
+                    return storageService.createSignedUploadUrl(sessionId.toString(), f.getFileName(), f.getContentType(), f.getFileSize(), expiresInSec);
+                })
+                .toList();
+    }
+
+    @Transactional
+    public List<DropFile> confirmUploads(UUID sessionId, User uploader, List<FileConfirmRequest> requests) {
+        DropSession session = dropSessionService.findById(sessionId)
+                .orElseThrow(() -> new ResourceNotFoundException("DropSession with id " + sessionId + " not found"));
+
+        session.assertUsable();
+
+        DropSessionParticipant participant = requireParticipant(session, uploader);
+
+        planEnforcementService.reserveFileSlots(session,
+                requests.stream().map(FileConfirmRequest::getSizeBytes).toList());
+
+        Instant now = Instant.now();
+        List<DropFile> files = dropFileRepository.saveAll(requests.stream()
+                .map(r -> {
+                    ContentLink content = linkContent(session, uploader, r.getObjectPath(), r.getSha256(), r.getSizeBytes());
+                    return DropFile.builder()
+                            .dropSession(session)
+                            .uploader(uploader)
+                            .storagePath(content.objectPath())
+                            .contentId(content.contentId())
+                            .originalName(r.getOriginalName())
+                            .sizeBytes(r.getSizeBytes())
+                            .createdAt(now)
+                            .build();
+                })
+                .toList());
+
+        FilesUploadedPayload payload = new FilesUploadedPayload(files.stream()
+                .map(file -> toUploadedPayload(file, participant))
+                .toList());
+
+        webSocketNotifier.sendEventAfterCommit(sessionId.toString(), MessageType.FILES_UPLOADED, payload);
+
+        return files;
+    }
+
+    /**
+     * Storage is called between two short transactions rather than inside one, so a slow bucket never pins
+     * a pooled connection.
+     */
+    public MultipartUploadResponse initiateMultipartUpload(UUID sessionId, User uploader, FileUploadRequest request) {
+        txTemplate.executeWithoutResult(status -> {
+            DropSession session = dropSessionService.findById(sessionId)
+                    .orElseThrow(() -> new ResourceNotFoundException("DropSession not found"));
+
+            session.assertUsable();
+
+            requireParticipant(session, uploader);
+
+            planEnforcementService.checkFileUploadLimits(session, request.getFileSize());
+        });
+
+        long partSize = partSizeFor(request.getFileSize());
+        int partCount = (int) Math.max(1, Math.ceilDiv(request.getFileSize(), partSize));
+
+        MultipartUploadHandle handle = storageService.initiateMultipartUpload(
+                sessionId.toString(), request.getFileName(), request.getContentType());
+
+        DropFileUpload upload;
+        try {
+            upload = txTemplate.execute(status -> dropFileUploadRepository.save(DropFileUpload.builder()
+                    .dropSession(dropSessionRepository.getReferenceById(sessionId))
+                    .uploader(uploader)
+                    .objectPath(handle.objectPath())
+                    .uploadId(handle.uploadId())
+                    .originalName(request.getFileName())
+                    .contentType(request.getContentType())
+                    .sizeBytes(request.getFileSize())
+                    .partSize(partSize)
+                    .partCount(partCount)
+                    .build()));
+        } catch (RuntimeException e) {
+            abortInStorageQuietly(handle.objectPath(), handle.uploadId());
+            throw e;
+        }
+
+        return MultipartUploadResponse.builder()
+                .uploadId(upload.getId().toString())
+                .objectPath(upload.getObjectPath())
+                .partSize(partSize)
+                .partCount(partCount)
                 .build();
+    }
 
-        file = dropFileRepository.save(file);
+    @Transactional(readOnly = true)
+    public MultipartPartUrlsResponse requestPartUrls(UUID sessionId, UUID uploadId, User uploader, List<Integer> partNumbers, int expiresInSec) {
+        DropFileUpload upload = requireOwnUpload(sessionId, uploadId, uploader);
+        upload.getDropSession().assertUsable();
 
-        FileUploadedPayload payload = new FileUploadedPayload(
-                file.getId().toString(),
-                file.getOriginalName(),
-                file.getSizeBytes(),
-                file.getUploader().getId().toString(),
-                participant.getId().toString(),
-                file.getCreatedAt()
-        );
+        for (Integer partNumber : partNumbers) {
+            if (partNumber == null || partNumber < 1 || partNumber > upload.getPartCount()) {
+                throw new BadRequestException("partNumber must be between 1 and " + upload.getPartCount());
+            }
+        }
+
+        List<PresignedPartUrl> urls = storageService.createSignedPartUrls(
+                upload.getObjectPath(), upload.getUploadId(), partNumbers, upload.getPartSize(), expiresInSec);
+        return new MultipartPartUrlsResponse(urls, expiresInSec);
+    }
+
+    /**
+     * Reserves the file slot and commits before asking storage to assemble the parts, so the session row lock
+     * taken by the reservation is not held across the storage call. The reservation is given back if storage
+     * fails or a concurrent completion of the same upload recorded the file first.
+     */
+    public DropFile completeMultipartUpload(UUID sessionId, UUID uploadId, User uploader, MultipartCompleteRequest request) {
+        DropFileUpload upload = txTemplate.execute(status -> {
+            DropSession session = dropSessionService.findById(sessionId)
+                    .orElseThrow(() -> new ResourceNotFoundException("DropSession with id " + sessionId + " not found"));
+
+            session.assertUsable();
+
+            requireParticipant(session, uploader);
+            DropFileUpload own = requireOwnUpload(sessionId, uploadId, uploader);
+
+            long distinctParts = request.parts().stream().mapToInt(CompletedUploadPart::partNumber).distinct().count();
+            if (distinctParts != own.getPartCount() || distinctParts != request.parts().size()) {
+                throw new BadRequestException("Expected " + own.getPartCount() + " distinct parts");
+            }
+
+            planEnforcementService.reserveFileSlot(session, own.getSizeBytes());
+            return own;
+        });
+
+        try {
+            storageService.completeMultipartUpload(upload.getObjectPath(), upload.getUploadId(), request.parts());
+        } catch (RuntimeException e) {
+            txTemplate.executeWithoutResult(status ->
+                    dropSessionRepository.decrementFileCount(sessionId, 1, upload.getSizeBytes()));
+            throw e;
+        }
+
+        DropFile file = txTemplate.execute(status -> {
+            if (dropFileUploadRepository.deleteUploadById(uploadId) == 0) {
+                dropSessionRepository.decrementFileCount(sessionId, 1, upload.getSizeBytes());
+                return null;
+            }
+
+            DropSession session = dropSessionService.findById(sessionId)
+                    .orElseThrow(() -> new ResourceNotFoundException("DropSession with id " + sessionId + " not found"));
+            DropSessionParticipant participant = requireParticipant(session, uploader);
 
-        webSocketNotifier.sendEventAfterCommit(sessionId.toString(), MessageType.FILE_UPLOADED, payload);
+            return saveUploadedFile(session, uploader, participant,
+                    upload.getObjectPath(), null, upload.getOriginalName(), upload.getSizeBytes());
+        });
 
+        if (file == null) {
+            throw new IllegalStateException("Upload " + uploadId + " was already completed");
+        }
         return file;
     }
 
+    public void abortMultipartUpload(UUID sessionId, UUID uploadId, User uploader) {
+        DropFileUpload upload = txTemplate.execute(status -> requireOwnUpload(sessionId, uploadId, uploader));
+        storageService.abortMultipartUpload(upload.getObjectPath(), upload.getUploadId());
+        txTemplate.executeWithoutResult(status -> dropFileUploadRepository.deleteUploadById(uploadId));
+    }
+
+    /**
+     * Runs without a surrounding transaction, like {@link #abortMultipartUpload}: the stale rows are read in one
+     * short transaction, aborted in storage, and only the aborted ones deleted in a second, so no connection is
+     * held across the storage calls. Uploads storage failed to abort are retried on the next run.
+     */
+    public int abortStaleUploads(Duration maxAge, int limit) {
+        List<DropFileUpload> stale = txTemplate.execute(status -> dropFileUploadRepository.findByCreatedAtBeforeOrderByCreatedAt(
+                Instant.now().minus(maxAge), PageRequest.of(0, limit)));
+
+        List<UUID> aborted = stale.stream()
+                .filter(upload -> abortInStorageQuietly(upload.getObjectPath(), upload.getUploadId()))
+                .map(DropFileUpload::getId)
+                .toList();
+
+        if (!aborted.isEmpty()) {
+            txTemplate.executeWithoutResult(status -> dropFileUploadRepository.deleteAllByIdInBatch(aborted));
+        }
+        return aborted.size();
+    }
+
     @Transactional(readOnly = true)
     public DownloadUrlResponse getDownloadUrl(UUID sessionId, UUID fileId, User downloader, int expiresInSec) {
         DropSession session = dropSessionService.findById(sessionId)
@@ -115,53 +393,129 @@ public class DropFileService {
             throw new ResourceNotFoundException("File not found in this session");
         }
 
-        String signedUrl = storageService.createSignedDownloadUrl(file.getStoragePath(), expiresInSec);
+        // Hot bucket files are proxied through the node-local disk cache; everything else stays on the CDN
+        if (!InlineObject.isInlinePath(file.getStoragePath())
+                && objectDiskCache.shouldProxy(file.getStoragePath(), file.getSizeBytes())) {
+            return DownloadUrlResponse.builder()
+                    .downloadUrl(objectDiskCache.createSignedUrl(file.getStoragePath(), expiresInSec))
+                    .expiresIn(expiresInSec)
+                    .fileName(file.getOriginalName())
+                    .build();
+        }
+
+        SignedDownloadUrl signed = downloadUrlCache.get(file.getStoragePath(), expiresInSec);
 
         return DownloadUrlResponse.builder()
-                .downloadUrl(signedUrl)
-                .expiresIn(expiresInSec)
+                .downloadUrl(signed.url())
+                .expiresIn(Math.max(0, Duration.between(Instant.now(), signed.expiresAt()).toSeconds()))
                 .fileName(file.getOriginalName())
                 .build();
     }
 
-    @Transactional
-    public void markFileAsDownloaded(UUID sessionId, UUID fileId, User downloader){
-        DropSession session = dropSessionService.findById(sessionId)
-                .orElseThrow(() -> new ResourceNotFoundException("DropSession with id " + sessionId + " not found"));
-
-        session.assertUsable();
-
-        DropFile file = dropFileRepository.findById(fileId)
-                .orElseThrow(() -> new ResourceNotFoundException("File not found"));
+    /**
+     * Opens an inline file, or a bucket file through the disk cache. The lookup runs in its own short
+     * transaction and open-in-view is off, so neither a reader waiting on a cache fill nor the response
+     * being written holds a connection.
+     */
+    public FileContent openContent(UUID sessionId, UUID fileId, User downloader) {
+        DropFile file = txTemplate.execute(status -> {
+            DropSession session = dropSessionService.findById(sessionId)
+                    .orElseThrow(() -> new ResourceNotFoundException("DropSession with id " + sessionId + " not found"));
+
+            session.assertUsable();
+            requireParticipant(session, downloader);
+
+            return dropFileRepository.findById(fileId)
+                    .filter(f -> f.getDropSession().getId().equals(sessionId))
+                    .orElseThrow(() -> new ResourceNotFoundException("File not found in this session"));
+        });
+
+        String objectPath = file.getStoragePath();
+        if (InlineObject.isInlinePath(objectPath)) {
+            byte[] data;
+            try (InputStream in = storageService.openObject(objectPath)) {
+                data = in.readAllBytes();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read " + objectPath, e);
+            }
+            return new FileContent(file.getOriginalName(), ObjectContent.of(data));
+        }
+        return new FileContent(file.getOriginalName(), objectDiskCache.open(objectPath)
+                .orElseThrow(() -> new BadRequestException("File is served from storage; request a download URL instead")));
+    }
 
-        if (!file.getDropSession().getId().equals(sessionId)) {
-            throw new ResourceNotFoundException("File not found in this session");
+    @Transactional(readOnly = true)
+    public void markFileAsDownloaded(UUID sessionId, UUID fileId, User downloader){
+        if (recordDownloads(sessionId, List.of(fileId), downloader).isEmpty()) {
+            throw rejectedReceipt(sessionId, fileId, downloader);
         }
+    }
 
-        DropSessionParticipant participant = requireParticipant(session, downloader);
+    /**
+     * Records receipts for every listed file that belongs to the session; ids that do not are ignored.
+     * Returns the ids that were accepted.
+     */
+    @Transactional(readOnly = true)
+    public List<UUID> markFilesAsDownloaded(UUID sessionId, Collection<UUID> fileIds, User downloader) {
+        List<UUID> recorded = recordDownloads(sessionId, fileIds, downloader);
+        if (recorded.isEmpty()) {
+            throw rejectedReceipt(sessionId, null, downloader);
+        }
+        return recorded;
+    }
 
+    /**
+     * Authorises with one query, then hands the receipts to the write-behind buffer and announces them
+     * right away; the rows reach {@code drop_file_download} on the buffer's next flush.
+     */
+    private List<UUID> recordDownloads(UUID sessionId, Collection<UUID> fileIds, User downloader) {
         Instant now = Instant.now();
-
-        if (!dropFileDownloadRepository.existsByParticipantAndFile(participant, file)) {
-            DropFileDownload download = DropFileDownload.builder()
-                    .file(file)
-                    .participant(participant)
-                    .downloadedAt(now)
-                    .build();
-            dropFileDownloadRepository.save(download);
+        List<Object[]> rows = dropFileDownloadRepository.findReceiptTargets(sessionId, downloader.getId(), fileIds, now);
+
+        List<UUID> recorded = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            UUID fileId = (UUID) row[0];
+            UUID participantId = (UUID) row[1];
+            recorded.add(fileId);
+            downloadReceiptBuffer.add(new DownloadReceipt(fileId, participantId, now));
+            webSocketNotifier.sendEventAfterCommit(sessionId.toString(), MessageType.FILE_DOWNLOADED,
+                    new FileDownloadedPayload(fileId.toString(), participantId.toString(), now));
         }
+        return recorded;
+    }
 
-        FileDownloadedPayload payload = new FileDownloadedPayload(
-                file.getId().toString(),
-                participant.getId().toString(),
-                now
-        );
+    /**
+     * Only reached when no receipt target matched; repeats the individual checks to report why.
+     */
+    private RuntimeException rejectedReceipt(UUID sessionId, UUID fileId, User downloader) {
+        DropSession session = dropSessionService.findById(sessionId)
+                .orElseThrow(() -> new ResourceNotFoundException("DropSession with id " + sessionId + " not found"));
 
-        webSocketNotifier.sendEventAfterCommit(sessionId.toString(), MessageType.FILE_DOWNLOADED, payload);
+        session.assertUsable();
+        requireParticipant(session, downloader);
+
+        if (fileId != null && dropFileRepository.findById(fileId).isEmpty()) {
+            return new ResourceNotFoundException("File not found");
+        }
+        return new ResourceNotFoundException("File not found in this session");
     }
 
+    /**
+     * Lists the session's files oldest first. {@code since} is either a file id, returning the files after
+     * it (the keyset cursor), or an ISO-8601 timestamp, returning files created after that instant.
+     * With a {@code limit}, {@link DropFilePage#nextCursor()} is set while more files may follow.
+     * <p>
+     * {@code created_at} is stamped before the inserting transaction commits, so a file can become visible
+     * after later files were already listed. Id cursors are exact and meant for paging through one listing.
+     * Clients that poll for new files should pass a timestamp: it is rewound by {@code app.files.since-overlap}
+     * so late commits are listed again, and the client de-duplicates by id.
+     */
     @Transactional(readOnly = true)
-    public List<DropFileDto> getAllFiles(UUID sessionId, User user){
+    public DropFilePage getFiles(UUID sessionId, User user, String since, Integer limit){
+        if (limit != null && (limit < 1 || limit > MAX_FILE_PAGE_SIZE)) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_FILE_PAGE_SIZE);
+        }
+
         DropSession session = dropSessionService.findById(sessionId)
                 .orElseThrow(() -> new ResourceNotFoundException("DropSession with id " + sessionId + " not found"));
 
@@ -169,49 +523,118 @@ public class DropFileService {
 
         DropSessionParticipant participant = requireParticipant(session, user);
 
-        var downloadedIds = dropFileDownloadRepository.findDownloadedFileIds(participant, session);
+        Instant afterCreatedAt = Instant.EPOCH;
+        UUID afterId = MIN_UUID;
+        if (since != null && !since.isBlank()) {
+            try {
+                afterId = UUID.fromString(since);
+                afterCreatedAt = cursorCreatedAt(afterId);
+            } catch (IllegalArgumentException notAnId) {
+                afterCreatedAt = parseSinceInstant(since).minus(sinceOverlap);
+                // Every id sorts before this one, so only strictly later timestamps match
+                afterId = MAX_UUID;
+            }
+        }
 
-        return dropFileRepository.findByDropSession(session)
-                .stream()
+        List<DropFileListItem> items = dropFileRepository.findListItemsAfter(
+                sessionId, participant.getId(), afterCreatedAt, afterId,
+                limit == null ? Pageable.unpaged() : PageRequest.of(0, limit));
+
+        Set<UUID> pending = downloadReceiptBuffer.pendingFileIds(participant.getId());
+        List<DropFileDto> files = items.stream()
                 .map(f -> DropFileDto.builder()
-                        .id(f.getId().toString())
-                        .originalName(f.getOriginalName())
-                        .sizeBytes(f.getSizeBytes())
-                        .createdAt(f.getCreatedAt())
-                        .downloadedByMe(downloadedIds.contains(f.getId()))
+                        .id(f.id().toString())
+                        .originalName(f.originalName())
+                        .sizeBytes(f.sizeBytes() == null ? 0L : f.sizeBytes())
+                        .createdAt(f.createdAt())
+                        .downloadedByMe(f.downloadedByMe() || pending.contains(f.id()))
                         .build())
                 .toList();
+
+        String nextCursor = limit != null && items.size() == limit ? items.getLast().id().toString() : null;
+        return new DropFilePage(files, nextCursor);
     }
 
-    @Async
-    @EventListener
-    @Transactional
-    public void handleSessionEnded(DropSessionEndedEvent event) {
-        UUID sessionId = event.getSessionId();
+    private Instant cursorCreatedAt(UUID cursor) {
+        Optional<Instant> createdAt = dropFileRepository.findCreatedAtById(cursor);
+        if (createdAt.isPresent()) {
+            return createdAt.get();
+        }
+        // The cursor file may have been deleted since; a UUIDv7 still carries its creation millisecond
+        if (cursor.version() == 7) {
+            return Instant.ofEpochMilli(cursor.getMostSignificantBits() >>> 16);
+        }
+        throw new BadRequestException("Unknown cursor: " + cursor);
+    }
+
+    private static Instant parseSinceInstant(String since) {
+        try {
+            return Instant.parse(since);
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException("since must be a file id or an ISO-8601 timestamp");
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<ArchiveEntry> getArchiveEntries(UUID sessionId, User user) {
         DropSession session = dropSessionService.findById(sessionId)
                 .orElseThrow(() -> new ResourceNotFoundException("DropSession with id " + sessionId + " not found"));
 
-        List<DropFile> files = dropFileRepository.findByDropSession(session);
+        session.assertUsable();
+        requireParticipant(session, user);
 
-        long totalBytes = 0;
-        int fileCount = 0;
+        return dropFileRepository.findByDropSession(session)
+                .stream()
+                .sorted(Comparator.comparing(DropFile::getCreatedAt))
+                .map(f -> new ArchiveEntry(f.getStoragePath(), f.getOriginalName(), f.getSizeBytes()))
+                .toList();
+    }
 
-        for(DropFile file : files){
-            try {
-                storageService.deleteFile(file.getStoragePath());
-                totalBytes += file.getSizeBytes();
-                fileCount++;
-                log.info("Deleted file: fileId={} name={} size={}B from sessionId={}",
-                        file.getId(),
-                        file.getOriginalName(),
-                        file.getSizeBytes(),
-                        sessionId);
-            } catch (Exception e) {
-                log.warn("Failed to delete file {} from storage", file.getStoragePath(), e);
-            }
+    /**
+     * Runs without a surrounding transaction: storage deletes happen first, then one short transaction
+     * removes the rows, so no connection is held across the S3 round-trips.
+     * <p>
+     * Rows whose objects could not be deleted are kept and the call fails, so the cleanup job retries them.
+     * Files sharing content only drop their reference; the object goes once the last reference does.
+     */
+    public void cleanupSessionFiles(UUID sessionId) {
+
+        dropFileUploadRepository.findByDropSession_Id(sessionId).forEach(this::abortQuietly);
+
+        List<DropFile> files = dropFileRepository.findByDropSession_Id(sessionId);
+        List<DropFile> shared = files.stream().filter(f -> f.getContentId() != null).toList();
+        List<DropFile> owned = files.stream().filter(f -> f.getContentId() == null).toList();
+
+        // Shared rows go first, together with their references; only content nobody else uses is deleted
+        List<String> released = shared.isEmpty() ? List.of() : txTemplate.execute(status -> {
+            List<UUID> contentIds = shared.stream().map(DropFile::getContentId).toList();
+            dropFileRepository.deleteAllByIdIn(shared.stream().map(DropFile::getId).toList());
+            dropSessionRepository.decrementFileCount(sessionId, shared.size(), totalSize(shared));
+            dropFileContentRepository.release(contentIds);
+            return dropFileContentRepository.deleteUnreferenced(contentIds);
+        });
+
+        List<String> paths = new ArrayList<>(released);
+        owned.forEach(f -> paths.add(f.getStoragePath()));
+
+        BulkDeleteResult result = storageService.deleteFiles(paths);
+        objectDiskCache.evict(result.deleted());
+        result.failed().forEach((path, error) ->
+                log.warn("Failed to delete file {} from storage: {}", path, error));
+
+        List<DropFile> cleanedOwned = owned.stream()
+                .filter(f -> !result.failed().containsKey(f.getStoragePath()))
+                .toList();
+
+        if (!cleanedOwned.isEmpty()) {
+            txTemplate.executeWithoutResult(status -> {
+                dropFileRepository.deleteAllByIdIn(cleanedOwned.stream().map(DropFile::getId).toList());
+                dropSessionRepository.decrementFileCount(sessionId, cleanedOwned.size(), totalSize(cleanedOwned));
+            });
         }
 
-        dropFileRepository.deleteByDropSession(session);
+        int fileCount = shared.size() + cleanedOwned.size();
+        long totalBytes = totalSize(shared) + totalSize(cleanedOwned);
 
         DropSessionFilesCleanedPayload payload = new DropSessionFilesCleanedPayload(
                 sessionId.toString(),
@@ -223,8 +646,144 @@ public class DropFileService {
                 MessageType.DROP_SESSION_FILES_CLEANED,
                 payload);
 
-        log.info("Cleaned {} files ({} bytes) for session {} ended by {}",
-                fileCount, totalBytes, sessionId, event.getReason());
+        log.info("Cleaned {} files ({} bytes) for session {}", fileCount, totalBytes, sessionId);
+
+        // Released shared content has no rows left to retry from; the orphan reconciler picks those objects up
+        int failed = owned.size() - cleanedOwned.size();
+        if (failed > 0) {
+            throw new IllegalStateException(failed + " object(s) could not be deleted for session " + sessionId);
+        }
+    }
+
+    private static long totalSize(List<DropFile> files) {
+        return files.stream().mapToLong(f -> f.getSizeBytes() == null ? 0 : f.getSizeBytes()).sum();
+    }
+
+    private DropFile saveUploadedFile(DropSession session, User uploader, DropSessionParticipant participant,
+                                      String objectPath, UUID contentId, String originalName, Long sizeBytes) {
+        DropFile file = DropFile.builder()
+                .dropSession(session)
+                .uploader(uploader)
+                .storagePath(objectPath)
+                .contentId(contentId)
+                .originalName(originalName)
+                .sizeBytes(sizeBytes)
+                .createdAt(Instant.now())
+                .build();
+
+        file = dropFileRepository.save(file);
+
+        webSocketNotifier.sendEventAfterCommit(session.getId().toString(), MessageType.FILE_UPLOADED,
+                toUploadedPayload(file, participant));
+
+        return file;
+    }
+
+    private record ContentLink(String objectPath, UUID contentId) {
+    }
+
+    /**
+     * Decides which object a confirmed upload refers to. With a hash, the uploader's existing content is
+     * shared when there is any; otherwise the uploaded object is indexed under that hash. Hashes are
+     * supplied by the client and never verified, which is why sharing never crosses uploaders: a wrong
+     * hash can only ever mislead the user who sent it.
+     */
+    private ContentLink linkContent(DropSession session, User uploader, String objectPath, String sha256, long sizeBytes) {
+        if (sha256 == null) {
+            if (!isSessionObject(session.getId(), objectPath)) {
+                throw new BadRequestException("objectPath must point to an upload into this session");
+            }
+            return new ContentLink(objectPath, null);
+        }
+
+        String hash = normalizeHash(sha256);
+        UUID uploaderId = uploader.getId();
+
+        List<Object[]> acquired = dropFileContentRepository.acquire(uploaderId, hash, sizeBytes);
+        if (!acquired.isEmpty()) {
+            Object[] row = acquired.getFirst();
+            return new ContentLink((String) row[1], (UUID) row[0]);
+        }
+
+        // Nothing to share (any more), so the client must have uploaded into this session
+        if (!isSessionObject(session.getId(), objectPath)) {
+            throw new IllegalStateException("Stored content is no longer available; upload the file again");
+        }
+
+        List<UUID> registered = dropFileContentRepository.register(uploaderId, hash, sizeBytes, objectPath, Instant.now());
+        // Empty when an identical upload was indexed concurrently, or the hash is indexed with another size
+        return new ContentLink(objectPath, registered.isEmpty() ? null : registered.getFirst());
+    }
+
+    /**
+     * Whether {@code objectPath} lies under the prefix uploads into this session are given, in the bucket or inline.
+     */
+    private static boolean isSessionObject(UUID sessionId, String objectPath) {
+        return objectPath != null
+                && (objectPath.startsWith(sessionId + "/")
+                || objectPath.startsWith(InlineObject.PATH_PREFIX + sessionId + "/"));
+    }
+
+    private Map<String, DropFileContent> findStoredContent(User uploader, Collection<String> hashes) {
+        if (hashes.isEmpty()) return Map.of();
+
+        return dropFileContentRepository.findAvailable(uploader.getId(),
+                        hashes.stream().map(DropFileService::normalizeHash).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(DropFileContent::getSha256, c -> c));
+    }
+
+    private static SignedUploadResponse alreadyStored(DropFileContent content) {
+        return SignedUploadResponse.builder()
+                .objectPath(content.getObjectPath())
+                .alreadyStored(true)
+                .build();
+    }
+
+    private static String normalizeHash(String sha256) {
+        return sha256.toLowerCase(Locale.ROOT);
+    }
+
+    private static FileUploadedPayload toUploadedPayload(DropFile file, DropSessionParticipant participant) {
+        return new FileUploadedPayload(
+                file.getId().toString(),
+                file.getOriginalName(),
+                file.getSizeBytes(),
+                file.getUploader().getId().toString(),
+                participant.getId().toString(),
+                file.getCreatedAt()
+        );
+    }
+
+    private DropFileUpload requireOwnUpload(UUID sessionId, UUID uploadId, User uploader) {
+        DropFileUpload upload = dropFileUploadRepository.findByIdAndDropSession_Id(uploadId, sessionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Upload not found"));
+
+        if (!upload.getUploader().getId().equals(uploader.getId())) {
+            throw new ForbiddenOperationException("Only the uploader can manage this upload");
+        }
+        return upload;
+    }
+
+    private void abortQuietly(DropFileUpload upload) {
+        if (abortInStorageQuietly(upload.getObjectPath(), upload.getUploadId())) {
+            dropFileUploadRepository.delete(upload);
+        }
+    }
+
+    private boolean abortInStorageQuietly(String objectPath, String uploadId) {
+        try {
+            storageService.abortMultipartUpload(objectPath, uploadId);
+            return true;
+        } catch (Exception e) {
+            log.warn("Failed to abort multipart upload {} for {}", uploadId, objectPath, e);
+            return false;
+        }
+    }
+
+    private long partSizeFor(long fileSize) {
+        long minPartSize = multipartMinPartSize.toBytes();
+        return Math.max(minPartSize, Math.ceilDiv(fileSize, MAX_MULTIPART_PARTS));
     }
 
     private DropSessionParticipant requireParticipant(DropSession session, User user) {
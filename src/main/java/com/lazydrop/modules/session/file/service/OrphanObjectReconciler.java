@@ -0,0 +1,194 @@
+package com.lazydrop.modules.session.file.service;
+
+import com.lazydrop.modules.session.core.repository.DropSessionRepository;
+import com.lazydrop.modules.session.file.dto.OrphanReconcileResult;
+import com.lazydrop.modules.session.file.repository.DropFileRepository;
+import com.lazydrop.modules.session.file.repository.DropFileUploadRepository;
+import com.lazydrop.modules.storage.dto.BulkDeleteResult;
+import com.lazydrop.modules.storage.dto.ObjectListing;
+import com.lazydrop.modules.storage.dto.StoredObject;
+import com.lazydrop.modules.storage.service.StorageService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Deletes bucket objects that no {@code drop_file} or in-flight {@code drop_file_upload} row points at:
+ * uploads that were never confirmed, and objects whose delete failed when their session ended.
+ * <p>
+ * Objects live under {@code {sessionId}/...}, so the bucket is walked one session prefix at a time,
+ * page by page, and each page is resolved against the database with a single {@code IN} query. Objects
+ * younger than the grace period are never touched, which keeps uploads that are still waiting for their
+ * confirm call safe. Storage requests are paced to {@code app.storage.reconcile.requests-per-second},
+ * and a run stops after {@code max-objects-per-run} keys; the next run resumes after the last session
+ * prefix it finished.
+ */
+@Service
+@Slf4j
+public class OrphanObjectReconciler {
+
+    private static final String DELIMITER = "/";
+
+    private final StorageService storageService;
+    private final DropSessionRepository dropSessionRepository;
+    private final DropFileRepository dropFileRepository;
+    private final DropFileUploadRepository uploadRepository;
+
+    private final Duration gracePeriod;
+    private final long maxObjectsPerRun;
+    private final long requestIntervalNanos;
+
+    private final Counter deletedObjects;
+    private final Counter reclaimedBytes;
+
+    private long nextRequestAt = System.nanoTime();
+    private String resumeAfter;
+
+    public OrphanObjectReconciler(
+            StorageService storageService,
+            DropSessionRepository dropSessionRepository,
+            DropFileRepository dropFileRepository,
+            DropFileUploadRepository uploadRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.storage.reconcile.grace-period:24h}") Duration gracePeriod,
+            @Value("${app.storage.reconcile.max-objects-per-run:100000}") long maxObjectsPerRun,
+            @Value("${app.storage.reconcile.requests-per-second:10}") int requestsPerSecond
+    ) {
+        this.storageService = storageService;
+        this.dropSessionRepository = dropSessionRepository;
+        this.dropFileRepository = dropFileRepository;
+        this.uploadRepository = uploadRepository;
+        this.gracePeriod = gracePeriod;
+        this.maxObjectsPerRun = maxObjectsPerRun;
+        this.requestIntervalNanos = Duration.ofSeconds(1).toNanos() / Math.max(1, requestsPerSecond);
+
+        this.deletedObjects = Counter.builder("lazydrop.storage.orphans.deleted")
+                .description("Orphaned objects removed by the reconciler")
+                .register(meterRegistry);
+        this.reclaimedBytes = Counter.builder("lazydrop.storage.orphans.reclaimed")
+                .baseUnit("bytes")
+                .description("Bytes freed by deleting orphaned objects")
+                .register(meterRegistry);
+    }
+
+    public synchronized OrphanReconcileResult reconcile() {
+        Instant cutoff = Instant.now().minus(gracePeriod);
+        Tally tally = new Tally();
+
+        String token = null;
+        String startAfter = resumeAfter;
+        do {
+            throttle();
+            ObjectListing page = storageService.listObjects("", DELIMITER, startAfter, token);
+            token = page.nextContinuationToken();
+
+            Map<String, UUID> sessionPrefixes = sessionPrefixes(page.commonPrefixes());
+            Set<UUID> knownSessions = sessionPrefixes.isEmpty()
+                    ? Set.of()
+                    : new HashSet<>(dropSessionRepository.findExistingIds(sessionPrefixes.values()));
+
+            for (Map.Entry<String, UUID> prefix : sessionPrefixes.entrySet()) {
+                reconcilePrefix(prefix.getKey(), knownSessions.contains(prefix.getValue()), cutoff, tally);
+                resumeAfter = pastPrefix(prefix.getKey());
+                if (tally.scanned >= maxObjectsPerRun) {
+                    return tally.result(false);
+                }
+            }
+        } while (token != null);
+
+        resumeAfter = null;
+        return tally.result(true);
+    }
+
+    private void reconcilePrefix(String prefix, boolean sessionExists, Instant cutoff, Tally tally) {
+        String token = null;
+        do {
+            throttle();
+            ObjectListing page = storageService.listObjects(prefix, null, null, token);
+            token = page.nextContinuationToken();
+            tally.scanned += page.objects().size();
+
+            Map<String, Long> candidates = new LinkedHashMap<>();
+            for (StoredObject object : page.objects()) {
+                if (object.lastModified() != null && object.lastModified().isBefore(cutoff)) {
+                    candidates.put(object.key(), object.sizeBytes());
+                }
+            }
+
+            // Shared content can be referenced from any session, so drop_file is always consulted
+            if (!candidates.isEmpty()) {
+                dropFileRepository.findStoragePathsIn(candidates.keySet()).forEach(candidates::remove);
+            }
+            // Multipart uploads only ever target their own session
+            if (sessionExists && !candidates.isEmpty()) {
+                uploadRepository.findObjectPathsIn(candidates.keySet()).forEach(candidates::remove);
+            }
+            if (candidates.isEmpty()) continue;
+
+            throttle();
+            BulkDeleteResult result = storageService.deleteFiles(candidates.keySet());
+            long bytes = result.deleted().stream().mapToLong(candidates::get).sum();
+
+            tally.deleted += result.deleted().size();
+            tally.failed += result.failed().size();
+            tally.bytes += bytes;
+            deletedObjects.increment(result.deleted().size());
+            reclaimedBytes.increment(bytes);
+
+            if (!result.isComplete()) {
+                log.warn("Could not delete {} orphaned object(s) under {}", result.failed().size(), prefix);
+            }
+        } while (token != null);
+    }
+
+    private static Map<String, UUID> sessionPrefixes(List<String> prefixes) {
+        Map<String, UUID> sessions = new LinkedHashMap<>();
+        for (String prefix : prefixes) {
+            String name = prefix.endsWith(DELIMITER) ? prefix.substring(0, prefix.length() - 1) : prefix;
+            try {
+                sessions.put(prefix, UUID.fromString(name));
+            } catch (IllegalArgumentException e) {
+                // Not ours; leave anything outside a session prefix alone
+                log.debug("Skipping non-session prefix {}", prefix);
+            }
+        }
+        return sessions;
+    }
+
+    // startAfter is compared per key, so resume from the first key sorting after everything under the prefix
+    private static String pastPrefix(String prefix) {
+        return prefix.substring(0, prefix.length() - 1) + (char) (DELIMITER.charAt(0) + 1);
+    }
+
+    private void throttle() {
+        long now = System.nanoTime();
+        long wait = nextRequestAt - now;
+        if (wait > 0) {
+            LockSupport.parkNanos(wait);
+        }
+        nextRequestAt = Math.max(now, nextRequestAt) + requestIntervalNanos;
+    }
+
+    private static final class Tally {
+        long scanned;
+        long deleted;
+        long failed;
+        long bytes;
+
+        OrphanReconcileResult result(boolean complete) {
+            return new OrphanReconcileResult(scanned, deleted, failed, bytes, complete);
+        }
+    }
+}
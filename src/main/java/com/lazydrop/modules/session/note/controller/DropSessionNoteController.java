@@ -50,7 +50,7 @@ public class DropSessionNoteController {
             HttpServletRequest req,
             HttpServletResponse res
     ){
-        User user = identityResolver.resolve(userPrincipal, req, res);
+        User user = identityResolver.resolveForRead(userPrincipal, req, res);
         List<SessionNoteDto> notes = noteService.getRecentNotes(sessionId, user, limit)
                 .stream()
                 .map(DropSessionNoteMapper::toSessionNoteDto)
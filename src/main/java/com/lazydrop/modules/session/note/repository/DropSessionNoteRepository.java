@@ -17,5 +17,5 @@ public interface DropSessionNoteRepository extends JpaRepository<DropSessionNote
     long deleteBySession_Id(UUID sessionId);
 
     @Modifying
-    void deleteBySender(DropSessionParticipant sender);
+    long deleteBySender(DropSessionParticipant sender);
 }
@@ -2,10 +2,10 @@ package com.lazydrop.modules.session.note.service;
 
 import com.lazydrop.common.exception.BadRequestException;
 import com.lazydrop.common.exception.ForbiddenOperationException;
-import com.lazydrop.common.exception.PlanLimitExceededException;
 import com.lazydrop.common.exception.ResourceNotFoundException;
-import com.lazydrop.modules.session.core.event.DropSessionEndedEvent;
+import com.lazydrop.modules.billing.service.PlanEnforcementService;
 import com.lazydrop.modules.session.core.model.DropSession;
+import com.lazydrop.modules.session.core.repository.DropSessionRepository;
 import com.lazydrop.modules.session.core.service.DropSessionService;
 import com.lazydrop.modules.session.note.dto.CreateSessionNoteRequest;
 import com.lazydrop.modules.session.note.model.DropSessionNote;
@@ -20,9 +20,7 @@ import com.lazydrop.modules.websocket.WebSocketNotifier;
 import com.lazydrop.modules.websocket.payload.SessionNoteCreatedPayload;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -41,6 +39,8 @@ public class DropSessionNoteService {
     private final SubscriptionService subscriptionService;
     private final DropSessionParticipantService dropSessionParticipantService;
     private final WebSocketNotifier webSocketNotifier;
+    private final PlanEnforcementService planEnforcementService;
+    private final DropSessionRepository dropSessionRepository;
 
 
     @Transactional
@@ -97,12 +97,12 @@ public class DropSessionNoteService {
         return notes;
     }
 
-    @Async
-    @EventListener
     @Transactional
-    public void handleSessionEnded(DropSessionEndedEvent event){
-        UUID sessionId = event.getSessionId();
+    public void deleteSessionNotes(UUID sessionId){
         long deleted = noteRepository.deleteBySession_Id(sessionId);
+        if (deleted > 0) {
+            dropSessionRepository.decrementNoteCount(sessionId, deleted);
+        }
         log.info("Deleted {} notes for session {}", deleted, sessionId);
     }
 
@@ -125,12 +125,9 @@ public class DropSessionNoteService {
             throw new ForbiddenOperationException("Session Notes are not available for this plan.");
         }
 
-        long noteCount = noteRepository.countBySession_Id(session.getId());
-        if (noteCount >= limits.maxNotesPerSession()) {
-            throw new PlanLimitExceededException("Session notes limit reached for this session");
-        }
-
-        return sanitize(request.content(), limits.maxNoteLength());
+        String content = sanitize(request.content(), limits.maxNoteLength());
+        planEnforcementService.reserveNoteSlot(session, limits);
+        return content;
     }
 
     private void assertParticipant(DropSession session, User user){
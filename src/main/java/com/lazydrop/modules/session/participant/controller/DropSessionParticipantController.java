@@ -84,7 +84,7 @@ public class DropSessionParticipantController{
         DropSession session = dropSessionService.findById(sessionId)
                 .orElseThrow(() -> new ResourceNotFoundException("DropSession not found"));
 
-        User user = identityResolver.resolve(principal, req, response);
+        User user = identityResolver.resolveForRead(principal, req, response);
         ParticipantSettingsResponse resp = participantService.getMySettings(session, user);
 
         return ResponseEntity.ok(resp);
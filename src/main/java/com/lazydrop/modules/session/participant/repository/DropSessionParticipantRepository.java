@@ -3,7 +3,11 @@ package com.lazydrop.modules.session.participant.repository;
 import com.lazydrop.modules.session.core.model.DropSession;
 import com.lazydrop.modules.session.participant.model.DropSessionParticipant;
 import com.lazydrop.modules.user.model.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.Instant;
 import java.util.List;
@@ -11,13 +15,28 @@ import java.util.Optional;
 import java.util.UUID;
 
 public interface DropSessionParticipantRepository extends JpaRepository<DropSessionParticipant, UUID> {
+    // The user is fetched with the participant: responses are mapped after the transaction has ended
+    @EntityGraph(attributePaths = "user")
     Optional<DropSessionParticipant> findByDropSessionAndUser(DropSession dropSession, User user);
 
     long countByDropSession(DropSession dropSession);
 
+    @EntityGraph(attributePaths = "user")
     List<DropSessionParticipant> findByDropSession(DropSession session);
 
     boolean existsByDropSessionAndUser(DropSession dropSession, User user);
 
     List<DropSessionParticipant> findByDisconnectedAtBefore(Instant cutoff);
+
+    @Modifying
+    @Query(nativeQuery = true, value = """
+        insert into drop_session_participants (id, drop_session_id, user_id, role, joined_at, auto_download)
+        values (:id, :sessionId, :userId, :role, :now, false)
+        on conflict (drop_session_id, user_id) do nothing
+    """)
+    int insertIfAbsent(@Param("id") UUID id,
+                       @Param("sessionId") UUID sessionId,
+                       @Param("userId") UUID userId,
+                       @Param("role") String role,
+                       @Param("now") Instant now);
 }
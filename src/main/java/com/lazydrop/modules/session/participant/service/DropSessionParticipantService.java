@@ -5,6 +5,7 @@ import com.lazydrop.modules.billing.service.PlanEnforcementService;
 import com.lazydrop.modules.session.participant.dto.ParticipantSettingsRequest;
 import com.lazydrop.modules.session.participant.dto.ParticipantSettingsResponse;
 import com.lazydrop.modules.session.core.model.DropSession;
+import com.lazydrop.modules.session.core.repository.DropSessionRepository;
 import com.lazydrop.modules.session.participant.dto.ParticipantRole;
 import com.lazydrop.modules.session.note.repository.DropSessionNoteRepository;
 import com.lazydrop.modules.session.participant.model.DropSessionParticipant;
@@ -16,7 +17,7 @@ import com.lazydrop.modules.websocket.payload.PeerJoinedPayload;
 import com.lazydrop.modules.websocket.payload.PeerLeftPayload;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.dao.DataIntegrityViolationException;
+import org.hibernate.id.uuid.UuidVersion7Strategy;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -36,6 +37,7 @@ public class DropSessionParticipantService {
     private final WebSocketNotifier webSocketNotifier;
     private final PlanEnforcementService planEnforcementService;
     private final DropSessionNoteRepository noteRepository;
+    private final DropSessionRepository dropSessionRepository;
 
 
 
@@ -43,22 +45,9 @@ public class DropSessionParticipantService {
     public DropSessionParticipant joinSession(DropSession session, User user){
         session.assertUsable();
 
-        long currentParticipants = participantRepository.countByDropSession(session);
-        planEnforcementService.checkParticipantLimit(session.getOwner(), currentParticipants);
-
+        ParticipantRole role = session.getOwner().getId().equals(user.getId()) ? ParticipantRole.OWNER : ParticipantRole.PEER;
         DropSessionParticipant participant = participantRepository.findByDropSessionAndUser(session, user)
-                .orElseGet(() -> {
-                    DropSessionParticipant p = new DropSessionParticipant();
-                    p.setDropSession(session);
-                    p.setUser(user);
-                    p.setRole(session.getOwner().getId().equals(user.getId()) ? ParticipantRole.OWNER : ParticipantRole.PEER);
-                    try {
-                        return participantRepository.saveAndFlush(p);
-                    } catch (DataIntegrityViolationException ex) {
-                        return participantRepository.findByDropSessionAndUser(session, user)
-                                .orElseThrow(() -> ex);
-                    }
-                });
+                .orElseGet(() -> addParticipant(session, user, role));
 
         PeerJoinedPayload payload = new PeerJoinedPayload(
                 participant.getId().toString(),
@@ -78,13 +67,25 @@ public class DropSessionParticipantService {
         session.assertUsable();
 
         participantRepository.findByDropSessionAndUser(session, owner)
-                .orElseGet(() -> {
-                    DropSessionParticipant p = new DropSessionParticipant();
-                    p.setDropSession(session);
-                    p.setUser(owner);
-                    p.setRole(ParticipantRole.OWNER);
-                    return participantRepository.save(p);
-                });
+                .orElseGet(() -> addParticipant(session, owner, ParticipantRole.OWNER));
+    }
+
+    /**
+     * Reserves a participant slot and inserts the membership row. A concurrent join by the same user makes the
+     * insert a no-op instead of a constraint violation, so the transaction stays usable to give the slot back
+     * and load the row that won.
+     */
+    private DropSessionParticipant addParticipant(DropSession session, User user, ParticipantRole role) {
+        planEnforcementService.reserveParticipantSlot(session);
+
+        UUID id = UuidVersion7Strategy.INSTANCE.generateUuid(null);
+        if (participantRepository.insertIfAbsent(id, session.getId(), user.getId(), role.name(), Instant.now()) == 0) {
+            dropSessionRepository.adjustParticipantCount(session.getId(), -1);
+            return participantRepository.findByDropSessionAndUser(session, user)
+                    .orElseThrow(() -> new IllegalStateException("Participant row vanished after a concurrent join"));
+        }
+        return participantRepository.findById(id)
+                .orElseThrow(() -> new IllegalStateException("Inserted participant " + id + " not found"));
     }
 
     @Transactional
@@ -92,8 +93,7 @@ public class DropSessionParticipantService {
         participantRepository.findByDropSessionAndUser(session, user)
                 .ifPresent(participant -> {
                     UUID pid = participant.getId();
-                    noteRepository.deleteBySender(participant);
-                    participantRepository.delete(participant);
+                    removeParticipant(participant);
 
                     PeerLeftPayload payload = new PeerLeftPayload(pid.toString(), user.getId().toString());
 
@@ -105,8 +105,7 @@ public class DropSessionParticipantService {
     public ParticipantSettingsResponse getMySettings(DropSession session, User user) {
         session.assertUsable();
 
-        DropSessionParticipant participant = participantRepository
-                .findByDropSessionAndUser(session, user)
+        DropSessionParticipant participant = findByDropSessionAndUser(session, user)
                 .orElseThrow(() -> new ResourceNotFoundException("You are not a participant in this session"));
 
         return new ParticipantSettingsResponse(participant.isAutoDownload());
@@ -127,6 +126,7 @@ public class DropSessionParticipantService {
     }
 
     public Optional<DropSessionParticipant> findByDropSessionAndUser(DropSession session, User user){
+        if (user.isProvisional()) return Optional.empty();
         return participantRepository.findByDropSessionAndUser(session, user);
     }
 
@@ -138,17 +138,29 @@ public class DropSessionParticipantService {
         for (DropSessionParticipant p : toRemove) {
             log.debug("Removing disconnected participant: participantId={} sessionId={}",
                     p.getId(), p.getDropSession().getId());
-            participantRepository.delete(p);
+            removeParticipant(p);
         }
 
         return toRemove.size();
     }
 
+    private void removeParticipant(DropSessionParticipant participant) {
+        UUID sessionId = participant.getDropSession().getId();
+        long notes = noteRepository.deleteBySender(participant);
+        participantRepository.delete(participant);
+
+        dropSessionRepository.adjustParticipantCount(sessionId, -1);
+        if (notes > 0) {
+            dropSessionRepository.decrementNoteCount(sessionId, notes);
+        }
+    }
+
     public List<DropSessionParticipant> getParticipants(DropSession session) {
         return participantRepository.findByDropSession(session);
     }
 
     public boolean existsByDropSessionAndUser(DropSession session, User user) {
+        if (user.isProvisional()) return false;
         return participantRepository.existsByDropSessionAndUser(session, user);
     }
 }
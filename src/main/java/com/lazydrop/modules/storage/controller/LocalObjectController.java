@@ -0,0 +1,90 @@
+package com.lazydrop.modules.storage.controller;
+
+import com.lazydrop.common.exception.PayloadTooLargeException;
+import com.lazydrop.modules.storage.service.FileSystemStorageService;
+import com.lazydrop.modules.storage.service.ObjectContent;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * Target of the signed URLs issued by {@link FileSystemStorageService}. Uploads stream the request body straight
+ * into the file, up to the signed {@code maxBytes}; downloads are written by {@link ObjectResponses}, which
+ * honours {@code Range} requests so clients can resume.
+ */
+@RestController
+@RequestMapping("/storage/objects")
+@ConditionalOnProperty(name = "app.storage.backend", havingValue = "filesystem")
+@RequiredArgsConstructor
+public class LocalObjectController {
+
+    private final FileSystemStorageService storage;
+
+    @PutMapping("/{*objectPath}")
+    public ResponseEntity<Void> upload(
+            @PathVariable String objectPath,
+            @RequestParam long expires,
+            @RequestParam String signature,
+            @RequestParam(required = false) String uploadId,
+            @RequestParam(required = false) Integer partNumber,
+            @RequestParam long maxBytes,
+            HttpServletRequest request
+    ) throws IOException {
+        String path = stripLeadingSlash(objectPath);
+        storage.verifySignature("PUT", path, expires, uploadId, partNumber, maxBytes, signature);
+
+        // Declared lengths are checked up front; chunked bodies are cut off while streaming
+        if (request.getContentLengthLong() > maxBytes) {
+            throw new PayloadTooLargeException("Body exceeds the " + maxBytes + " bytes this URL was signed for");
+        }
+
+        String etag = uploadId == null
+                ? storage.writeObject(path, request.getInputStream(), maxBytes)
+                : storage.writePart(uploadId, partNumber == null ? 0 : partNumber, request.getInputStream(), maxBytes);
+        return ResponseEntity.ok().eTag(etag).build();
+    }
+
+    @RequestMapping(value = "/{*objectPath}", method = {RequestMethod.GET, RequestMethod.HEAD})
+    public void download(
+            @PathVariable String objectPath,
+            @RequestParam long expires,
+            @RequestParam String signature,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        String path = stripLeadingSlash(objectPath);
+        storage.verifySignature("GET", path, expires, null, null, null, signature);
+
+        Path file = storage.resolveExisting(path);
+        String fileName = path.substring(path.lastIndexOf('/') + 1);
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            response.setDateHeader(HttpHeaders.LAST_MODIFIED, attributes.lastModifiedTime().toMillis());
+            ObjectResponses.write(request, response, ObjectContent.of(in, file), fileName,
+                    MediaTypeFactory.getMediaType(fileName).orElse(MediaType.APPLICATION_OCTET_STREAM).toString(),
+                    FileSystemStorageService.etag(attributes));
+        }
+    }
+
+    private static String stripLeadingSlash(String objectPath) {
+        return objectPath.startsWith("/") ? objectPath.substring(1) : objectPath;
+    }
+}
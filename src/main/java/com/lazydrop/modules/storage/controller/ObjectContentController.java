@@ -0,0 +1,78 @@
+package com.lazydrop.modules.storage.controller;
+
+import com.lazydrop.modules.storage.model.InlineObject;
+import com.lazydrop.modules.storage.service.ObjectContent;
+import com.lazydrop.modules.storage.service.ObjectDiskCache;
+import com.lazydrop.modules.storage.service.TieredStorageService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Target of the signed download URLs for objects this API serves itself: inline objects issued by
+ * {@link TieredStorageService}, and hot bucket objects proxied through {@link ObjectDiskCache}. The signature is
+ * the only credential, so a plain browser navigation works. Bucket objects the cache cannot hold are redirected
+ * to a storage URL instead.
+ */
+@RestController
+@RequestMapping("/storage/content")
+@RequiredArgsConstructor
+public class ObjectContentController {
+
+    private final TieredStorageService storage;
+    private final ObjectDiskCache objectDiskCache;
+
+    @RequestMapping(value = "/{*objectPath}", method = {RequestMethod.GET, RequestMethod.HEAD})
+    public void download(
+            @PathVariable String objectPath,
+            @RequestParam long expires,
+            @RequestParam String signature,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        String path = objectPath.startsWith("/") ? objectPath.substring(1) : objectPath;
+        String fileName = path.substring(path.lastIndexOf('/') + 1);
+
+        if (InlineObject.isInlinePath(path)) {
+            InlineObject object = storage.getSignedInlineObject(path, expires, signature);
+            ObjectResponses.write(request, response, ObjectContent.of(object.getData()), fileName,
+                    mediaType(object.getContentType()).toString(), null);
+            return;
+        }
+
+        Optional<ObjectContent> cached = objectDiskCache.openSigned(path, expires, signature);
+        if (cached.isEmpty()) {
+            int validFor = (int) Math.max(1, expires - Instant.now().getEpochSecond());
+            response.setStatus(HttpStatus.FOUND.value());
+            response.setHeader(HttpHeaders.LOCATION, storage.createSignedDownloadUrl(path, validFor));
+            return;
+        }
+        try (ObjectContent content = cached.get()) {
+            ObjectResponses.write(request, response, content, fileName,
+                    MediaTypeFactory.getMediaType(fileName).orElse(MediaType.APPLICATION_OCTET_STREAM).toString(), null);
+        }
+    }
+
+    private static MediaType mediaType(String contentType) {
+        // The type was declared by the uploader, so anything unparseable is served as opaque bytes
+        try {
+            return contentType == null ? MediaType.APPLICATION_OCTET_STREAM : MediaType.parseMediaType(contentType);
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_OCTET_STREAM;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.lazydrop.modules.storage.controller;
+
+import com.lazydrop.modules.storage.service.ObjectContent;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Writes object downloads served by this API. Single {@code Range} requests (with {@code If-Range}) are answered
+ * with {@code 206}, so clients can resume; multi-range requests get the whole object, which RFC 9110 permits.
+ * <p>
+ * Content backed by a complete file is handed to Tomcat's sendfile when the connector supports it, so the kernel
+ * copies it to the socket; everything else, including cache entries still filling, is streamed through the JVM.
+ */
+public final class ObjectResponses {
+
+    // Tomcat's sendfile request attributes; the end offset is exclusive
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private ObjectResponses() {
+    }
+
+    /**
+     * Streams {@code content} as an attachment named {@code fileName}. {@code etag} may be {@code null}, in which
+     * case conditional ranges ({@code If-Range}) are answered with the whole object.
+     */
+    public static void write(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            ObjectContent content,
+            String fileName,
+            String contentType,
+            String etag
+    ) throws IOException {
+        long length = content.size();
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (etag != null) {
+            response.setHeader(HttpHeaders.ETAG, etag);
+        }
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(fileName, StandardCharsets.UTF_8)
+                .build()
+                .toString());
+        response.setContentType(contentType);
+
+        long start = 0;
+        long end = length - 1;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (rangeHeader != null && (ifRange == null || ifRange.equals(etag))) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+            } catch (IllegalArgumentException e) {
+                ranges = List.of();
+            }
+
+            if (ranges.size() == 1) {
+                HttpRange range = ranges.getFirst();
+                try {
+                    start = range.getRangeStart(length);
+                    end = range.getRangeEnd(length);
+                } catch (IllegalArgumentException e) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                    return;
+                }
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+        if (RequestMethod.HEAD.name().equals(request.getMethod()) || count <= 0) {
+            return;
+        }
+
+        Optional<Path> file = content.file();
+        if (file.isPresent() && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Tomcat reopens the file by name once this returns; a file evicted or replaced in between cuts the
+            // response short, and the client resumes with a Range request
+            request.setAttribute(SENDFILE_FILENAME, file.get().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+        for (long position = start; position <= end; ) {
+            long transferred = content.transferTo(position, end - position + 1, out);
+            if (transferred <= 0) break;
+            position += transferred;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.lazydrop.modules.storage.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-key outcome of a bulk delete: keys that are gone, and the error message for each key that is not.
+ */
+public record BulkDeleteResult(
+        List<String> deleted,
+        Map<String, String> failed
+) {
+    public boolean isComplete() {
+        return failed.isEmpty();
+    }
+}
@@ -0,0 +1,17 @@
+package com.lazydrop.modules.storage.dto;
+
+import java.util.List;
+
+/**
+ * One page of a bucket listing. {@code commonPrefixes} is only populated when a delimiter was given;
+ * pass {@code nextContinuationToken} back to fetch the following page.
+ */
+public record ObjectListing(
+        List<StoredObject> objects,
+        List<String> commonPrefixes,
+        String nextContinuationToken
+) {
+    public boolean hasMore() {
+        return nextContinuationToken != null;
+    }
+}
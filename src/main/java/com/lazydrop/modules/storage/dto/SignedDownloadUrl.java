@@ -0,0 +1,9 @@
+package com.lazydrop.modules.storage.dto;
+
+import java.time.Instant;
+
+public record SignedDownloadUrl(
+        String url,
+        Instant expiresAt
+) {
+}
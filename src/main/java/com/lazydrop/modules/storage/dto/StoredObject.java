@@ -0,0 +1,10 @@
+package com.lazydrop.modules.storage.dto;
+
+import java.time.Instant;
+
+public record StoredObject(
+        String key,
+        long sizeBytes,
+        Instant lastModified
+) {
+}
@@ -0,0 +1,42 @@
+package com.lazydrop.modules.storage.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Small object kept in Postgres instead of the bucket. Object paths start with
+ * {@link #PATH_PREFIX} so every caller of the storage service can tell the tiers apart.
+ */
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "inline_object")
+public class InlineObject {
+
+    public static final String PATH_PREFIX = "inline/";
+
+    @Id
+    @Column(name = "object_path", nullable = false, updatable = false)
+    private String objectPath;
+
+    @Column(name = "content_type")
+    private String contentType;
+
+    @Column(name = "size_bytes", nullable = false)
+    private long sizeBytes;
+
+    @Column(name = "data", nullable = false, columnDefinition = "bytea")
+    private byte[] data;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    public static boolean isInlinePath(String objectPath) {
+        return objectPath != null && objectPath.startsWith(PATH_PREFIX);
+    }
+}
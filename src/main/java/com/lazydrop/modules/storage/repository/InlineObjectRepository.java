@@ -0,0 +1,18 @@
+package com.lazydrop.modules.storage.repository;
+
+import com.lazydrop.modules.storage.model.InlineObject;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+
+public interface InlineObjectRepository extends JpaRepository<InlineObject, String> {
+
+    @Transactional
+    @Modifying
+    @Query("delete from InlineObject o where o.objectPath in :paths")
+    int deleteAllByObjectPathIn(@Param("paths") Collection<String> paths);
+}
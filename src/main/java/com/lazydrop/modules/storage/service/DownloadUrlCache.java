@@ -0,0 +1,70 @@
+package com.lazydrop.modules.storage.service;
+
+import com.lazydrop.common.cache.ExpiringLruCache;
+import com.lazydrop.modules.storage.dto.SignedDownloadUrl;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Hands out one signed download URL per object per time window.
+ * <p>
+ * Presigned URLs embed their signing time, so signing on every request gives each downloader a
+ * unique query string and defeats the CDN edge cache. Here time is cut into fixed windows; the first
+ * request for an object in a window signs a URL that stays valid until the end of the window plus the
+ * requested validity, and every later request in the same window gets that exact URL back. Any URL
+ * returned is therefore valid for at least the requested number of seconds.
+ */
+@Component
+public class DownloadUrlCache {
+
+    private record Key(String objectPath, long window, int minValiditySec) {
+    }
+
+    private final StorageService storageService;
+    private final ExpiringLruCache<Key, SignedDownloadUrl> urls;
+    private final long windowMillis;
+
+    public DownloadUrlCache(
+            StorageService storageService,
+            MeterRegistry meterRegistry,
+            @Value("${app.storage.download-url.window:10m}") Duration window,
+            @Value("${app.storage.download-url.cache-max-size:10000}") int maxSize
+    ) {
+        this.storageService = storageService;
+        this.windowMillis = window.toMillis();
+        this.urls = new ExpiringLruCache<>("storage.download-url", maxSize, window, meterRegistry);
+    }
+
+    public SignedDownloadUrl get(String objectPath, int minValiditySec) {
+        long now = System.currentTimeMillis();
+        long window = now / windowMillis;
+        Key key = new Key(objectPath, window, minValiditySec);
+
+        Optional<SignedDownloadUrl> cached = urls.get(key);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        // Signing is cheap and local; serialising misses keeps concurrent first requests on one URL
+        synchronized (this) {
+            cached = urls.get(key);
+            if (cached.isPresent()) {
+                return cached.get();
+            }
+
+            Instant windowEnd = Instant.ofEpochMilli((window + 1) * windowMillis);
+            Instant expiresAt = windowEnd.plusSeconds(minValiditySec);
+            int signFor = (int) Duration.between(Instant.ofEpochMilli(now), expiresAt).toSeconds();
+
+            SignedDownloadUrl signed = new SignedDownloadUrl(
+                    storageService.createSignedDownloadUrl(objectPath, signFor), expiresAt);
+            urls.putUntil(key, signed, windowEnd);
+            return signed;
+        }
+    }
+}
@@ -0,0 +1,449 @@
+package com.lazydrop.modules.storage.service;
+
+import com.lazydrop.common.exception.BadRequestException;
+import com.lazydrop.common.exception.ForbiddenOperationException;
+import com.lazydrop.common.exception.PayloadTooLargeException;
+import com.lazydrop.common.exception.ResourceNotFoundException;
+import com.lazydrop.modules.session.file.dto.CompletedUploadPart;
+import com.lazydrop.modules.session.file.dto.MultipartUploadHandle;
+import com.lazydrop.modules.session.file.dto.PresignedPartUrl;
+import com.lazydrop.modules.session.file.dto.SignedUploadResponse;
+import com.lazydrop.modules.storage.dto.BulkDeleteResult;
+import com.lazydrop.modules.storage.dto.ObjectListing;
+import com.lazydrop.modules.storage.dto.StoredObject;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Bucket backend on the local filesystem, selected with {@code app.storage.backend=filesystem}.
+ * <p>
+ * Objects live under {@code <root>/objects/<objectPath>}; multipart parts are staged under
+ * {@code <root>/staging/<uploadId>/} and concatenated on completion. Signed URLs point at
+ * {@code LocalObjectController} and carry an HMAC token with the same expiry semantics as S3 presigned URLs;
+ * upload tokens also bind the largest body they accept. Every write lands in a temporary file first and is moved
+ * into place, so readers never see partial objects.
+ */
+@Service
+@Qualifier("bucketStorage")
+@ConditionalOnProperty(name = "app.storage.backend", havingValue = "filesystem")
+@Slf4j
+public class FileSystemStorageService implements StorageService {
+
+    public static final String OBJECTS_PATH = "/storage/objects/";
+
+    private static final int MAX_LIST_KEYS = 1000;
+    private static final long TRANSFER_CHUNK = 8L * 1024 * 1024;
+
+    private final Path objectsRoot;
+    private final Path stagingRoot;
+    private final ObjectUrlSigner signer;
+
+    public FileSystemStorageService(
+            @Value("${app.storage.filesystem.root:./data/storage}") Path root,
+            ObjectUrlSigner signer
+    ) throws IOException {
+        Path base = root.toAbsolutePath().normalize();
+        this.objectsRoot = Files.createDirectories(base.resolve("objects"));
+        this.stagingRoot = Files.createDirectories(base.resolve("staging"));
+        this.signer = signer;
+        log.info("Filesystem storage backend rooted at {}", base);
+    }
+
+    @Override
+    public SignedUploadResponse createSignedUploadUrl(String folderPrefix, String fileName, String contentType, long contentLength, int expiresInSec) {
+        String objectPath = newObjectPath(folderPrefix, fileName);
+
+        return SignedUploadResponse.builder()
+                .signedUrl(signedUrl("PUT", objectPath, expiresInSec, null, null, contentLength))
+                .objectPath(objectPath)
+                .token(null)
+                .expiresIn(expiresInSec)
+                .build();
+    }
+
+    @Override
+    public String createSignedDownloadUrl(String objectPath, int expiresInSec) {
+        return signedUrl("GET", objectPath, expiresInSec, null, null, null);
+    }
+
+    /**
+     * Rejects the request unless {@code signature} was issued by this backend for exactly these parameters and
+     * has not expired.
+     */
+    public void verifySignature(String method, String objectPath, long expires, String uploadId, Integer partNumber, Long maxBytes,
+                                String signature) {
+        if (!signer.verify(method, objectPath, expires, uploadId, partNumber, maxBytes, signature)) {
+            throw new ForbiddenOperationException("Signed URL is invalid or has expired");
+        }
+    }
+
+    /**
+     * Returns the file backing {@code objectPath}; callers stream it with {@link FileChannel#transferTo}.
+     */
+    public Path resolveExisting(String objectPath) {
+        Path file = resolve(objectsRoot, objectPath);
+        if (!Files.isRegularFile(file)) {
+            throw new ResourceNotFoundException("Stored object not found: " + objectPath);
+        }
+        return file;
+    }
+
+    /**
+     * Streams {@code body} into the object and returns its entity tag. Bodies over {@code maxBytes} are rejected
+     * and nothing is stored.
+     */
+    public String writeObject(String objectPath, InputStream body, long maxBytes) {
+        Path target = resolve(objectsRoot, objectPath);
+        try {
+            Files.createDirectories(target.getParent());
+            return etag(commit(receive(target.getParent(), body, maxBytes), target));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store " + objectPath, e);
+        }
+    }
+
+    /**
+     * Streams {@code body} into part {@code partNumber} of a multipart upload and returns the part's entity tag.
+     * Bodies over {@code maxBytes} are rejected and nothing is stored.
+     */
+    public String writePart(String uploadId, int partNumber, InputStream body, long maxBytes) {
+        if (partNumber < 1) {
+            throw new BadRequestException("Part numbers start at 1");
+        }
+        Path uploadDir = uploadDir(uploadId);
+        try {
+            return etag(commit(receive(uploadDir, body, maxBytes), uploadDir.resolve(Integer.toString(partNumber))));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store part " + partNumber + " of upload " + uploadId, e);
+        }
+    }
+
+    public static String etag(BasicFileAttributes attributes) {
+        return "\"" + Long.toHexString(attributes.size()) + "-" + Long.toHexString(attributes.lastModifiedTime().toMillis()) + "\"";
+    }
+
+    @Override
+    public InputStream openObject(String objectPath) {
+        try {
+            return Files.newInputStream(resolveExisting(objectPath));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open " + objectPath, e);
+        }
+    }
+
+    @Override
+    public String putObject(String folderPrefix, String fileName, String contentType, byte[] data) {
+        String objectPath = newObjectPath(folderPrefix, fileName);
+        Path target = resolve(objectsRoot, objectPath);
+        try {
+            Files.createDirectories(target.getParent());
+            commit(receive(target.getParent(), new ByteArrayInputStream(data), data.length), target);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store " + objectPath, e);
+        }
+
+        log.info("Stored {} ({} bytes)", objectPath, data.length);
+        return objectPath;
+    }
+
+    @Override
+    public Optional<StoredObject> headObject(String objectPath) {
+        Path file = resolve(objectsRoot, objectPath);
+        return Files.isRegularFile(file) ? Optional.of(storedObject(objectPath, file)) : Optional.empty();
+    }
+
+    @Override
+    public void deleteFile(String objectPath) {
+        try {
+            delete(objectPath);
+            log.info("Deleted: {}", objectPath);
+        } catch (IOException e) {
+            log.error("Error deleting file {}", objectPath, e);
+            throw new UncheckedIOException("Failed to delete file", e);
+        }
+    }
+
+    @Override
+    public BulkDeleteResult deleteFiles(Collection<String> objectPaths) {
+        List<String> deleted = new ArrayList<>();
+        Map<String, String> failed = new LinkedHashMap<>();
+        for (String objectPath : new LinkedHashSet<>(objectPaths)) {
+            try {
+                delete(objectPath);
+                deleted.add(objectPath);
+            } catch (IOException | RuntimeException e) {
+                failed.put(objectPath, e.getMessage());
+            }
+        }
+
+        log.info("Bulk deleted {} object(s), {} failed", deleted.size(), failed.size());
+        return new BulkDeleteResult(deleted, failed);
+    }
+
+    /**
+     * Walks the directory that contains {@code prefix} and pages through the keys in lexical order. The
+     * continuation token is the last key or common prefix returned, so each page re-walks the subtree; this is
+     * meant for the reconciler, not for hot paths.
+     */
+    @Override
+    public ObjectListing listObjects(String prefix, String delimiter, String startAfter, String continuationToken) {
+        String keyPrefix = prefix == null ? "" : prefix;
+        String marker = continuationToken != null ? continuationToken : startAfter;
+        Path start = objectsRoot.resolve(keyPrefix.substring(0, keyPrefix.lastIndexOf('/') + 1)).normalize();
+        if (!start.startsWith(objectsRoot) || !Files.isDirectory(start)) {
+            return new ObjectListing(List.of(), List.of(), null);
+        }
+
+        TreeSet<String> entries = new TreeSet<>();
+        Map<String, StoredObject> objects = new LinkedHashMap<>();
+        try (Stream<Path> files = Files.walk(start)) {
+            files.filter(Files::isRegularFile)
+                    .filter(file -> !file.getFileName().toString().startsWith(".upload-"))
+                    .forEach(file -> {
+                        String key = toKey(file);
+                        if (!key.startsWith(keyPrefix)) return;
+
+                        String entry = rollUp(key, keyPrefix, delimiter);
+                        if (marker != null && entry.compareTo(marker) <= 0) return;
+
+                        entries.add(entry);
+                        if (entry.equals(key)) {
+                            objects.put(key, storedObject(key, file));
+                        }
+                    });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list " + keyPrefix, e);
+        }
+
+        List<StoredObject> pageObjects = new ArrayList<>();
+        List<String> pagePrefixes = new ArrayList<>();
+        String last = null;
+        for (String entry : entries) {
+            if (pageObjects.size() + pagePrefixes.size() == MAX_LIST_KEYS) break;
+            StoredObject object = objects.get(entry);
+            if (object != null) {
+                pageObjects.add(object);
+            } else {
+                pagePrefixes.add(entry);
+            }
+            last = entry;
+        }
+
+        boolean truncated = entries.size() > MAX_LIST_KEYS;
+        return new ObjectListing(pageObjects, pagePrefixes, truncated ? last : null);
+    }
+
+    @Override
+    public MultipartUploadHandle initiateMultipartUpload(String folderPrefix, String fileName, String contentType) {
+        String objectPath = newObjectPath(folderPrefix, fileName);
+        String uploadId = UUID.randomUUID().toString();
+        try {
+            Files.createDirectories(stagingRoot.resolve(uploadId));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to initiate multipart upload", e);
+        }
+
+        log.info("Initiated multipart upload for: {} (uploadId={})", fileName, uploadId);
+        return new MultipartUploadHandle(objectPath, uploadId);
+    }
+
+    @Override
+    public List<PresignedPartUrl> createSignedPartUrls(String objectPath, String uploadId, List<Integer> partNumbers, long partSize, int expiresInSec) {
+        return partNumbers.stream()
+                .map(partNumber -> new PresignedPartUrl(partNumber,
+                        signedUrl("PUT", objectPath, expiresInSec, uploadId, partNumber, partSize)))
+                .toList();
+    }
+
+    /**
+     * Concatenates the staged parts in part-number order with {@link FileChannel#transferTo}, checking each
+     * part's entity tag against the one the client reported.
+     */
+    @Override
+    public void completeMultipartUpload(String objectPath, String uploadId, List<CompletedUploadPart> parts) {
+        Path uploadDir = uploadDir(uploadId);
+        Path target = resolve(objectsRoot, objectPath);
+        List<CompletedUploadPart> ordered = parts.stream()
+                .sorted(Comparator.comparingInt(CompletedUploadPart::partNumber))
+                .toList();
+
+        try {
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(target.getParent(), ".upload-", ".tmp");
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                for (CompletedUploadPart part : ordered) {
+                    Path partFile = uploadDir.resolve(Integer.toString(part.partNumber()));
+                    if (!Files.isRegularFile(partFile)) {
+                        throw new BadRequestException("Part " + part.partNumber() + " was not uploaded");
+                    }
+                    String actual = etag(Files.readAttributes(partFile, BasicFileAttributes.class));
+                    if (part.eTag() != null && !unquote(actual).equals(unquote(part.eTag()))) {
+                        throw new BadRequestException("Part " + part.partNumber() + " does not match its ETag");
+                    }
+                    try (FileChannel in = FileChannel.open(partFile, StandardOpenOption.READ)) {
+                        long size = in.size();
+                        for (long position = 0; position < size; ) {
+                            position += in.transferTo(position, size - position, out);
+                        }
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(temp);
+                throw e;
+            }
+            commit(temp, target);
+            deleteTree(uploadDir);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to complete multipart upload " + uploadId, e);
+        }
+
+        log.info("Completed multipart upload: {} ({} parts)", objectPath, ordered.size());
+    }
+
+    @Override
+    public void abortMultipartUpload(String objectPath, String uploadId) {
+        try {
+            deleteTree(uploadDir(uploadId));
+            log.info("Aborted multipart upload: {} (uploadId={})", objectPath, uploadId);
+        } catch (ResourceNotFoundException e) {
+            log.debug("Multipart upload {} for {} was already gone", uploadId, objectPath);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to abort multipart upload " + uploadId, e);
+        }
+    }
+
+    private String signedUrl(String method, String objectPath, int expiresInSec, String uploadId, Integer partNumber, Long maxBytes) {
+        return signer.signedUrl(OBJECTS_PATH, method, objectPath, expiresInSec, uploadId, partNumber, maxBytes);
+    }
+
+    /**
+     * Copies the body into a temporary file in {@code dir} with {@link FileChannel#transferFrom}, reading at most
+     * one byte past {@code maxBytes} to detect oversized bodies. The temporary file is removed on any failure.
+     */
+    private static Path receive(Path dir, InputStream body, long maxBytes) throws IOException {
+        Path temp = Files.createTempFile(dir, ".upload-", ".tmp");
+        try (ReadableByteChannel in = Channels.newChannel(body);
+             FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            long limit = maxBytes + 1;
+            long position = 0;
+            long transferred;
+            while (position < limit
+                    && (transferred = out.transferFrom(in, position, Math.min(TRANSFER_CHUNK, limit - position))) > 0) {
+                position += transferred;
+            }
+            if (position > maxBytes) {
+                throw new PayloadTooLargeException("Body exceeds the " + maxBytes + " bytes this URL was signed for");
+            }
+            out.force(false);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        return temp;
+    }
+
+    private static BasicFileAttributes commit(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        return Files.readAttributes(target, BasicFileAttributes.class);
+    }
+
+    private void delete(String objectPath) throws IOException {
+        Path file = resolve(objectsRoot, objectPath);
+        Files.deleteIfExists(file);
+
+        // Drop the now-empty per-upload directories so the tree does not grow without bound
+        for (Path dir = file.getParent(); dir != null && !dir.equals(objectsRoot); dir = dir.getParent()) {
+            try (DirectoryStream<Path> children = Files.newDirectoryStream(dir)) {
+                if (children.iterator().hasNext()) break;
+            } catch (NoSuchFileException e) {
+                continue;
+            }
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    private Path uploadDir(String uploadId) {
+        Path dir = resolve(stagingRoot, uploadId);
+        if (!Files.isDirectory(dir)) {
+            throw new ResourceNotFoundException("Multipart upload not found: " + uploadId);
+        }
+        return dir;
+    }
+
+    private static void deleteTree(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private static Path resolve(Path root, String relative) {
+        Path path = root.resolve(relative).normalize();
+        if (!path.startsWith(root) || path.equals(root)) {
+            throw new BadRequestException("Invalid object path");
+        }
+        return path;
+    }
+
+    private String toKey(Path file) {
+        return objectsRoot.relativize(file).toString().replace(file.getFileSystem().getSeparator(), "/");
+    }
+
+    private static String rollUp(String key, String prefix, String delimiter) {
+        if (delimiter == null || delimiter.isEmpty()) return key;
+        int at = key.indexOf(delimiter, prefix.length());
+        return at < 0 ? key : key.substring(0, at + delimiter.length());
+    }
+
+    private static StoredObject storedObject(String key, Path file) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            return new StoredObject(key, attributes.size(), attributes.lastModifiedTime().toInstant());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to stat " + key, e);
+        }
+    }
+
+    private static String unquote(String etag) {
+        return etag.replace("\"", "");
+    }
+
+    private static String newObjectPath(String folderPrefix, String fileName) {
+        return String.format("%s/%s/%s", folderPrefix, UUID.randomUUID().toString().substring(0, 8), fileName);
+    }
+}
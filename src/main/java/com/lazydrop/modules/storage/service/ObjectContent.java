@@ -0,0 +1,73 @@
+package com.lazydrop.modules.storage.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Bytes of a stored object that this API serves itself. Reads are positional, so responses can honour
+ * {@code Range} requests; the size is that of the stored bytes, not what the uploader declared.
+ */
+public interface ObjectContent extends Closeable {
+
+    long size() throws IOException;
+
+    /**
+     * Writes up to {@code count} bytes starting at {@code position} and returns how many were written.
+     */
+    long transferTo(long position, long count, WritableByteChannel target) throws IOException;
+
+    /**
+     * The complete file holding these bytes, when there is one, so the servlet container can send it itself.
+     */
+    default Optional<Path> file() {
+        return Optional.empty();
+    }
+
+    static ObjectContent of(byte[] data) {
+        return new ObjectContent() {
+            @Override
+            public long size() {
+                return data.length;
+            }
+
+            @Override
+            public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+                if (position >= data.length) return 0;
+                return target.write(ByteBuffer.wrap(data, (int) position, (int) Math.min(count, data.length - position)));
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    static ObjectContent of(FileChannel channel, Path file) {
+        return new ObjectContent() {
+            @Override
+            public long size() throws IOException {
+                return channel.size();
+            }
+
+            @Override
+            public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+                return channel.transferTo(position, count, target);
+            }
+
+            @Override
+            public Optional<Path> file() {
+                return Optional.of(file);
+            }
+
+            @Override
+            public void close() throws IOException {
+                channel.close();
+            }
+        };
+    }
+}
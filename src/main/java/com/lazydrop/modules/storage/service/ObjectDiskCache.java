@@ -0,0 +1,515 @@
+package com.lazydrop.modules.storage.service;
+
+import com.lazydrop.common.cache.ExpiringLruCache;
+import com.lazydrop.common.exception.ForbiddenOperationException;
+import com.lazydrop.common.exception.ResourceNotFoundException;
+import com.lazydrop.modules.storage.dto.StoredObject;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Node-local, size-bounded LRU copy of hot bucket objects, so a file that a whole session downloads at once
+ * is pulled from origin a single time.
+ * <p>
+ * Only objects requested at least {@code hot-threshold} times within {@code hot-window} are proxied; everything
+ * else keeps going to the CDN. A miss starts one background fill per object, and every reader, including the
+ * one that started it, streams from the partially written file as bytes arrive. Readers get positional access,
+ * so {@code Range} requests work during a fill too. Evicting an entry only unlinks its file, so downloads
+ * already in progress keep streaming from it. The cache starts empty on every boot.
+ * <p>
+ * Deleting objects evicts them through {@link #evict} on the node that deleted them; other nodes drop their
+ * copies once they are older than {@code max-age}, which is kept no longer than a download URL stays valid.
+ */
+@Service
+@Slf4j
+public class ObjectDiskCache {
+
+    private static final int FILL_BUFFER = 64 * 1024;
+    private static final int MAX_OPEN_ATTEMPTS = 3;
+    private static final int MAX_TRACKED_OBJECTS = 100_000;
+
+    private record Entry(Path file, long sizeBytes, long expiresAtNanos) {}
+
+    /**
+     * Progress of one fill, shared by every reader of the object while it runs.
+     */
+    private static final class Fill {
+        private final Path file;
+
+        // guarded by this
+        private long sizeBytes = -1;
+        private boolean oversized;
+        private long written;
+        private boolean done;
+        private Exception failure;
+
+        Fill(Path file) {
+            this.file = file;
+        }
+
+        synchronized void start(long sizeBytes) {
+            this.sizeBytes = sizeBytes;
+            notifyAll();
+        }
+
+        synchronized void rejectOversized() {
+            oversized = true;
+            notifyAll();
+        }
+
+        synchronized void advance(long written) {
+            this.written = Math.max(this.written, written);
+            notifyAll();
+        }
+
+        synchronized void complete() {
+            written = sizeBytes;
+            done = true;
+            notifyAll();
+        }
+
+        synchronized void fail(Exception e) {
+            failure = e;
+            notifyAll();
+        }
+
+        /**
+         * Waits until the object has been sized; returns {@code -1} when it is too large to cache.
+         */
+        synchronized long awaitSize() {
+            try {
+                while (sizeBytes < 0 && !oversized && failure == null) {
+                    wait();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new UncheckedIOException(new InterruptedIOException("Interrupted waiting for " + file));
+            }
+            if (sizeBytes >= 0) return sizeBytes;
+            if (oversized) return -1;
+            throw failure instanceof RuntimeException runtime ? runtime : new UncheckedIOException((IOException) failure);
+        }
+
+        /**
+         * Waits until a byte past {@code position} is on disk, or the fill has finished; returns how many bytes
+         * are readable.
+         */
+        synchronized long awaitReadable(long position) throws IOException {
+            try {
+                while (written <= position && !done && failure == null) {
+                    wait();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted waiting for " + file);
+            }
+            if (failure != null) {
+                throw new IOException("Fetching the object into the cache failed", failure);
+            }
+            return written;
+        }
+    }
+
+    /**
+     * Reads an object whose fill may still be running, blocking until the requested bytes are on disk.
+     */
+    private record FillingContent(Fill fill, FileChannel channel, long size) implements ObjectContent {
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            if (position >= size) return 0;
+            long readable = fill.awaitReadable(position);
+            return channel.transferTo(position, Math.min(count, readable - position), target);
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    private final StorageService storageService;
+    private final ObjectUrlSigner signer;
+    private final boolean enabled;
+    private final Path directory;
+    private final long maxBytes;
+    private final long maxEntryBytes;
+    private final int hotThreshold;
+    private final long maxAgeNanos;
+
+    // Access-ordered, so iteration starts at the least recently used entry; guarded by this
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // Only changed while holding this; read without it by the size gauge
+    private final AtomicLong totalBytes = new AtomicLong();
+
+    private final Map<String, Fill> inFlight = new ConcurrentHashMap<>();
+    private final ExpiringLruCache<String, AtomicInteger> requestCounts;
+    private final ExecutorService fills;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter coalesced;
+    private final Counter evictions;
+
+    public ObjectDiskCache(
+            StorageService storageService,
+            ObjectUrlSigner signer,
+            MeterRegistry meterRegistry,
+            @Value("${app.storage.disk-cache.enabled:false}") boolean enabled,
+            @Value("${app.storage.disk-cache.dir:./data/cache}") Path directory,
+            @Value("${app.storage.disk-cache.max-size:10GB}") DataSize maxSize,
+            @Value("${app.storage.disk-cache.max-entry-size:1GB}") DataSize maxEntrySize,
+            @Value("${app.storage.disk-cache.hot-threshold:3}") int hotThreshold,
+            @Value("${app.storage.disk-cache.hot-window:10m}") Duration hotWindow,
+            @Value("${app.storage.disk-cache.max-age:1h}") Duration maxAge
+    ) throws IOException {
+        this.storageService = storageService;
+        this.signer = signer;
+        this.enabled = enabled;
+        this.directory = directory.toAbsolutePath().normalize();
+        this.maxBytes = maxSize.toBytes();
+        this.maxEntryBytes = Math.min(maxEntrySize.toBytes(), maxBytes);
+        this.hotThreshold = hotThreshold;
+        this.maxAgeNanos = maxAge.toNanos();
+        this.requestCounts = new ExpiringLruCache<>("storage.disk-cache.hot-objects", MAX_TRACKED_OBJECTS, hotWindow, meterRegistry);
+        this.fills = Executors.newCachedThreadPool(Thread.ofPlatform()
+                .name("disk-cache-fill-", 0)
+                .daemon(true)
+                .factory());
+
+        this.hits = requests(meterRegistry, "hit");
+        this.misses = requests(meterRegistry, "miss");
+        this.coalesced = requests(meterRegistry, "coalesced");
+        this.evictions = Counter.builder("lazydrop.storage.disk-cache.evictions")
+                .description("Entries evicted from the node-local object cache")
+                .register(meterRegistry);
+        Gauge.builder("lazydrop.storage.disk-cache.size", totalBytes, AtomicLong::get)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+
+        if (enabled) {
+            Files.createDirectories(this.directory);
+            purge();
+            log.info("Object disk cache enabled at {} ({} max)", this.directory, maxSize);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        fills.shutdownNow();
+    }
+
+    /**
+     * Counts a download of {@code objectPath} and says whether it should be proxied through the cache: objects
+     * already cached always are, others once they are hot and their declared size fits an entry.
+     */
+    public boolean shouldProxy(String objectPath, Long sizeBytes) {
+        if (!enabled || sizeBytes == null || sizeBytes > maxEntryBytes) {
+            return false;
+        }
+        if (lookup(objectPath) != null || inFlight.containsKey(objectPath)) {
+            return true;
+        }
+
+        AtomicInteger count;
+        synchronized (requestCounts) {
+            count = requestCounts.get(objectPath).orElse(null);
+            if (count == null) {
+                count = new AtomicInteger();
+                requestCounts.put(objectPath, count);
+            }
+        }
+        return count.incrementAndGet() >= hotThreshold;
+    }
+
+    /**
+     * Signs an absolute URL that streams {@code objectPath} through this cache; see {@link #openSigned}.
+     */
+    public String createSignedUrl(String objectPath, int expiresInSec) {
+        return signer.signedUrl(TieredStorageService.CONTENT_PATH, "GET", objectPath, expiresInSec, null, null, null);
+    }
+
+    /**
+     * Opens {@code objectPath} for a request carrying a URL from {@link #createSignedUrl}, rejecting it unless
+     * the signature was issued for this path and has not expired.
+     */
+    public Optional<ObjectContent> openSigned(String objectPath, long expires, String signature) {
+        if (!signer.verify("GET", objectPath, expires, null, null, null, signature)) {
+            throw new ForbiddenOperationException("Signed URL is invalid or has expired");
+        }
+        return open(objectPath);
+    }
+
+    /**
+     * Opens the cached copy of {@code objectPath}, starting a fill from storage on a miss. Empty when the cache is
+     * disabled or the stored object is larger than an entry may be. The caller must close the returned content.
+     */
+    public Optional<ObjectContent> open(String objectPath) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            ObjectContent cached = openCached(objectPath);
+            if (cached != null) {
+                hits.increment();
+                return Optional.of(cached);
+            }
+
+            Fill fill = new Fill(directory.resolve(UUID.randomUUID().toString()));
+            Fill running = inFlight.putIfAbsent(objectPath, fill);
+            if (running == null) {
+                // A fill may have finished between openCached and putIfAbsent
+                cached = openCached(objectPath);
+                if (cached != null) {
+                    inFlight.remove(objectPath, fill);
+                    hits.increment();
+                    return Optional.of(cached);
+                }
+                misses.increment();
+                startFill(objectPath, fill);
+                running = fill;
+            } else {
+                coalesced.increment();
+            }
+
+            long size = running.awaitSize();
+            if (size < 0) {
+                return Optional.empty();
+            }
+            try {
+                return Optional.of(new FillingContent(running, FileChannel.open(running.file, StandardOpenOption.READ), size));
+            } catch (NoSuchFileException e) {
+                // The fill failed, or its entry was evicted before this open; only possible when the cache is nearly full
+                if (attempt == MAX_OPEN_ATTEMPTS) {
+                    throw new UncheckedIOException("Cached copy of " + objectPath + " was removed before it could be read", e);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to open cached copy of " + objectPath, e);
+            }
+        }
+    }
+
+    /**
+     * Drops the cached copies of {@code objectPaths} once they are deleted from storage. A fill still running for
+     * one of them finishes for its current readers but is not admitted.
+     */
+    public void evict(Collection<String> objectPaths) {
+        if (!enabled || objectPaths.isEmpty()) {
+            return;
+        }
+
+        List<Entry> evicted = new ArrayList<>();
+        synchronized (this) {
+            for (String objectPath : objectPaths) {
+                inFlight.remove(objectPath);
+                Entry entry = entries.remove(objectPath);
+                if (entry != null) {
+                    totalBytes.addAndGet(-entry.sizeBytes());
+                    evicted.add(entry);
+                }
+            }
+        }
+        synchronized (requestCounts) {
+            objectPaths.forEach(requestCounts::invalidate);
+        }
+
+        evictions.increment(evicted.size());
+        evicted.forEach(entry -> deleteQuietly(entry.file()));
+    }
+
+    /**
+     * Sizes the object and hands the copy to a fill thread. The size comes from storage, so the size limit is
+     * checked against the stored bytes rather than what the uploader declared.
+     */
+    private void startFill(String objectPath, Fill fill) {
+        try {
+            long size = storageService.headObject(objectPath)
+                    .map(StoredObject::sizeBytes)
+                    .orElseThrow(() -> new ResourceNotFoundException("Stored object not found: " + objectPath));
+            if (size > maxEntryBytes) {
+                inFlight.remove(objectPath, fill);
+                fill.rejectOversized();
+                return;
+            }
+
+            Files.createFile(fill.file);
+            fill.start(size);
+            fills.execute(() -> copy(objectPath, fill, size));
+        } catch (IOException e) {
+            UncheckedIOException failure = new UncheckedIOException("Failed to cache " + objectPath, e);
+            abandon(objectPath, fill, failure);
+            throw failure;
+        } catch (RuntimeException e) {
+            abandon(objectPath, fill, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Copies the object into the fill's file, publishing progress after every read so readers never wait for more
+     * than the origin has sent. The last byte is only published once the copy is complete and admitted, so no
+     * reader finishes a body that later fails. Stops as soon as more bytes arrive than the object was sized at,
+     * so an object replaced by a larger one cannot grow past the entry limit.
+     */
+    private void copy(String objectPath, Fill fill, long size) {
+        try (InputStream in = storageService.openObject(objectPath);
+             ReadableByteChannel source = Channels.newChannel(in);
+             FileChannel out = FileChannel.open(fill.file, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(FILL_BUFFER);
+            long position = 0;
+            while (position <= size && source.read(buffer) >= 0) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    position += out.write(buffer, position);
+                }
+                buffer.clear();
+                fill.advance(Math.min(position, size - 1));
+            }
+            if (position != size) {
+                throw new IOException("Fetched " + (position > size ? "more than " + size : position + " of " + size)
+                        + " bytes of " + objectPath);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to cache {}", objectPath, e);
+            abandon(objectPath, fill, e);
+            return;
+        }
+
+        if (!admit(objectPath, fill, new Entry(fill.file, size, System.nanoTime() + maxAgeNanos))) {
+            // Evicted while filling: the object is gone from storage, so only the readers already streaming get it
+            deleteQuietly(fill.file);
+        }
+        fill.complete();
+    }
+
+    private void abandon(String objectPath, Fill fill, Exception failure) {
+        inFlight.remove(objectPath, fill);
+        deleteQuietly(fill.file);
+        fill.fail(failure);
+    }
+
+    private boolean admit(String objectPath, Fill fill, Entry entry) {
+        List<Entry> evicted = new ArrayList<>();
+        synchronized (this) {
+            if (!inFlight.remove(objectPath, fill)) {
+                return false;
+            }
+            Entry replaced = entries.put(objectPath, entry);
+            if (replaced != null) {
+                totalBytes.addAndGet(-replaced.sizeBytes());
+                evicted.add(replaced);
+            }
+            totalBytes.addAndGet(entry.sizeBytes());
+
+            Iterator<Entry> eldest = entries.values().iterator();
+            while (totalBytes.get() > maxBytes && eldest.hasNext()) {
+                Entry victim = eldest.next();
+                eldest.remove();
+                totalBytes.addAndGet(-victim.sizeBytes());
+                evicted.add(victim);
+            }
+        }
+
+        evictions.increment(evicted.size());
+        evicted.forEach(victim -> deleteQuietly(victim.file()));
+        log.debug("Cached {} ({} bytes), evicted {} entr(ies)", objectPath, entry.sizeBytes(), evicted.size());
+        return true;
+    }
+
+    private synchronized ObjectContent openCached(String objectPath) {
+        Entry entry = liveEntry(objectPath);
+        if (entry == null) return null;
+
+        try {
+            return ObjectContent.of(FileChannel.open(entry.file(), StandardOpenOption.READ), entry.file());
+        } catch (IOException e) {
+            log.warn("Dropping unreadable cache entry for {}", objectPath, e);
+            entries.remove(objectPath);
+            totalBytes.addAndGet(-entry.sizeBytes());
+            return null;
+        }
+    }
+
+    private synchronized Entry lookup(String objectPath) {
+        return liveEntry(objectPath);
+    }
+
+    /**
+     * Returns the entry for {@code objectPath}, dropping it once it is older than {@code max-age}; guarded by this.
+     */
+    private Entry liveEntry(String objectPath) {
+        Entry entry = entries.get(objectPath);
+        if (entry == null || System.nanoTime() - entry.expiresAtNanos() < 0) {
+            return entry;
+        }
+        entries.remove(objectPath);
+        totalBytes.addAndGet(-entry.sizeBytes());
+        evictions.increment();
+        deleteQuietly(entry.file());
+        return null;
+    }
+
+    long cachedBytes() {
+        return totalBytes.get();
+    }
+
+    private void purge() throws IOException {
+        try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(directory)) {
+            for (Path file : leftovers) {
+                if (Files.isRegularFile(file)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete cache file {}", file, e);
+        }
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("lazydrop.storage.disk-cache.requests")
+                .tag("result", result)
+                .description("Object disk cache lookups")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,98 @@
+package com.lazydrop.modules.storage.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Signs the object URLs this API serves itself (inline objects, and the {@link FileSystemStorageService} backend)
+ * with HMAC-SHA256 over {@code method, objectPath, expires, uploadId, partNumber, maxBytes}, mirroring the expiry
+ * semantics of S3 presigned URLs. {@code maxBytes} caps the body of a signed PUT, like the signed Content-Length
+ * of an S3 URL. URLs are absolute, rooted at {@code app.storage.public-url}.
+ */
+@Component
+public final class ObjectUrlSigner {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    private final String publicUrl;
+
+    public ObjectUrlSigner(
+            @Value("${app.storage.signing-secret:}") String secret,
+            @Value("${app.storage.public-url:http://localhost:8080}") String publicUrl
+    ) {
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalStateException("app.storage.signing-secret must be set to sign object URLs");
+        }
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+        this.publicUrl = publicUrl.endsWith("/") ? publicUrl.substring(0, publicUrl.length() - 1) : publicUrl;
+    }
+
+    /**
+     * Builds {@code <public-url><routePath><objectPath>} with the query parameters and signature for this request.
+     */
+    String signedUrl(String routePath, String method, String objectPath, int expiresInSec, String uploadId, Integer partNumber,
+                     Long maxBytes) {
+        long expires = Instant.now().plusSeconds(expiresInSec).getEpochSecond();
+        StringBuilder url = new StringBuilder(publicUrl)
+                .append(routePath)
+                .append(UriUtils.encodePath(objectPath, StandardCharsets.UTF_8))
+                .append("?expires=").append(expires);
+        if (uploadId != null) {
+            url.append("&uploadId=").append(uploadId).append("&partNumber=").append(partNumber);
+        }
+        if (maxBytes != null) {
+            url.append("&maxBytes=").append(maxBytes);
+        }
+        return url.append("&signature=").append(sign(method, objectPath, expires, uploadId, partNumber, maxBytes)).toString();
+    }
+
+    String sign(String method, String objectPath, long expiresEpochSecond, String uploadId, Integer partNumber, Long maxBytes) {
+        return ENCODER.encodeToString(mac(signingInput(method, objectPath, expiresEpochSecond, uploadId, partNumber, maxBytes)));
+    }
+
+    boolean verify(String method, String objectPath, long expiresEpochSecond, String uploadId, Integer partNumber, Long maxBytes,
+                   String signature) {
+        if (signature == null || Instant.now().getEpochSecond() > expiresEpochSecond) {
+            return false;
+        }
+
+        byte[] presented;
+        try {
+            presented = DECODER.decode(signature);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        return MessageDigest.isEqual(mac(signingInput(method, objectPath, expiresEpochSecond, uploadId, partNumber, maxBytes)), presented);
+    }
+
+    private static String signingInput(String method, String objectPath, long expiresEpochSecond, String uploadId, Integer partNumber,
+                                       Long maxBytes) {
+        return method + "\n" + objectPath + "\n" + expiresEpochSecond + "\n"
+                + (uploadId == null ? "" : uploadId) + "\n"
+                + (partNumber == null ? "" : partNumber) + "\n"
+                + (maxBytes == null ? "" : maxBytes);
+    }
+
+    private byte[] mac(String signingInput) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(signingInput.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to sign object URL", e);
+        }
+    }
+}
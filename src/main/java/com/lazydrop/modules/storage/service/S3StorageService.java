@@ -1,50 +1,107 @@
 package com.lazydrop.modules.storage.service;
 
+import com.lazydrop.common.concurrent.AsyncConcurrencyLimiter;
+import com.lazydrop.common.exception.ResourceNotFoundException;
 import com.lazydrop.config.SpacesProperties;
+import com.lazydrop.modules.session.file.dto.CompletedUploadPart;
+import com.lazydrop.modules.session.file.dto.MultipartUploadHandle;
+import com.lazydrop.modules.session.file.dto.PresignedPartUrl;
 import com.lazydrop.modules.session.file.dto.SignedUploadResponse;
+import com.lazydrop.modules.storage.dto.BulkDeleteResult;
+import com.lazydrop.modules.storage.dto.ObjectListing;
+import com.lazydrop.modules.storage.dto.StoredObject;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CommonPrefix;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.Delete;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.NoSuchUploadException;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
 import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
+import software.amazon.awssdk.services.s3.presigner.model.UploadPartPresignRequest;
 
+import java.io.InputStream;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Service
+@Qualifier("bucketStorage")
+@ConditionalOnProperty(name = "app.storage.backend", havingValue = "s3", matchIfMissing = true)
 @Slf4j
 public class S3StorageService implements StorageService {
 
+    private static final int MAX_DELETE_BATCH = 1000;
+
     private final S3Client s3Client;
+    private final S3AsyncClient s3AsyncClient;
     private final S3Presigner originPresigner;
     private final S3Presigner cdnPresigner;
     private final SpacesProperties spaces;
+    private final AsyncConcurrencyLimiter asyncLimiter;
 
     public S3StorageService(
             S3Client s3Client,
+            S3AsyncClient s3AsyncClient,
             @Qualifier("originPresigner") S3Presigner originPresigner,
             @Qualifier("cdnPresigner") S3Presigner cdnPresigner,
-            SpacesProperties spaces
+            SpacesProperties spaces,
+            MeterRegistry meterRegistry,
+            @Value("${app.storage.async.max-in-flight:64}") int maxInFlight,
+            @Value("${app.storage.async.max-queued:10000}") int maxQueued
     ) {
         this.s3Client = s3Client;
+        this.s3AsyncClient = s3AsyncClient;
         this.originPresigner = originPresigner;
         this.cdnPresigner = cdnPresigner;
         this.spaces = spaces;
+        this.asyncLimiter = new AsyncConcurrencyLimiter("storage.s3", maxInFlight, maxQueued, meterRegistry);
     }
 
     @Override
-    public SignedUploadResponse createSignedUploadUrl(String folderPrefix, String fileName, String contentType, int expiresInSec) {
-        String objectPath = String.format("%s/%s/%s", folderPrefix, UUID.randomUUID().toString().substring(0, 8), fileName);
+    public SignedUploadResponse createSignedUploadUrl(String folderPrefix, String fileName, String contentType, long contentLength, int expiresInSec) {
+        String objectPath = newObjectPath(folderPrefix, fileName);
 
+        // Content-Length becomes a signed header, so the bucket rejects bodies of any other size
         PutObjectRequest putRequest = PutObjectRequest.builder()
                 .bucket(spaces.getBucketName())
                 .key(objectPath)
                 .contentType(contentType)
+                .contentLength(contentLength)
                 .build();
 
         PutObjectPresignRequest presignRequest = PutObjectPresignRequest.builder()
@@ -85,6 +142,42 @@ public class S3StorageService implements StorageService {
         return signedUrl;
     }
 
+    @Override
+    public InputStream openObject(String objectPath) {
+        try {
+            return s3Client.getObject(GetObjectRequest.builder()
+                    .bucket(spaces.getBucketName())
+                    .key(objectPath)
+                    .build());
+        } catch (NoSuchKeyException e) {
+            throw new ResourceNotFoundException("Stored object not found: " + objectPath);
+        }
+    }
+
+    @Override
+    public String putObject(String folderPrefix, String fileName, String contentType, byte[] data) {
+        String objectPath = newObjectPath(folderPrefix, fileName);
+
+        s3Client.putObject(PutObjectRequest.builder()
+                .bucket(spaces.getBucketName())
+                .key(objectPath)
+                .contentType(contentType)
+                .build(), RequestBody.fromBytes(data));
+
+        log.info("Stored {} ({} bytes)", objectPath, data.length);
+        return objectPath;
+    }
+
+    @Override
+    public Optional<StoredObject> headObject(String objectPath) {
+        try {
+            return Optional.of(toStoredObject(objectPath, s3Client.headObject(headRequest(objectPath))));
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) return Optional.empty();
+            throw e;
+        }
+    }
+
     @Override
     public void deleteFile(String objectPath) {
         try {
@@ -99,6 +192,170 @@ public class S3StorageService implements StorageService {
         }
     }
 
+    @Override
+    public BulkDeleteResult deleteFiles(Collection<String> objectPaths) {
+        return deleteFilesAsync(objectPaths).join();
+    }
+
+    /**
+     * Deletes in DeleteObjects batches of up to 1000 keys, sending the batches concurrently through the async
+     * client within the in-flight limit. The future never fails; failed keys are reported in the result.
+     */
+    @Override
+    public CompletableFuture<BulkDeleteResult> deleteFilesAsync(Collection<String> objectPaths) {
+        List<String> keys = List.copyOf(new LinkedHashSet<>(objectPaths));
+        if (keys.isEmpty()) {
+            return CompletableFuture.completedFuture(new BulkDeleteResult(List.of(), Map.of()));
+        }
+
+        List<CompletableFuture<Map<String, String>>> batches = new ArrayList<>();
+        for (int from = 0; from < keys.size(); from += MAX_DELETE_BATCH) {
+            batches.add(deleteBatch(keys.subList(from, Math.min(from + MAX_DELETE_BATCH, keys.size()))));
+        }
+
+        return CompletableFuture.allOf(batches.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> {
+                    Map<String, String> failed = new LinkedHashMap<>();
+                    batches.forEach(batch -> failed.putAll(batch.join()));
+
+                    List<String> deleted = keys.stream().filter(key -> !failed.containsKey(key)).toList();
+                    log.info("Bulk deleted {} object(s), {} failed", deleted.size(), failed.size());
+                    return new BulkDeleteResult(deleted, failed);
+                });
+    }
+
+    private CompletableFuture<Map<String, String>> deleteBatch(List<String> keys) {
+        DeleteObjectsRequest request = DeleteObjectsRequest.builder()
+                .bucket(spaces.getBucketName())
+                .delete(Delete.builder()
+                        .objects(keys.stream().map(key -> ObjectIdentifier.builder().key(key).build()).toList())
+                        .quiet(true)
+                        .build())
+                .build();
+
+        return asyncLimiter.submit(() -> s3AsyncClient.deleteObjects(request))
+                .handle((response, error) -> {
+                    Map<String, String> failed = new LinkedHashMap<>();
+                    if (error != null) {
+                        log.error("DeleteObjects failed for a batch of {} key(s)", keys.size(), error);
+                        Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                        keys.forEach(key -> failed.put(key, cause.getMessage()));
+                    } else {
+                        response.errors().forEach(e -> failed.put(e.key(), e.code() + ": " + e.message()));
+                    }
+                    return failed;
+                });
+    }
+
+    @Override
+    public ObjectListing listObjects(String prefix, String delimiter, String startAfter, String continuationToken) {
+        return toListing(s3Client.listObjectsV2(listRequest(prefix, delimiter, startAfter, continuationToken)));
+    }
+
+    private ListObjectsV2Request listRequest(String prefix, String delimiter, String startAfter, String continuationToken) {
+        return ListObjectsV2Request.builder()
+                .bucket(spaces.getBucketName())
+                .prefix(prefix)
+                .delimiter(delimiter)
+                .startAfter(startAfter)
+                .continuationToken(continuationToken)
+                .build();
+    }
+
+    private static ObjectListing toListing(ListObjectsV2Response response) {
+        List<StoredObject> objects = response.contents().stream()
+                .map(o -> new StoredObject(o.key(), o.size() == null ? 0L : o.size(), o.lastModified()))
+                .toList();
+        List<String> prefixes = response.commonPrefixes().stream()
+                .map(CommonPrefix::prefix)
+                .toList();
+
+        return new ObjectListing(objects, prefixes,
+                Boolean.TRUE.equals(response.isTruncated()) ? response.nextContinuationToken() : null);
+    }
+
+    private HeadObjectRequest headRequest(String objectPath) {
+        return HeadObjectRequest.builder()
+                .bucket(spaces.getBucketName())
+                .key(objectPath)
+                .build();
+    }
+
+    private static StoredObject toStoredObject(String objectPath, HeadObjectResponse response) {
+        return new StoredObject(objectPath, response.contentLength() == null ? 0L : response.contentLength(), response.lastModified());
+    }
+
+    @Override
+    public MultipartUploadHandle initiateMultipartUpload(String folderPrefix, String fileName, String contentType) {
+        String objectPath = newObjectPath(folderPrefix, fileName);
+
+        String uploadId = s3Client.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                .bucket(spaces.getBucketName())
+                .key(objectPath)
+                .contentType(contentType)
+                .build()).uploadId();
+
+        log.info("Initiated multipart upload for: {} (uploadId={})", fileName, uploadId);
+        return new MultipartUploadHandle(objectPath, uploadId);
+    }
+
+    @Override
+    public List<PresignedPartUrl> createSignedPartUrls(String objectPath, String uploadId, List<Integer> partNumbers, long partSize, int expiresInSec) {
+        Duration signatureDuration = Duration.ofSeconds(expiresInSec);
+
+        // Parts are written to origin, same as single-shot uploads
+        return partNumbers.stream()
+                .map(partNumber -> {
+                    UploadPartPresignRequest presignRequest = UploadPartPresignRequest.builder()
+                            .signatureDuration(signatureDuration)
+                            .uploadPartRequest(UploadPartRequest.builder()
+                                    .bucket(spaces.getBucketName())
+                                    .key(objectPath)
+                                    .uploadId(uploadId)
+                                    .partNumber(partNumber)
+                                    .build())
+                            .build();
+                    String url = originPresigner.presignUploadPart(presignRequest).url().toString();
+                    return new PresignedPartUrl(partNumber, url);
+                })
+                .toList();
+    }
+
+    @Override
+    public void completeMultipartUpload(String objectPath, String uploadId, List<CompletedUploadPart> parts) {
+        List<CompletedPart> completedParts = parts.stream()
+                .sorted(Comparator.comparingInt(CompletedUploadPart::partNumber))
+                .map(p -> CompletedPart.builder().partNumber(p.partNumber()).eTag(p.eTag()).build())
+                .toList();
+
+        s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                .bucket(spaces.getBucketName())
+                .key(objectPath)
+                .uploadId(uploadId)
+                .multipartUpload(CompletedMultipartUpload.builder().parts(completedParts).build())
+                .build());
+
+        log.info("Completed multipart upload: {} ({} parts)", objectPath, completedParts.size());
+    }
+
+    @Override
+    public void abortMultipartUpload(String objectPath, String uploadId) {
+        try {
+            s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(spaces.getBucketName())
+                    .key(objectPath)
+                    .uploadId(uploadId)
+                    .build());
+            log.info("Aborted multipart upload: {} (uploadId={})", objectPath, uploadId);
+        } catch (NoSuchUploadException e) {
+            log.debug("Multipart upload {} for {} was already gone", uploadId, objectPath);
+        }
+    }
+
+    private static String newObjectPath(String folderPrefix, String fileName) {
+        return String.format("%s/%s/%s", folderPrefix, UUID.randomUUID().toString().substring(0, 8), fileName);
+    }
+
     private static String fileNameFrom(String objectPath) {
         return objectPath.substring(objectPath.lastIndexOf('/') + 1);
     }
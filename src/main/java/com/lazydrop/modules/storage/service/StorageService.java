@@ -1,12 +1,78 @@
 package com.lazydrop.modules.storage.service;
 
+import com.lazydrop.modules.session.file.dto.CompletedUploadPart;
+import com.lazydrop.modules.session.file.dto.MultipartUploadHandle;
+import com.lazydrop.modules.session.file.dto.PresignedPartUrl;
 import com.lazydrop.modules.session.file.dto.SignedUploadResponse;
+import com.lazydrop.modules.storage.dto.BulkDeleteResult;
+import com.lazydrop.modules.storage.dto.ObjectListing;
+import com.lazydrop.modules.storage.dto.StoredObject;
+
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 public interface StorageService {
 
-    SignedUploadResponse createSignedUploadUrl(String folderPrefix, String fileName, String contentType, int expiresInSec);
+    /**
+     * Presigns a single PUT of exactly {@code contentLength} bytes; the storage rejects larger bodies.
+     */
+    SignedUploadResponse createSignedUploadUrl(String folderPrefix, String fileName, String contentType, long contentLength, int expiresInSec);
 
     String createSignedDownloadUrl(String objectPath, int expiresInSec);
 
+    /**
+     * Opens the object for streaming; the caller must close the returned stream.
+     */
+    InputStream openObject(String objectPath);
+
+    /**
+     * Stores {@code data} server-side under a new path below {@code folderPrefix} and returns that path.
+     */
+    String putObject(String folderPrefix, String fileName, String contentType, byte[] data);
+
+    /**
+     * Returns the object's size and last-modified time, or empty when there is no such object.
+     */
+    Optional<StoredObject> headObject(String objectPath);
+
     void deleteFile(String objectPath);
+
+    BulkDeleteResult deleteFiles(Collection<String> objectPaths);
+
+    /**
+     * Lists one page of keys under {@code prefix}. With a {@code delimiter}, keys below the next
+     * delimiter are rolled up into {@link ObjectListing#commonPrefixes()}.
+     */
+    ObjectListing listObjects(String prefix, String delimiter, String startAfter, String continuationToken);
+
+    MultipartUploadHandle initiateMultipartUpload(String folderPrefix, String fileName, String contentType);
+
+    /**
+     * Presigns part uploads of at most {@code partSize} bytes each.
+     */
+    List<PresignedPartUrl> createSignedPartUrls(String objectPath, String uploadId, List<Integer> partNumbers, long partSize, int expiresInSec);
+
+    void completeMultipartUpload(String objectPath, String uploadId, List<CompletedUploadPart> parts);
+
+    void abortMultipartUpload(String objectPath, String uploadId);
+
+    /**
+     * Non-blocking {@link #deleteFiles}, so a backend can send its delete batches concurrently and callers can
+     * combine results. Backends without asynchronous I/O run the blocking call on the caller's thread.
+     */
+    default CompletableFuture<BulkDeleteResult> deleteFilesAsync(Collection<String> objectPaths) {
+        return completed(() -> deleteFiles(objectPaths));
+    }
+
+    private static <T> CompletableFuture<T> completed(Supplier<T> call) {
+        try {
+            return CompletableFuture.completedFuture(call.get());
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
 }
@@ -0,0 +1,194 @@
+package com.lazydrop.modules.storage.service;
+
+import com.lazydrop.common.exception.ForbiddenOperationException;
+import com.lazydrop.common.exception.ResourceNotFoundException;
+import com.lazydrop.modules.session.file.dto.CompletedUploadPart;
+import com.lazydrop.modules.session.file.dto.MultipartUploadHandle;
+import com.lazydrop.modules.session.file.dto.PresignedPartUrl;
+import com.lazydrop.modules.session.file.dto.SignedUploadResponse;
+import com.lazydrop.modules.storage.dto.BulkDeleteResult;
+import com.lazydrop.modules.storage.dto.ObjectListing;
+import com.lazydrop.modules.storage.dto.StoredObject;
+import com.lazydrop.modules.storage.model.InlineObject;
+import com.lazydrop.modules.storage.repository.InlineObjectRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Routes objects between two tiers: payloads up to {@code app.storage.inline.max-size} that are written
+ * through {@link #putObject} live in Postgres, everything else in the bucket backend
+ * ({@link S3StorageService} or {@link FileSystemStorageService}, per {@code app.storage.backend}). Inline paths carry the
+ * {@link InlineObject#PATH_PREFIX}, so reads and deletes are routed by path alone. Signed download URLs for
+ * inline objects point at this API's {@link #CONTENT_PATH} and carry an {@link ObjectUrlSigner} token.
+ */
+@Service
+@Primary
+@Slf4j
+public class TieredStorageService implements StorageService {
+
+    public static final String CONTENT_PATH = "/storage/content/";
+
+    private final StorageService bucket;
+    private final InlineObjectRepository inlineObjectRepository;
+    private final ObjectUrlSigner signer;
+    private final long inlineMaxBytes;
+
+    public TieredStorageService(
+            @Qualifier("bucketStorage") StorageService bucket,
+            InlineObjectRepository inlineObjectRepository,
+            ObjectUrlSigner signer,
+            @Value("${app.storage.inline.max-size:256KB}") DataSize inlineMaxSize
+    ) {
+        this.bucket = bucket;
+        this.inlineObjectRepository = inlineObjectRepository;
+        this.signer = signer;
+        this.inlineMaxBytes = inlineMaxSize.toBytes();
+    }
+
+    @Override
+    public SignedUploadResponse createSignedUploadUrl(String folderPrefix, String fileName, String contentType, long contentLength, int expiresInSec) {
+        return bucket.createSignedUploadUrl(folderPrefix, fileName, contentType, contentLength, expiresInSec);
+    }
+
+    @Override
+    public String createSignedDownloadUrl(String objectPath, int expiresInSec) {
+        if (InlineObject.isInlinePath(objectPath)) {
+            return signer.signedUrl(CONTENT_PATH, "GET", objectPath, expiresInSec, null, null, null);
+        }
+        return bucket.createSignedDownloadUrl(objectPath, expiresInSec);
+    }
+
+    /**
+     * Loads the inline object a signed download URL points at, rejecting the request unless the signature was
+     * issued for this path and has not expired.
+     */
+    public InlineObject getSignedInlineObject(String objectPath, long expires, String signature) {
+        if (!InlineObject.isInlinePath(objectPath) || !signer.verify("GET", objectPath, expires, null, null, null, signature)) {
+            throw new ForbiddenOperationException("Signed URL is invalid or has expired");
+        }
+        return inlineObjectRepository.findById(objectPath)
+                .orElseThrow(() -> new ResourceNotFoundException("Stored object not found: " + objectPath));
+    }
+
+    @Override
+    public String putObject(String folderPrefix, String fileName, String contentType, byte[] data) {
+        if (data.length > inlineMaxBytes) {
+            return bucket.putObject(folderPrefix, fileName, contentType, data);
+        }
+
+        String objectPath = InlineObject.PATH_PREFIX + folderPrefix + "/" + UUID.randomUUID().toString().substring(0, 8) + "/" + fileName;
+        inlineObjectRepository.save(InlineObject.builder()
+                .objectPath(objectPath)
+                .contentType(contentType)
+                .sizeBytes(data.length)
+                .data(data)
+                .createdAt(Instant.now())
+                .build());
+        return objectPath;
+    }
+
+    @Override
+    public InputStream openObject(String objectPath) {
+        if (InlineObject.isInlinePath(objectPath)) {
+            InlineObject object = inlineObjectRepository.findById(objectPath)
+                    .orElseThrow(() -> new ResourceNotFoundException("Stored object not found: " + objectPath));
+            return new ByteArrayInputStream(object.getData());
+        }
+        return bucket.openObject(objectPath);
+    }
+
+    @Override
+    public Optional<StoredObject> headObject(String objectPath) {
+        if (InlineObject.isInlinePath(objectPath)) {
+            return inlineObjectRepository.findById(objectPath)
+                    .map(object -> new StoredObject(objectPath, object.getSizeBytes(), object.getCreatedAt()));
+        }
+        return bucket.headObject(objectPath);
+    }
+
+    @Override
+    public void deleteFile(String objectPath) {
+        if (InlineObject.isInlinePath(objectPath)) {
+            inlineObjectRepository.deleteAllByObjectPathIn(List.of(objectPath));
+            return;
+        }
+        bucket.deleteFile(objectPath);
+    }
+
+    @Override
+    public BulkDeleteResult deleteFiles(Collection<String> objectPaths) {
+        return deleteFilesAsync(objectPaths).join();
+    }
+
+    /**
+     * Inline rows are deleted on the calling thread; bucket objects go through the backend's async path.
+     */
+    @Override
+    public CompletableFuture<BulkDeleteResult> deleteFilesAsync(Collection<String> objectPaths) {
+        List<String> inline = new ArrayList<>();
+        List<String> remote = new ArrayList<>();
+        objectPaths.forEach(path -> (InlineObject.isInlinePath(path) ? inline : remote).add(path));
+
+        if (inline.isEmpty()) {
+            return bucket.deleteFilesAsync(remote);
+        }
+
+        Map<String, String> inlineFailed = new LinkedHashMap<>();
+        try {
+            inlineObjectRepository.deleteAllByObjectPathIn(inline);
+        } catch (Exception e) {
+            log.error("Failed to delete {} inline object(s)", inline.size(), e);
+            inline.forEach(path -> inlineFailed.put(path, e.getMessage()));
+        }
+
+        return bucket.deleteFilesAsync(remote).thenApply(remoteResult -> {
+            Map<String, String> failed = new LinkedHashMap<>(inlineFailed);
+            failed.putAll(remoteResult.failed());
+
+            List<String> deleted = new ArrayList<>(remoteResult.deleted());
+            inline.stream().filter(path -> !inlineFailed.containsKey(path)).forEach(deleted::add);
+            return new BulkDeleteResult(deleted, failed);
+        });
+    }
+
+    @Override
+    public ObjectListing listObjects(String prefix, String delimiter, String startAfter, String continuationToken) {
+        return bucket.listObjects(prefix, delimiter, startAfter, continuationToken);
+    }
+
+    @Override
+    public MultipartUploadHandle initiateMultipartUpload(String folderPrefix, String fileName, String contentType) {
+        return bucket.initiateMultipartUpload(folderPrefix, fileName, contentType);
+    }
+
+    @Override
+    public List<PresignedPartUrl> createSignedPartUrls(String objectPath, String uploadId, List<Integer> partNumbers, long partSize, int expiresInSec) {
+        return bucket.createSignedPartUrls(objectPath, uploadId, partNumbers, partSize, expiresInSec);
+    }
+
+    @Override
+    public void completeMultipartUpload(String objectPath, String uploadId, List<CompletedUploadPart> parts) {
+        bucket.completeMultipartUpload(objectPath, uploadId, parts);
+    }
+
+    @Override
+    public void abortMultipartUpload(String objectPath, String uploadId) {
+        bucket.abortMultipartUpload(objectPath, uploadId);
+    }
+}
@@ -48,4 +48,11 @@ public class User {
             createdAt = Instant.now();
         }
     }
+
+    /**
+     * A provisional guest has no users row yet; see {@code GuestService#resolveExistingOrProvisionalGuest}.
+     */
+    public boolean isProvisional() {
+        return id == null;
+    }
 }
\ No newline at end of file
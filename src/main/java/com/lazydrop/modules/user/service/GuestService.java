@@ -5,15 +5,18 @@ import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseCookie;
 import org.springframework.stereotype.Service;
 
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class GuestService {
     private static final String GUEST_COOKIE_NAME = "ld_guest_id";
     private static final int GUEST_COOKIE_MAX_AGE = 60 * 60 * 24 * 30; // 30 days
@@ -22,20 +25,43 @@ public class GuestService {
     private boolean secureCookies;
 
     private final UserService userService;
+    private final GuestTokenCodec guestTokenCodec;
 
     public User resolveOrCreateGuest(HttpServletRequest request,
                                      HttpServletResponse response) {
-        String guestId = extractGuestIdFromCookie(request);
+        String cookieValue = extractGuestCookie(request);
+        if (cookieValue == null) {
+            return createAndSetGuest(response);
+        }
+
+        Optional<User> guest = findGuestByCookieValue(cookieValue);
+        if (guest.isEmpty()) {
+            return createAndSetGuest(response);
+        }
 
-        if (guestId != null) {
-            return userService.findByGuestId(guestId)
-                    .orElseGet(() -> createAndSetGuest(response));
+        if (!GuestTokenCodec.looksLikeToken(cookieValue)) {
+            // Legacy raw guest id cookie: swap it for a signed token so later requests skip the lookup.
+            setGuestCookie(response, guestTokenCodec.issue(guest.get().getId()));
         }
+        return guest.get();
+    }
+
+    /**
+     * Read-only variant of {@link #resolveOrCreateGuest}: never inserts a users row or sets a cookie.
+     * Callers without a known guest cookie get a transient guest that is materialized on their
+     * first state-changing request.
+     */
+    public User resolveExistingOrProvisionalGuest(HttpServletRequest request) {
+        return findGuest(request).orElseGet(this::provisionalGuest);
+    }
 
-        return createAndSetGuest(response);
+    public Optional<User> findGuest(HttpServletRequest request) {
+        String cookieValue = extractGuestCookie(request);
+        if (cookieValue == null) return Optional.empty();
+        return findGuestByCookieValue(cookieValue);
     }
 
-    public String extractGuestIdFromCookie(HttpServletRequest request) {
+    public String extractGuestCookie(HttpServletRequest request) {
         if (request.getCookies() == null) return null;
         for (Cookie cookie : request.getCookies()) {
             if (GUEST_COOKIE_NAME.equals(cookie.getName())) {
@@ -56,11 +82,45 @@ public class GuestService {
         response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
     }
 
+    private Optional<User> findGuestByCookieValue(String cookieValue) {
+        if (GuestTokenCodec.looksLikeToken(cookieValue)) {
+            return guestTokenCodec.verify(cookieValue)
+                    .flatMap(token -> userService.findCachedGuestById(token.userId()));
+        }
+
+        if (!isLegacyGuestId(cookieValue)) {
+            log.debug("Rejected malformed guest cookie without lookup");
+            return Optional.empty();
+        }
+        return userService.findCachedByGuestId(cookieValue);
+    }
+
+    private static boolean isLegacyGuestId(String value) {
+        try {
+            UUID.fromString(value);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private User provisionalGuest() {
+        return User.builder()
+                .guest(true)
+                .build();
+    }
+
     private User createAndSetGuest(HttpServletResponse response) {
         String guestId = UUID.randomUUID().toString();
         User guest = userService.createGuestUser(guestId);
 
-        ResponseCookie cookie = ResponseCookie.from(GUEST_COOKIE_NAME, guestId)
+        setGuestCookie(response, guestTokenCodec.issue(guest.getId()));
+
+        return guest;
+    }
+
+    private void setGuestCookie(HttpServletResponse response, String value) {
+        ResponseCookie cookie = ResponseCookie.from(GUEST_COOKIE_NAME, value)
                 .path("/")
                 .httpOnly(true)
                 .secure(secureCookies)
@@ -68,7 +128,5 @@ public class GuestService {
                 .maxAge(GUEST_COOKIE_MAX_AGE)
                 .build();
         response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
-
-        return guest;
     }
 }
@@ -0,0 +1,105 @@
+package com.lazydrop.modules.user.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Issues and verifies self-describing guest tokens of the form
+ * {@code g1.<base64url(userId | issuedAtEpochSeconds)>.<base64url(HMAC-SHA256)>}.
+ * Verification is purely in memory, so forged or expired cookies never reach Postgres.
+ */
+@Component
+public class GuestTokenCodec {
+
+    private static final String VERSION = "g1";
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final int PAYLOAD_BYTES = 16 + 8;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    public record GuestToken(UUID userId, Instant issuedAt) {}
+
+    private final SecretKeySpec key;
+    private final Duration maxAge;
+
+    public GuestTokenCodec(
+            @Value("${app.guest-token.secret}") String secret,
+            @Value("${app.guest-token.max-age:30d}") Duration maxAge
+    ) {
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalStateException("app.guest-token.secret must be set to sign guest tokens");
+        }
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+        this.maxAge = maxAge;
+    }
+
+    public static boolean looksLikeToken(String value) {
+        return value != null && value.startsWith(VERSION + ".");
+    }
+
+    public String issue(UUID userId) {
+        ByteBuffer payload = ByteBuffer.allocate(PAYLOAD_BYTES)
+                .putLong(userId.getMostSignificantBits())
+                .putLong(userId.getLeastSignificantBits())
+                .putLong(Instant.now().getEpochSecond());
+
+        String encodedPayload = ENCODER.encodeToString(payload.array());
+        String signingInput = VERSION + "." + encodedPayload;
+        return signingInput + "." + ENCODER.encodeToString(sign(signingInput));
+    }
+
+    public Optional<GuestToken> verify(String token) {
+        if (!looksLikeToken(token)) return Optional.empty();
+
+        int sigSeparator = token.lastIndexOf('.');
+        if (sigSeparator <= VERSION.length()) return Optional.empty();
+
+        String signingInput = token.substring(0, sigSeparator);
+        byte[] signature;
+        byte[] payload;
+        try {
+            signature = DECODER.decode(token.substring(sigSeparator + 1));
+            payload = DECODER.decode(signingInput.substring(VERSION.length() + 1));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+
+        if (!MessageDigest.isEqual(sign(signingInput), signature) || payload.length != PAYLOAD_BYTES) {
+            return Optional.empty();
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        UUID userId = new UUID(buffer.getLong(), buffer.getLong());
+        Instant issuedAt = Instant.ofEpochSecond(buffer.getLong());
+
+        Instant now = Instant.now();
+        if (issuedAt.isAfter(now.plusSeconds(60)) || issuedAt.plus(maxAge).isBefore(now)) {
+            return Optional.empty();
+        }
+
+        return Optional.of(new GuestToken(userId, issuedAt));
+    }
+
+    private byte[] sign(String signingInput) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(signingInput.getBytes(StandardCharsets.US_ASCII));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to sign guest token", e);
+        }
+    }
+}
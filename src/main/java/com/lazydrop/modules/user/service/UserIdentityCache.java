@@ -0,0 +1,91 @@
+package com.lazydrop.modules.user.service;
+
+import com.lazydrop.common.cache.ExpiringLruCache;
+import com.lazydrop.modules.user.model.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Resolved {@link User} rows keyed by Supabase user id and by guest id, so that
+ * identity resolution does not hit the users table on every request.
+ */
+@Component
+public class UserIdentityCache {
+
+    private final ExpiringLruCache<UUID, User> bySupabaseUserId;
+    private final ExpiringLruCache<String, User> byGuestId;
+    private final ExpiringLruCache<UUID, User> byGuestUserId;
+
+    public UserIdentityCache(
+            MeterRegistry meterRegistry,
+            @Value("${app.identity-cache.max-size:10000}") int maxSize,
+            @Value("${app.identity-cache.ttl:5m}") Duration ttl
+    ) {
+        this.bySupabaseUserId = new ExpiringLruCache<>("identity.supabase", maxSize, ttl, meterRegistry);
+        this.byGuestId = new ExpiringLruCache<>("identity.guest", maxSize, ttl, meterRegistry);
+        this.byGuestUserId = new ExpiringLruCache<>("identity.guest-token", maxSize, ttl, meterRegistry);
+    }
+
+    public Optional<User> findBySupabaseUserId(UUID supabaseUserId) {
+        return bySupabaseUserId.get(supabaseUserId);
+    }
+
+    public Optional<User> findByGuestId(String guestId) {
+        return byGuestId.get(guestId);
+    }
+
+    public Optional<User> findGuestByUserId(UUID userId) {
+        return byGuestUserId.get(userId);
+    }
+
+    public void put(User user) {
+        if (user.getSupabaseUserId() != null) {
+            bySupabaseUserId.put(user.getSupabaseUserId(), user);
+        }
+        if (user.isGuest() && user.getGuestId() != null) {
+            byGuestId.put(user.getGuestId(), user);
+        }
+        if (user.isGuest() && user.getId() != null) {
+            byGuestUserId.put(user.getId(), user);
+        }
+    }
+
+    /**
+     * Evicts now and again once the surrounding transaction commits, so a concurrent reader
+     * cannot re-cache the pre-commit row. The keys are those {@code user} has at the time of the call.
+     */
+    public void evictAfterCommit(User user) {
+        UUID supabaseUserId = user.getSupabaseUserId();
+        String guestId = user.getGuestId();
+        UUID userId = user.getId();
+
+        evict(supabaseUserId, guestId, userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(supabaseUserId, guestId, userId);
+                }
+            });
+        }
+    }
+
+    private void evict(UUID supabaseUserId, String guestId, UUID userId) {
+        if (supabaseUserId != null) {
+            bySupabaseUserId.invalidate(supabaseUserId);
+        }
+        if (guestId != null) {
+            byGuestId.invalidate(guestId);
+        }
+        if (userId != null) {
+            byGuestUserId.invalidate(userId);
+        }
+    }
+}
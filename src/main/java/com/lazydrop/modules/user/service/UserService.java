@@ -15,6 +15,7 @@ import java.util.UUID;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final UserIdentityCache identityCache;
 
     @Transactional
     public User getOrCreateUser(UUID supabaseUserId, String email){
@@ -45,6 +46,9 @@ public class UserService {
         User guest = userRepository.findByGuestId(guestId)
                 .orElseThrow(() -> new IllegalStateException("Guest not found"));
 
+        // Taken before the guest keys are cleared below
+        identityCache.evictAfterCommit(guest);
+
         guest.setGuest(false);
         guest.setSupabaseUserId(supabaseUserId);
         guest.setEmail(email);
@@ -58,6 +62,7 @@ public class UserService {
         if (!user.getEmail().equals(email)) {
             user.setEmail(email);
             userRepository.save(user);
+            identityCache.evictAfterCommit(user);
         }
         return user;
     }
@@ -75,6 +80,33 @@ public class UserService {
         return userRepository.findByGuestId(guestId);
     }
 
+    public Optional<User> findCachedByGuestId(String guestId) {
+        return identityCache.findByGuestId(guestId)
+                .or(() -> {
+                    Optional<User> user = userRepository.findByGuestId(guestId);
+                    user.ifPresent(identityCache::put);
+                    return user;
+                });
+    }
+
+    public Optional<User> findCachedGuestById(UUID userId) {
+        return identityCache.findGuestByUserId(userId)
+                .or(() -> {
+                    Optional<User> user = userRepository.findById(userId).filter(User::isGuest);
+                    user.ifPresent(identityCache::put);
+                    return user;
+                });
+    }
+
+    public Optional<User> findCachedBySupabaseUserId(UUID supabaseUserId) {
+        return identityCache.findBySupabaseUserId(supabaseUserId)
+                .or(() -> {
+                    Optional<User> user = userRepository.findBySupabaseUserId(supabaseUserId);
+                    user.ifPresent(identityCache::put);
+                    return user;
+                });
+    }
+
     public Optional<User> findById(UUID userId) {
         return userRepository.findById(userId);
     }
@@ -7,6 +7,8 @@ import org.springframework.stereotype.Component;
 import org.springframework.transaction.support.TransactionSynchronization;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.Map;
+
 @Component
 @RequiredArgsConstructor
 @Slf4j
@@ -55,4 +57,29 @@ public class WebSocketNotifier {
         WebSocketMessage<T> msg = new WebSocketMessage<>(type, payload);
         broadcastToSessionAfterCommit(sessionId, msg);
     }
+
+    /**
+     * Same as {@link #sendEventAfterCommit} for many sessions, with a single synchronization for the whole batch.
+     */
+    public <T> void sendEventsAfterCommit(MessageType type, Map<String, T> payloadsBySessionId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    payloadsBySessionId.forEach((sessionId, payload) -> sendQuietly(sessionId, type, payload));
+                }
+            });
+        } else {
+            payloadsBySessionId.forEach((sessionId, payload) -> sendQuietly(sessionId, type, payload));
+        }
+    }
+
+    private <T> void sendQuietly(String sessionId, MessageType type, T payload) {
+        String destination = "/topic/session/" + sessionId;
+        try {
+            messagingTemplate.convertAndSend(destination, new WebSocketMessage<>(type, payload));
+        } catch (Exception e) {
+            log.error("Failed to send WS message to {} after commit", destination, e);
+        }
+    }
 }
@@ -0,0 +1,11 @@
+package com.lazydrop.modules.websocket.payload;
+
+import java.time.Instant;
+
+public record DropSessionExpiringPayload(
+        String sessionId,
+        String ownerId,
+        Instant expiresAt,
+        long remainingSeconds
+) {
+}
@@ -0,0 +1,7 @@
+package com.lazydrop.modules.websocket.payload;
+
+import java.util.List;
+
+public record FilesUploadedPayload(
+        List<FileUploadedPayload> files
+) {}
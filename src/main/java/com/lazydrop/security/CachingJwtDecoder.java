@@ -0,0 +1,58 @@
+package com.lazydrop.security;
+
+import com.lazydrop.common.cache.ExpiringLruCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Remembers successfully validated tokens, keyed by a SHA-256 digest of the raw token,
+ * until their {@code exp}. Only tokens that passed the delegate's signature and claim
+ * validation are ever cached; failures always go back to the delegate.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+    private final ExpiringLruCache<String, Jwt> validated;
+
+    public CachingJwtDecoder(JwtDecoder delegate, int maxSize, Duration maxTtl, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.validated = new ExpiringLruCache<>("jwt", maxSize, maxTtl, meterRegistry);
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        String key = digest(token);
+
+        Optional<Jwt> cached = validated.get(key);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        Jwt jwt = delegate.decode(token);
+
+        Instant expiresAt = jwt.getExpiresAt();
+        if (expiresAt != null && expiresAt.isAfter(Instant.now())) {
+            validated.putUntil(key, jwt, expiresAt);
+        }
+        return jwt;
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.lazydrop.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -19,6 +20,7 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 
@@ -35,8 +37,14 @@ public class SecurityConfig {
     @Value("${cors.allowed-origins}")
     private String allowedOrigins;
 
+    @Value("${app.jwt-cache.max-size:10000}")
+    private int jwtCacheMaxSize;
+
+    @Value("${app.jwt-cache.max-ttl:1h}")
+    private Duration jwtCacheMaxTtl;
+
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtDecoder jwtDecoder) throws Exception {
         http
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .csrf(AbstractHttpConfigurer::disable)
@@ -44,6 +52,8 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/ws/**").permitAll()
                         .requestMatchers("/sessions/**").permitAll()
+                        .requestMatchers("/storage/objects/**").permitAll()
+                        .requestMatchers("/storage/content/**").permitAll()
                         .requestMatchers("/webhooks/**").permitAll()
                         .requestMatchers("/health").permitAll()
                         .requestMatchers("/subscriptions/**").authenticated()
@@ -52,7 +62,7 @@ public class SecurityConfig {
                 )
                 .oauth2ResourceServer(oauth2 -> oauth2
                         .jwt(jwt -> jwt
-                                .decoder(jwtDecoder())
+                                .decoder(jwtDecoder)
                                 .jwtAuthenticationConverter(new SupabaseJwtAuthenticationConverter())
                         )
                 );
@@ -64,8 +74,9 @@ public class SecurityConfig {
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOriginPatterns(Arrays.asList(allowedOrigins.split(",")));
-        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        configuration.setAllowedMethods(Arrays.asList("GET", "HEAD", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(List.of("*"));
+        configuration.setExposedHeaders(List.of("X-Next-Cursor", "ETag", "Content-Range", "Accept-Ranges"));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
 
@@ -75,7 +86,7 @@ public class SecurityConfig {
     }
 
     @Bean
-    public JwtDecoder jwtDecoder() {
+    public JwtDecoder jwtDecoder(MeterRegistry meterRegistry) {
         if (jwtSecret == null || jwtSecret.isBlank()) {
             throw new IllegalStateException("supabase.jwt-secret must be set for HS256 validation");
         }
@@ -92,7 +103,7 @@ public class SecurityConfig {
         );
         hmacDecoder.setJwtValidator(validators);
 
-        return hmacDecoder;
+        return new CachingJwtDecoder(hmacDecoder, jwtCacheMaxSize, jwtCacheMaxTtl, meterRegistry);
     }
 
 }
\ No newline at end of file
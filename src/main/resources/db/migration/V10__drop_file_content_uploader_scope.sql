@@ -0,0 +1,25 @@
+-- Hashes are supplied by the client, so content indexed for a whole session owner could be poisoned by
+-- any participant. The index is now scoped to the uploader. Existing rows keep their references but were
+-- indexed by owner, so they are no longer offered for sharing.
+ALTER TABLE drop_file_content
+    DROP CONSTRAINT ux_drop_file_content_owner_sha256;
+
+ALTER TABLE drop_file_content
+    DROP CONSTRAINT FK_DROP_FILE_CONTENT_ON_OWNER;
+
+ALTER TABLE drop_file_content
+    RENAME COLUMN owner_id TO uploader_id;
+
+ALTER TABLE drop_file_content
+    ALTER COLUMN uploader_id DROP NOT NULL;
+
+UPDATE drop_file_content
+SET uploader_id = NULL;
+
+ALTER TABLE drop_file_content
+    ADD CONSTRAINT ux_drop_file_content_uploader_sha256 UNIQUE (uploader_id, sha256);
+
+-- References held by files must outlive the uploader's account, so only the index entry is detached
+ALTER TABLE drop_file_content
+    ADD CONSTRAINT FK_DROP_FILE_CONTENT_ON_UPLOADER
+        FOREIGN KEY (uploader_id) REFERENCES users (id) ON DELETE SET NULL;
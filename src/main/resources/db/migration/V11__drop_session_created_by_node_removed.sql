@@ -0,0 +1,5 @@
+-- Expiry timers are re-armed by deadline on every node, so sessions no longer record their creating node.
+DROP INDEX IF EXISTS idx_drop_session_live_node;
+
+ALTER TABLE drop_session
+    DROP COLUMN created_by_node;
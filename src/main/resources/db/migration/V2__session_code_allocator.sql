@@ -0,0 +1,22 @@
+CREATE TABLE session_code
+(
+    code        VARCHAR(255) NOT NULL,
+    reserved_at TIMESTAMPTZ  NOT NULL,
+    released_at TIMESTAMPTZ,
+    CONSTRAINT pk_session_code PRIMARY KEY (code)
+);
+
+CREATE INDEX idx_session_code_released_at ON session_code (released_at);
+
+-- Existing live codes stay reserved; codes of ended sessions become recyclable.
+INSERT INTO session_code (code, reserved_at, released_at)
+SELECT code,
+       created_at,
+       CASE WHEN status IN ('OPEN', 'CONNECTED') THEN NULL ELSE COALESCE(ended_at, expires_at) END
+FROM drop_session;
+
+-- Codes are only unique among live sessions so that ended sessions can give theirs back.
+ALTER TABLE drop_session
+    DROP CONSTRAINT uc_drop_session_code;
+
+CREATE UNIQUE INDEX ux_drop_session_live_code ON drop_session (code) WHERE status IN ('OPEN', 'CONNECTED');
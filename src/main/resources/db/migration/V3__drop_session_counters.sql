@@ -0,0 +1,11 @@
+ALTER TABLE drop_session
+    ADD COLUMN participant_count INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN file_count        INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN note_count        INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN total_bytes       BIGINT  NOT NULL DEFAULT 0;
+
+UPDATE drop_session s
+SET participant_count = (SELECT count(*) FROM drop_session_participants p WHERE p.drop_session_id = s.id),
+    file_count        = (SELECT count(*) FROM drop_file f WHERE f.drop_session_id = s.id),
+    note_count        = (SELECT count(*) FROM drop_session_note n WHERE n.session_id = s.id),
+    total_bytes       = (SELECT coalesce(sum(f.size_bytes), 0) FROM drop_file f WHERE f.drop_session_id = s.id);
@@ -0,0 +1,26 @@
+CREATE TABLE drop_file_upload
+(
+    id              UUID          NOT NULL,
+    drop_session_id UUID          NOT NULL,
+    uploader        UUID          NOT NULL,
+    object_path     VARCHAR(1024) NOT NULL,
+    upload_id       VARCHAR(1024) NOT NULL,
+    original_name   VARCHAR(1024),
+    content_type    VARCHAR(255),
+    size_bytes      BIGINT        NOT NULL,
+    part_size       BIGINT        NOT NULL,
+    part_count      INTEGER       NOT NULL,
+    created_at      TIMESTAMPTZ   NOT NULL,
+    CONSTRAINT pk_drop_file_upload PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_drop_file_upload_session ON drop_file_upload (drop_session_id);
+CREATE INDEX idx_drop_file_upload_created_at ON drop_file_upload (created_at);
+
+ALTER TABLE drop_file_upload
+    ADD CONSTRAINT FK_DROP_FILE_UPLOAD_ON_DROP_SESSION
+        FOREIGN KEY (drop_session_id) REFERENCES drop_session (id) ON DELETE CASCADE;
+
+ALTER TABLE drop_file_upload
+    ADD CONSTRAINT FK_DROP_FILE_UPLOAD_ON_UPLOADER
+        FOREIGN KEY (uploader) REFERENCES users (id);
@@ -0,0 +1,15 @@
+CREATE TABLE cleanup_job
+(
+    id            UUID        NOT NULL,
+    type          VARCHAR(50) NOT NULL,
+    session_id    UUID        NOT NULL,
+    status        VARCHAR(50) NOT NULL,
+    attempt_count INTEGER     NOT NULL DEFAULT 0,
+    next_run_at   TIMESTAMPTZ NOT NULL,
+    last_error    TEXT,
+    created_at    TIMESTAMPTZ NOT NULL,
+    CONSTRAINT pk_cleanup_job PRIMARY KEY (id),
+    CONSTRAINT ux_cleanup_job_type_session UNIQUE (type, session_id)
+);
+
+CREATE INDEX idx_cleanup_job_status_next_run ON cleanup_job (status, next_run_at);
@@ -0,0 +1,2 @@
+CREATE INDEX idx_drop_file_storage_path ON drop_file (storage_path);
+CREATE INDEX idx_drop_file_upload_object_path ON drop_file_upload (object_path);
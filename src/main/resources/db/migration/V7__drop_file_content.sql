@@ -0,0 +1,23 @@
+CREATE TABLE drop_file_content
+(
+    id          UUID          NOT NULL,
+    owner_id    UUID          NOT NULL,
+    sha256      CHAR(64)      NOT NULL,
+    size_bytes  BIGINT        NOT NULL,
+    object_path VARCHAR(1024) NOT NULL,
+    ref_count   INTEGER       NOT NULL,
+    created_at  TIMESTAMPTZ   NOT NULL,
+    CONSTRAINT pk_drop_file_content PRIMARY KEY (id)
+);
+
+ALTER TABLE drop_file_content
+    ADD CONSTRAINT ux_drop_file_content_owner_sha256 UNIQUE (owner_id, sha256);
+
+ALTER TABLE drop_file_content
+    ADD CONSTRAINT FK_DROP_FILE_CONTENT_ON_OWNER
+        FOREIGN KEY (owner_id) REFERENCES users (id) ON DELETE CASCADE;
+
+ALTER TABLE drop_file
+    ADD COLUMN content_id UUID;
+
+CREATE INDEX idx_drop_file_content_id ON drop_file (content_id);
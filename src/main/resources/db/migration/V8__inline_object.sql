@@ -0,0 +1,9 @@
+CREATE TABLE inline_object
+(
+    object_path  VARCHAR(1024) NOT NULL,
+    content_type VARCHAR(255),
+    size_bytes   BIGINT        NOT NULL,
+    data         BYTEA         NOT NULL,
+    created_at   TIMESTAMPTZ   NOT NULL,
+    CONSTRAINT pk_inline_object PRIMARY KEY (object_path)
+);
@@ -0,0 +1,5 @@
+-- Lets each node re-arm expiry timers only for the live sessions it created.
+ALTER TABLE drop_session
+    ADD COLUMN created_by_node VARCHAR(255);
+
+CREATE INDEX idx_drop_session_live_node ON drop_session (created_by_node) WHERE status IN ('OPEN', 'CONNECTED');
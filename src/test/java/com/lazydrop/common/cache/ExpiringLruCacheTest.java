@@ -0,0 +1,71 @@
+package com.lazydrop.common.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("ExpiringLruCache Tests")
+class ExpiringLruCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ExpiringLruCache<String, String> cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ExpiringLruCache<>("test", 2, Duration.ofMinutes(1), meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should return cached value and count hits and misses")
+    void testHitAndMiss() {
+        cache.put("a", "1");
+
+        assertThat(cache.get("a")).contains("1");
+        assertThat(cache.get("b")).isEmpty();
+
+        assertThat(meterRegistry.get("lazydrop.cache.gets").tag("result", "hit").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("lazydrop.cache.gets").tag("result", "miss").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should evict least recently used entry when full")
+    void testLruEviction() {
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.get("a");
+        cache.put("c", "3");
+
+        assertThat(cache.get("a")).contains("1");
+        assertThat(cache.get("b")).isEmpty();
+        assertThat(cache.get("c")).contains("3");
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should not return entries past their deadline")
+    void testExpiry() {
+        cache.putUntil("a", "1", Instant.now().minusSeconds(1));
+
+        assertThat(cache.get("a")).isEmpty();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should drop invalidated entries")
+    void testInvalidate() {
+        cache.put("a", "1");
+        cache.put("b", "2");
+
+        cache.invalidate("a");
+        cache.invalidateIf("2"::equals);
+
+        assertThat(cache.size()).isZero();
+    }
+}
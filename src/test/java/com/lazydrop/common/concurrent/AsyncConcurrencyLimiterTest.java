@@ -0,0 +1,84 @@
+package com.lazydrop.common.concurrent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("AsyncConcurrencyLimiter Tests")
+class AsyncConcurrencyLimiterTest {
+
+    @Test
+    @DisplayName("Should start queued operations only as running ones complete")
+    void testLimitsInFlight() {
+        AsyncConcurrencyLimiter limiter = new AsyncConcurrencyLimiter("test", 2, 10, new SimpleMeterRegistry());
+        List<CompletableFuture<Integer>> operations = new ArrayList<>();
+        AtomicInteger started = new AtomicInteger();
+
+        List<CompletableFuture<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            CompletableFuture<Integer> operation = new CompletableFuture<>();
+            operations.add(operation);
+            results.add(limiter.submit(() -> {
+                started.incrementAndGet();
+                return operation;
+            }));
+        }
+
+        assertThat(started).hasValue(2);
+        assertThat(limiter.inFlight()).isEqualTo(2);
+        assertThat(limiter.queued()).isEqualTo(2);
+
+        operations.get(0).complete(0);
+        assertThat(results.get(0)).isCompletedWithValue(0);
+        assertThat(started).hasValue(3);
+
+        operations.get(1).completeExceptionally(new IllegalStateException("boom"));
+        assertThat(results.get(1)).isCompletedExceptionally();
+        assertThat(started).hasValue(4);
+
+        operations.get(2).complete(2);
+        operations.get(3).complete(3);
+        assertThat(limiter.inFlight()).isZero();
+        assertThat(limiter.queued()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should reject submissions once the queue is full")
+    void testRejectsWhenQueueFull() {
+        AsyncConcurrencyLimiter limiter = new AsyncConcurrencyLimiter("test", 1, 1, new SimpleMeterRegistry());
+
+        limiter.submit(CompletableFuture::new);
+        limiter.submit(CompletableFuture::new);
+        CompletableFuture<Object> rejected = limiter.submit(CompletableFuture::new);
+
+        assertThat(rejected).isCompletedExceptionally();
+        assertThat(rejected.exceptionNow()).isInstanceOf(RejectedExecutionException.class);
+    }
+
+    @Test
+    @DisplayName("Should drain a long queue of synchronously completing operations without deep recursion")
+    void testDrainsLongQueue() {
+        int queued = 100_000;
+        AsyncConcurrencyLimiter limiter = new AsyncConcurrencyLimiter("test", 1, queued, new SimpleMeterRegistry());
+        CompletableFuture<Integer> first = new CompletableFuture<>();
+        limiter.submit(() -> first);
+
+        AtomicInteger completed = new AtomicInteger();
+        for (int i = 0; i < queued; i++) {
+            limiter.submit(() -> CompletableFuture.completedFuture(1)).thenAccept(completed::addAndGet);
+        }
+
+        first.complete(0);
+
+        assertThat(completed).hasValue(queued);
+        assertThat(limiter.inFlight()).isZero();
+    }
+}
@@ -0,0 +1,140 @@
+package com.lazydrop.modules.cleanup.service;
+
+import com.lazydrop.modules.cleanup.model.CleanupJob;
+import com.lazydrop.modules.cleanup.model.CleanupJobStatus;
+import com.lazydrop.modules.cleanup.model.CleanupJobType;
+import com.lazydrop.modules.cleanup.repository.CleanupJobRepository;
+import com.lazydrop.modules.session.core.event.DropSessionEndedEvent;
+import com.lazydrop.modules.session.core.model.SessionEndReason;
+import com.lazydrop.modules.session.file.service.DropFileService;
+import com.lazydrop.modules.session.note.service.DropSessionNoteService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CleanupJobService Tests")
+class CleanupJobServiceTest {
+
+    @Mock
+    private CleanupJobRepository jobRepo;
+    @Mock
+    private TransactionTemplate txTemplate;
+    @Mock
+    private DropFileService dropFileService;
+    @Mock
+    private DropSessionNoteService noteService;
+
+    private CleanupJobService cleanupJobService;
+
+    @BeforeEach
+    void setUp() {
+        cleanupJobService = new CleanupJobService(
+                jobRepo, txTemplate, dropFileService, noteService, new SimpleMeterRegistry(), 2, 20, 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cleanupJobService.shutdown();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void setupTransactionTemplateMock() {
+        lenient().when(txTemplate.execute(any())).thenAnswer(invocation -> {
+            TransactionCallback<?> callback = invocation.getArgument(0);
+            return callback.doInTransaction(null);
+        });
+        lenient().doAnswer(invocation -> {
+            Consumer<Object> callback = invocation.getArgument(0);
+            callback.accept(null);
+            return null;
+        }).when(txTemplate).executeWithoutResult(any());
+    }
+
+    private CleanupJob job(CleanupJobType type, int attempts) {
+        return CleanupJob.builder()
+                .id(UUID.randomUUID())
+                .type(type)
+                .sessionId(UUID.randomUUID())
+                .status(CleanupJobStatus.RUNNING)
+                .attemptCount(attempts)
+                .nextRunAt(Instant.now())
+                .createdAt(Instant.now())
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should enqueue one job per type when a session ends")
+    void testEnqueueOnSessionEnded() {
+        UUID sessionId = UUID.randomUUID();
+
+        cleanupJobService.handleSessionEnded(new DropSessionEndedEvent(sessionId, SessionEndReason.EXPIRED));
+
+        verify(jobRepo).enqueue(eq(List.of("SESSION_FILES", "SESSION_NOTES")), eq(sessionId), any(Instant.class));
+    }
+
+    @Test
+    @DisplayName("Should delete a job after it succeeds")
+    void testDrainSuccess() {
+        setupTransactionTemplateMock();
+        CleanupJob job = job(CleanupJobType.SESSION_FILES, 1);
+        when(jobRepo.claimDue(any(), any(), eq(20))).thenReturn(List.of(job.getId()));
+        when(jobRepo.findById(job.getId())).thenReturn(Optional.of(job));
+
+        int processed = cleanupJobService.drain();
+
+        assertThat(processed).isEqualTo(1);
+        verify(dropFileService).cleanupSessionFiles(job.getSessionId());
+        verify(jobRepo).deleteById(job.getId());
+        verify(jobRepo, never()).reschedule(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should reschedule a failed job with backoff")
+    void testDrainRetry() {
+        setupTransactionTemplateMock();
+        CleanupJob job = job(CleanupJobType.SESSION_NOTES, 1);
+        when(jobRepo.claimDue(any(), any(), eq(20))).thenReturn(List.of(job.getId()));
+        when(jobRepo.findById(job.getId())).thenReturn(Optional.of(job));
+        doThrow(new RuntimeException("db down")).when(noteService).deleteSessionNotes(job.getSessionId());
+
+        Instant before = Instant.now();
+        cleanupJobService.drain();
+
+        verify(jobRepo, never()).deleteById(any());
+        verify(jobRepo).reschedule(eq(job.getId()), eq(CleanupJobStatus.PENDING),
+                argThat(next -> next.isAfter(before.plusSeconds(29))), contains("db down"));
+    }
+
+    @Test
+    @DisplayName("Should mark a job failed once attempts are exhausted")
+    void testDrainExhausted() {
+        setupTransactionTemplateMock();
+        CleanupJob job = job(CleanupJobType.SESSION_FILES, 3);
+        when(jobRepo.claimDue(any(), any(), eq(20))).thenReturn(List.of(job.getId()));
+        when(jobRepo.findById(job.getId())).thenReturn(Optional.of(job));
+        doThrow(new IllegalStateException("2 object(s) not deleted"))
+                .when(dropFileService).cleanupSessionFiles(job.getSessionId());
+
+        cleanupJobService.drain();
+
+        verify(jobRepo).reschedule(eq(job.getId()), eq(CleanupJobStatus.FAILED), any(), anyString());
+    }
+}
@@ -2,6 +2,9 @@ package com.lazydrop.modules.session.core.controller;
 
 import com.lazydrop.auth.IdentityResolver;
 import com.lazydrop.modules.session.core.model.DropSession;
+import com.lazydrop.modules.session.core.dto.DropSessionStatus;
+import com.lazydrop.modules.session.core.model.DropSessionSnapshot;
+import com.lazydrop.modules.session.core.model.DropSessionSummary;
 import com.lazydrop.modules.session.core.service.DropSessionService;
 import com.lazydrop.modules.session.file.repository.DropFileRepository;
 import com.lazydrop.modules.session.participant.repository.DropSessionParticipantRepository;
@@ -19,6 +22,7 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -97,8 +101,8 @@ class DropSessionControllerTest {
     @DisplayName("GET /sessions/code/{code} - Should retrieve session by code")
     void testGetSessionByCode() throws Exception {
         // Arrange
-        when(identityResolver.resolve(any(), any(), any())).thenReturn(testUser);
-        when(dropSessionService.findByCode("ABC12345")).thenReturn(Optional.of(testSession));
+        when(identityResolver.resolveForRead(any(), any(), any())).thenReturn(testUser);
+        when(dropSessionService.findSnapshotByCode("ABC12345")).thenReturn(Optional.of(DropSessionSnapshot.from(testSession)));
 
         // Act & Assert
         mockMvc.perform(get("/sessions/code/ABC12345")
@@ -106,15 +110,15 @@ class DropSessionControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.code").value("ABC12345"));
 
-        verify(dropSessionService).findByCode("ABC12345");
+        verify(dropSessionService).findSnapshotByCode("ABC12345");
     }
 
     @Test
     @DisplayName("GET /sessions/code/{code} - Should return 404 for non-existent code")
     void testGetSessionByCodeNotFound() throws Exception {
         // Arrange
-        when(identityResolver.resolve(any(), any(), any())).thenReturn(testUser);
-        when(dropSessionService.findByCode("INVALID")).thenReturn(Optional.empty());
+        when(identityResolver.resolveForRead(any(), any(), any())).thenReturn(testUser);
+        when(dropSessionService.findSnapshotByCode("INVALID")).thenReturn(Optional.empty());
 
         // Act & Assert
         mockMvc.perform(get("/sessions/code/INVALID")
@@ -126,8 +130,8 @@ class DropSessionControllerTest {
     @DisplayName("GET /sessions/{sessionId} - Should retrieve session by ID")
     void testGetSessionById() throws Exception {
         // Arrange
-        when(identityResolver.resolve(any(), any(), any())).thenReturn(testUser);
-        when(dropSessionService.findById(testSession.getId())).thenReturn(Optional.of(testSession));
+        when(identityResolver.resolveForRead(any(), any(), any())).thenReturn(testUser);
+        when(dropSessionService.findSnapshotById(testSession.getId())).thenReturn(Optional.of(DropSessionSnapshot.from(testSession)));
 
         // Act & Assert
         mockMvc.perform(get("/sessions/" + testSession.getId())
@@ -135,7 +139,7 @@ class DropSessionControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(testSession.getId().toString()));
 
-        verify(dropSessionService).findById(testSession.getId());
+        verify(dropSessionService).findSnapshotById(testSession.getId());
     }
 
     @Test
@@ -186,4 +190,25 @@ class DropSessionControllerTest {
         mockMvc.perform(delete("/sessions/" + testSession.getId()))
                 .andExpect(status().is5xxServerError());
     }
+
+    @Test
+    @DisplayName("GET /sessions/active - Should use counts from summary query")
+    void testGetActiveSessions() throws Exception {
+        // Arrange
+        DropSessionSummary summary = new DropSessionSummary(
+                testSession.getId(), "ABC12345", testUser.getId(),
+                testSession.getExpiresAt(), DropSessionStatus.OPEN, 3, 7);
+        when(identityResolver.resolveForRead(any(), any(), any())).thenReturn(testUser);
+        when(dropSessionService.getActiveSessionsForUser(testUser)).thenReturn(List.of(summary));
+
+        // Act & Assert
+        mockMvc.perform(get("/sessions/active")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sessions[0].participantCount").value(3))
+                .andExpect(jsonPath("$.sessions[0].fileCount").value(7))
+                .andExpect(jsonPath("$.counts.ownedActive").value(1));
+
+        verifyNoInteractions(participantRepository, dropFileRepository);
+    }
 }
@@ -0,0 +1,218 @@
+package com.lazydrop.modules.session.core.repository;
+
+import com.lazydrop.common.exception.PlanLimitExceededException;
+import com.lazydrop.modules.billing.service.PlanEnforcementService;
+import com.lazydrop.modules.session.core.dto.DropSessionStatus;
+import com.lazydrop.modules.session.core.model.DropSession;
+import com.lazydrop.modules.session.core.model.DropSessionCounters;
+import com.lazydrop.modules.subscription.model.PlanLimits;
+import com.lazydrop.modules.subscription.model.SubscriptionPlan;
+import com.lazydrop.modules.subscription.service.SubscriptionService;
+import com.lazydrop.modules.user.model.User;
+import com.lazydrop.modules.user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+@Testcontainers
+@Transactional
+@DisplayName("DropSession Counters Integration Tests")
+class DropSessionCountersIntegrationTest {
+
+    private static final PlanLimits LIMITS = new PlanLimits(
+            SubscriptionPlan.FREE, 1, 60, 2, 1_000_000L, 2, 2, 500);
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withDatabaseName("lazydrop_test")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+
+        // Stripe configuration for tests
+        registry.add("stripe.secret-key", () -> "sk_test_dummy_secret_key_for_tests");
+        registry.add("stripe.webhook-secret", () -> "whsec_test_dummy_webhook_secret");
+        registry.add("stripe.prices.pro", () -> "price_test_pro");
+        registry.add("stripe.prices.plus", () -> "price_test_plus");
+        registry.add("stripe.success-url", () -> "http://localhost:3000/checkout/success");
+        registry.add("stripe.cancel-url", () -> "http://localhost:3000/checkout/cancel");
+        registry.add("stripe.billing-portal", () -> "http://localhost:3000/account");
+
+        // Other required properties
+        registry.add("supabase.url", () -> "https://test.supabase.co");
+        registry.add("supabase.anon-key", () -> "test_anon_key");
+        registry.add("supabase.jwt-secret", () -> "test_jwt_secret");
+        registry.add("spaces.endpoint", () -> "https://nyc3.digitaloceanspaces.com");
+        registry.add("spaces.region", () -> "nyc3");
+        registry.add("spaces.bucket-name", () -> "test-bucket");
+        registry.add("spaces.access-key", () -> "test_access_key");
+        registry.add("spaces.secret-key", () -> "test_secret_key");
+        registry.add("spaces.cdn-endpoint", () -> "");
+        registry.add("cors.allowed-origins", () -> "http://localhost:3000");
+        registry.add("app.frontend-url", () -> "http://localhost:3000");
+        registry.add("app.join.base.url", () -> "http://localhost:3000/join?code=%s");
+        registry.add("app.guest-token.secret", () -> "test_guest_token_secret");
+        registry.add("app.storage.signing-secret", () -> "test_storage_signing_secret");
+    }
+
+    @Autowired
+    private DropSessionRepository dropSessionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlanEnforcementService planEnforcementService;
+
+    @MockitoBean
+    private SubscriptionService subscriptionService;
+
+    private DropSession session;
+
+    @BeforeEach
+    void setUp() {
+        when(subscriptionService.getLimitsForUser(any())).thenReturn(LIMITS);
+
+        User owner = userRepository.save(User.builder()
+                .email("counters@integration.com")
+                .supabaseUserId(UUID.randomUUID())
+                .guest(false)
+                .createdAt(Instant.now())
+                .build());
+        session = dropSessionRepository.saveAndFlush(DropSession.builder()
+                .owner(owner)
+                .code(UUID.randomUUID().toString().substring(0, 8).toUpperCase())
+                .status(DropSessionStatus.OPEN)
+                .expiresAt(Instant.now().plusSeconds(3600))
+                .build());
+    }
+
+    @Test
+    @DisplayName("Should count participants up to the limit and reject the next one")
+    void testParticipantLimit() {
+        assertThat(dropSessionRepository.tryIncrementParticipantCount(session.getId(), 2)).isEqualTo(1);
+        assertThat(dropSessionRepository.tryIncrementParticipantCount(session.getId(), 2)).isEqualTo(1);
+        assertThat(dropSessionRepository.tryIncrementParticipantCount(session.getId(), 2)).isZero();
+
+        assertThat(counters().participantCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should free a participant slot on leave without going below zero")
+    void testParticipantDecrement() {
+        dropSessionRepository.tryIncrementParticipantCount(session.getId(), 2);
+        dropSessionRepository.tryIncrementParticipantCount(session.getId(), 2);
+
+        dropSessionRepository.adjustParticipantCount(session.getId(), -1);
+        assertThat(dropSessionRepository.tryIncrementParticipantCount(session.getId(), 2)).isEqualTo(1);
+
+        dropSessionRepository.adjustParticipantCount(session.getId(), -5);
+        assertThat(counters().participantCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should add files and bytes only while the whole batch fits the limit")
+    void testFileLimit() {
+        assertThat(dropSessionRepository.tryAddFiles(session.getId(), 1, 100, 2)).isEqualTo(1);
+        assertThat(dropSessionRepository.tryAddFiles(session.getId(), 2, 200, 2)).isZero();
+        assertThat(dropSessionRepository.tryAddFiles(session.getId(), 1, 50, 2)).isEqualTo(1);
+        assertThat(dropSessionRepository.tryAddFiles(session.getId(), 1, 10, 2)).isZero();
+
+        DropSessionCounters counters = counters();
+        assertThat(counters.fileCount()).isEqualTo(2);
+        assertThat(counters.totalBytes()).isEqualTo(150);
+    }
+
+    @Test
+    @DisplayName("Should give file slots and bytes back on delete without going below zero")
+    void testFileDecrement() {
+        dropSessionRepository.tryAddFiles(session.getId(), 2, 300, 2);
+
+        dropSessionRepository.decrementFileCount(session.getId(), 1, 100);
+        DropSessionCounters counters = counters();
+        assertThat(counters.fileCount()).isEqualTo(1);
+        assertThat(counters.totalBytes()).isEqualTo(200);
+        assertThat(dropSessionRepository.tryAddFiles(session.getId(), 1, 10, 2)).isEqualTo(1);
+
+        dropSessionRepository.decrementFileCount(session.getId(), 5, 10_000);
+        counters = counters();
+        assertThat(counters.fileCount()).isZero();
+        assertThat(counters.totalBytes()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should count notes up to the limit and free slots on delete")
+    void testNoteLimit() {
+        assertThat(dropSessionRepository.tryIncrementNoteCount(session.getId(), 2)).isEqualTo(1);
+        assertThat(dropSessionRepository.tryIncrementNoteCount(session.getId(), 2)).isEqualTo(1);
+        assertThat(dropSessionRepository.tryIncrementNoteCount(session.getId(), 2)).isZero();
+
+        dropSessionRepository.decrementNoteCount(session.getId(), 1);
+        assertThat(dropSessionRepository.tryIncrementNoteCount(session.getId(), 2)).isEqualTo(1);
+        assertThat(counters().noteCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should reserve file slots through plan enforcement and reject past the plan limit")
+    void testReserveFileSlots() {
+        planEnforcementService.reserveFileSlot(session, 100L);
+
+        assertThatThrownBy(() -> planEnforcementService.reserveFileSlots(session, List.of(10L, 20L)))
+                .isInstanceOf(PlanLimitExceededException.class);
+        assertThat(counters().fileCount()).isEqualTo(1);
+
+        planEnforcementService.reserveFileSlots(session, List.of(10L));
+        assertThatThrownBy(() -> planEnforcementService.reserveFileSlot(session, 10L))
+                .isInstanceOf(PlanLimitExceededException.class);
+
+        DropSessionCounters counters = counters();
+        assertThat(counters.fileCount()).isEqualTo(2);
+        assertThat(counters.totalBytes()).isEqualTo(110);
+    }
+
+    @Test
+    @DisplayName("Should reserve participant and note slots through plan enforcement up to the plan limit")
+    void testReserveParticipantAndNoteSlots() {
+        planEnforcementService.reserveParticipantSlot(session);
+        planEnforcementService.reserveParticipantSlot(session);
+        assertThatThrownBy(() -> planEnforcementService.reserveParticipantSlot(session))
+                .isInstanceOf(PlanLimitExceededException.class);
+
+        planEnforcementService.reserveNoteSlot(session, LIMITS);
+        planEnforcementService.reserveNoteSlot(session, LIMITS);
+        assertThatThrownBy(() -> planEnforcementService.reserveNoteSlot(session, LIMITS))
+                .isInstanceOf(PlanLimitExceededException.class);
+
+        DropSessionCounters counters = counters();
+        assertThat(counters.participantCount()).isEqualTo(2);
+        assertThat(counters.noteCount()).isEqualTo(2);
+    }
+
+    private DropSessionCounters counters() {
+        return dropSessionRepository.findCountersById(session.getId()).orElseThrow();
+    }
+}
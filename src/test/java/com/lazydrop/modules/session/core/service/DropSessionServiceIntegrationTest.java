@@ -61,6 +61,8 @@ class DropSessionServiceIntegrationTest {
         registry.add("cors.allowed-origins", () -> "http://localhost:3000");
         registry.add("app.frontend-url", () -> "http://localhost:3000");
         registry.add("app.join.base.url", () -> "http://localhost:3000/join?code=%s");
+        registry.add("app.guest-token.secret", () -> "test_guest_token_secret");
+        registry.add("app.storage.signing-secret", () -> "test_storage_signing_secret");
     }
 
     @Autowired
@@ -4,6 +4,7 @@ import com.lazydrop.common.exception.ForbiddenOperationException;
 import com.lazydrop.common.exception.ResourceNotFoundException;
 import com.lazydrop.modules.billing.service.PlanEnforcementService;
 import com.lazydrop.modules.session.core.dto.DropSessionStatus;
+import com.lazydrop.modules.session.core.event.DropSessionEndedEvent;
 import com.lazydrop.modules.session.core.model.DropSession;
 import com.lazydrop.modules.session.core.model.SessionEndReason;
 import com.lazydrop.modules.session.core.repository.DropSessionRepository;
@@ -12,8 +13,8 @@ import com.lazydrop.modules.subscription.model.PlanLimits;
 import com.lazydrop.modules.subscription.model.SubscriptionPlan;
 import com.lazydrop.modules.subscription.service.SubscriptionService;
 import com.lazydrop.modules.user.model.User;
+import com.lazydrop.modules.websocket.MessageType;
 import com.lazydrop.modules.websocket.WebSocketNotifier;
-import com.lazydrop.utility.CodeUtility;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -23,9 +24,12 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -46,11 +50,15 @@ class DropSessionServiceTest {
     @Mock
     private PlanEnforcementService planEnforcementService;
     @Mock
-    private CodeUtility codeUtility;
+    private SessionCodeAllocator codeAllocator;
     @Mock
     private WebSocketNotifier webSocketNotifier;
     @Mock
     private ApplicationEventPublisher applicationEventPublisher;
+    @Mock
+    private DropSessionMetadataCache metadataCache;
+    @Mock
+    private TransactionTemplate txTemplate;
 
     @InjectMocks
     private DropSessionService dropSessionService;
@@ -61,6 +69,7 @@ class DropSessionServiceTest {
     @BeforeEach
     void setUp() {
         ReflectionTestUtils.setField(dropSessionService, "joinBaseUrl", "http://localhost:3000/join?code=%s");
+        ReflectionTestUtils.setField(dropSessionService, "expiryBatchSize", 500);
 
         testUser = User.builder()
                 .id(UUID.randomUUID())
@@ -87,7 +96,7 @@ class DropSessionServiceTest {
     void testCreateDropSession() {
         // Arrange
         when(subscriptionService.getLimitsForUser(testUser)).thenReturn(testLimits);
-        when(codeUtility.newAlphaNumericCode(8)).thenReturn("ABC12345");
+        when(codeAllocator.allocate()).thenReturn("ABC12345");
 
         DropSession expectedSession = DropSession.builder()
                 .id(UUID.randomUUID())
@@ -96,7 +105,7 @@ class DropSessionServiceTest {
                 .status(DropSessionStatus.OPEN)
                 .createdAt(Instant.now())
                 .build();
-        when(dropSessionRepository.saveAndFlush(any(DropSession.class))).thenReturn(expectedSession);
+        when(dropSessionRepository.save(any(DropSession.class))).thenReturn(expectedSession);
 
         // Act
         DropSession result = dropSessionService.createDropSession(testUser);
@@ -113,8 +122,8 @@ class DropSessionServiceTest {
         // Verify interactions
         verify(planEnforcementService).checkSessionCreationLimit(testUser);
         verify(subscriptionService).getLimitsForUser(testUser);
-        verify(codeUtility).newAlphaNumericCode(8);
-        verify(dropSessionRepository).saveAndFlush(any());
+        verify(codeAllocator).allocate();
+        verify(dropSessionRepository).save(argThat(s -> "ABC12345".equals(s.getCode())));
         verify(participantService).ensureOwnerParticipant(any(), eq(testUser));
     }
 
@@ -142,7 +151,7 @@ class DropSessionServiceTest {
                 .code("ABC12345")
                 .owner(testUser)
                 .build();
-        when(dropSessionRepository.findByCode("ABC12345")).thenReturn(Optional.of(session));
+        when(dropSessionRepository.findFirstByCodeOrderByCreatedAtDesc("ABC12345")).thenReturn(Optional.of(session));
 
         // Act
         Optional<DropSession> result = dropSessionService.findByCode("ABC12345");
@@ -157,13 +166,28 @@ class DropSessionServiceTest {
     @DisplayName("Should return empty when code not found")
     void testFindByCodeNotFound() {
         // Arrange
-        when(dropSessionRepository.findByCode("INVALID")).thenReturn(Optional.empty());
+        when(dropSessionRepository.findFirstByCodeOrderByCreatedAtDesc("INVALID")).thenReturn(Optional.empty());
 
         // Act
         Optional<DropSession> result = dropSessionService.findByCode("INVALID");
 
         // Assert
         assertThat(result).isEmpty();
+        verify(metadataCache).rememberMissingCode("INVALID");
+    }
+
+    @Test
+    @DisplayName("Should not query the repository for a negatively cached code")
+    void testFindByCodeKnownMissing() {
+        // Arrange
+        when(metadataCache.isKnownMissingCode("INVALID")).thenReturn(true);
+
+        // Act
+        Optional<DropSession> result = dropSessionService.findByCode("INVALID");
+
+        // Assert
+        assertThat(result).isEmpty();
+        verify(dropSessionRepository, never()).findFirstByCodeOrderByCreatedAtDesc(any());
     }
 
     @Test
@@ -206,11 +230,12 @@ class DropSessionServiceTest {
         UUID sessionId = UUID.randomUUID();
         DropSession session = DropSession.builder()
                 .id(sessionId)
+                .code("ABC12345")
                 .owner(testUser)
                 .status(DropSessionStatus.OPEN)
                 .build();
 
-        when(dropSessionRepository.findById(sessionId)).thenReturn(Optional.of(session));
+        when(dropSessionRepository.findByIdForUpdate(sessionId)).thenReturn(Optional.of(session));
 
         // Act
         dropSessionService.closeSessionById(sessionId, testUser);
@@ -218,6 +243,7 @@ class DropSessionServiceTest {
         // Assert
         verify(dropSessionRepository).save(argThat(s -> 
                 !s.isUsable() && s.getId().equals(sessionId)));
+        verify(codeAllocator).release(List.of("ABC12345"));
     }
 
     @Test
@@ -236,7 +262,7 @@ class DropSessionServiceTest {
                 .status(DropSessionStatus.OPEN)
                 .build();
 
-        when(dropSessionRepository.findById(sessionId)).thenReturn(Optional.of(session));
+        when(dropSessionRepository.findByIdForUpdate(sessionId)).thenReturn(Optional.of(session));
 
         // Act & Assert
         assertThatThrownBy(() -> dropSessionService.closeSessionById(sessionId, otherUser))
@@ -244,4 +270,95 @@ class DropSessionServiceTest {
 
         verify(dropSessionRepository, never()).save(any());
     }
+
+    @Test
+    @DisplayName("Should expire session once its deadline has passed")
+    void testExpireSessionAtDeadline() {
+        // Arrange
+        UUID sessionId = UUID.randomUUID();
+        DropSession session = DropSession.builder()
+                .id(sessionId)
+                .code("ABC12345")
+                .owner(testUser)
+                .status(DropSessionStatus.OPEN)
+                .expiresAt(Instant.now().minusSeconds(1))
+                .build();
+
+        when(dropSessionRepository.findByIdForUpdate(sessionId)).thenReturn(Optional.of(session));
+
+        // Act
+        boolean expired = dropSessionService.expireSession(sessionId);
+
+        // Assert
+        assertThat(expired).isTrue();
+        assertThat(session.getStatus()).isEqualTo(DropSessionStatus.EXPIRED);
+        verify(dropSessionRepository).save(session);
+    }
+
+    @Test
+    @DisplayName("Should not expire session before its deadline")
+    void testExpireSessionBeforeDeadline() {
+        // Arrange
+        UUID sessionId = UUID.randomUUID();
+        DropSession session = DropSession.builder()
+                .id(sessionId)
+                .owner(testUser)
+                .status(DropSessionStatus.OPEN)
+                .expiresAt(Instant.now().plusSeconds(60))
+                .build();
+
+        when(dropSessionRepository.findByIdForUpdate(sessionId)).thenReturn(Optional.of(session));
+
+        // Act & Assert
+        assertThat(dropSessionService.expireSession(sessionId)).isFalse();
+        verify(dropSessionRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should not end a session twice once a concurrent end has committed")
+    void testExpireSessionAlreadyEnded() {
+        // Arrange
+        UUID sessionId = UUID.randomUUID();
+        DropSession session = DropSession.builder()
+                .id(sessionId)
+                .code("ABC12345")
+                .owner(testUser)
+                .status(DropSessionStatus.CLOSED)
+                .expiresAt(Instant.now().minusSeconds(1))
+                .build();
+
+        when(dropSessionRepository.findByIdForUpdate(sessionId)).thenReturn(Optional.of(session));
+
+        // Act & Assert
+        assertThat(dropSessionService.expireSession(sessionId)).isFalse();
+        verify(dropSessionRepository, never()).save(any());
+        verify(codeAllocator, never()).release(any());
+        verify(applicationEventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    @DisplayName("Should expire overdue sessions in bulk and publish one event per returned row")
+    void testCleanUpExpiredSessionsInBulk() {
+        // Arrange
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        Instant expiresAt = Instant.now().minusSeconds(5);
+        when(txTemplate.execute(any())).thenAnswer(inv ->
+                inv.<TransactionCallback<Integer>>getArgument(0).doInTransaction(null));
+        when(dropSessionRepository.expireDue(any(), eq(500))).thenReturn(List.of(
+                new Object[]{first, "AAAA1111", testUser.getId(), expiresAt},
+                new Object[]{second, "BBBB2222", testUser.getId(), expiresAt}
+        ));
+
+        // Act
+        int expired = dropSessionService.cleanUpExpiredSessions();
+
+        // Assert
+        assertThat(expired).isEqualTo(2);
+        verify(dropSessionRepository).expireDue(any(), eq(500));
+        verify(codeAllocator).release(List.of("AAAA1111", "BBBB2222"));
+        verify(webSocketNotifier).sendEventsAfterCommit(eq(MessageType.DROP_SESSION_EXPIRED), argThat(m -> m.size() == 2));
+        verify(applicationEventPublisher, times(2)).publishEvent(any(DropSessionEndedEvent.class));
+        verify(dropSessionRepository, never()).save(any());
+    }
 }
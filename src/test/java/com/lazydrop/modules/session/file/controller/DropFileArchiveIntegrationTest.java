@@ -0,0 +1,148 @@
+package com.lazydrop.modules.session.file.controller;
+
+import com.lazydrop.auth.IdentityResolver;
+import com.lazydrop.modules.session.core.model.DropSession;
+import com.lazydrop.modules.session.core.service.DropSessionService;
+import com.lazydrop.modules.session.file.dto.ArchiveEntry;
+import com.lazydrop.modules.session.file.model.DropFile;
+import com.lazydrop.modules.session.file.repository.DropFileRepository;
+import com.lazydrop.modules.session.file.service.DropFileArchiveService;
+import com.lazydrop.modules.user.model.User;
+import com.lazydrop.modules.user.repository.UserRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Testcontainers
+@DisplayName("DropFile Archive Integration Tests")
+class DropFileArchiveIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withDatabaseName("lazydrop_test")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+
+        // A single connection: the stream below only gets one if the request is not holding it
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> "1");
+        registry.add("spring.datasource.hikari.connection-timeout", () -> "2000");
+
+        // Stripe configuration for tests
+        registry.add("stripe.secret-key", () -> "sk_test_dummy_secret_key_for_tests");
+        registry.add("stripe.webhook-secret", () -> "whsec_test_dummy_webhook_secret");
+        registry.add("stripe.prices.pro", () -> "price_test_pro");
+        registry.add("stripe.prices.plus", () -> "price_test_plus");
+        registry.add("stripe.success-url", () -> "http://localhost:3000/checkout/success");
+        registry.add("stripe.cancel-url", () -> "http://localhost:3000/checkout/cancel");
+        registry.add("stripe.billing-portal", () -> "http://localhost:3000/account");
+
+        // Other required properties
+        registry.add("supabase.url", () -> "https://test.supabase.co");
+        registry.add("supabase.anon-key", () -> "test_anon_key");
+        registry.add("supabase.jwt-secret", () -> "test_jwt_secret");
+        registry.add("spaces.endpoint", () -> "https://nyc3.digitaloceanspaces.com");
+        registry.add("spaces.region", () -> "nyc3");
+        registry.add("spaces.bucket-name", () -> "test-bucket");
+        registry.add("spaces.access-key", () -> "test_access_key");
+        registry.add("spaces.secret-key", () -> "test_secret_key");
+        registry.add("spaces.cdn-endpoint", () -> "");
+        registry.add("cors.allowed-origins", () -> "http://localhost:3000");
+        registry.add("app.frontend-url", () -> "http://localhost:3000");
+        registry.add("app.join.base.url", () -> "http://localhost:3000/join?code=%s");
+        registry.add("app.guest-token.secret", () -> "test_guest_token_secret");
+        registry.add("app.storage.signing-secret", () -> "test_storage_signing_secret");
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DropSessionService dropSessionService;
+
+    @Autowired
+    private DropFileRepository dropFileRepository;
+
+    @MockitoBean
+    private IdentityResolver identityResolver;
+
+    @MockitoBean
+    private DropFileArchiveService dropFileArchiveService;
+
+    @Test
+    @DisplayName("Should release the pooled connection before streaming the archive")
+    void testArchiveStreamsWithoutHoldingConnection() throws Exception {
+        User owner = userRepository.save(User.builder()
+                .email("archive@integration.com")
+                .supabaseUserId(UUID.randomUUID())
+                .guest(false)
+                .createdAt(Instant.now())
+                .build());
+        DropSession session = dropSessionService.createDropSession(owner);
+        dropFileRepository.save(DropFile.builder()
+                .dropSession(session)
+                .uploader(owner)
+                .storagePath(session.getId() + "/a/notes.txt")
+                .originalName("notes.txt")
+                .sizeBytes(5L)
+                .build());
+        when(identityResolver.resolveForRead(any(), any(), any())).thenReturn(owner);
+
+        AtomicReference<List<ArchiveEntry>> streamed = new AtomicReference<>();
+        AtomicReference<SQLException> poolExhausted = new AtomicReference<>();
+        doAnswer(inv -> {
+            streamed.set(inv.getArgument(0));
+            try (Connection ignored = dataSource.getConnection()) {
+                // acquired: nothing upstream of the stream is holding the only connection
+            } catch (SQLException e) {
+                poolExhausted.set(e);
+            }
+            inv.getArgument(1, OutputStream.class).write("zip".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(dropFileArchiveService).writeArchive(anyList(), any(OutputStream.class));
+
+        mockMvc.perform(get("/sessions/{sessionId}/files/archive", session.getId()))
+                .andExpect(status().isOk());
+
+        assertThat(streamed.get()).extracting(ArchiveEntry::fileName).containsExactly("notes.txt");
+        assertThat(poolExhausted.get()).isNull();
+    }
+}
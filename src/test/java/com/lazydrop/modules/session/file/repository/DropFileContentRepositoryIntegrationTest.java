@@ -0,0 +1,161 @@
+package com.lazydrop.modules.session.file.repository;
+
+import com.lazydrop.modules.session.file.model.DropFileContent;
+import com.lazydrop.modules.user.model.User;
+import com.lazydrop.modules.user.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+@Testcontainers
+@Transactional
+@DisplayName("DropFileContentRepository Integration Tests")
+class DropFileContentRepositoryIntegrationTest {
+
+    private static final String HASH = "a".repeat(64);
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withDatabaseName("lazydrop_test")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+
+        registry.add("stripe.secret-key", () -> "sk_test_dummy_secret_key_for_tests");
+        registry.add("stripe.webhook-secret", () -> "whsec_test_dummy_webhook_secret");
+        registry.add("stripe.prices.pro", () -> "price_test_pro");
+        registry.add("stripe.prices.plus", () -> "price_test_plus");
+        registry.add("stripe.success-url", () -> "http://localhost:3000/checkout/success");
+        registry.add("stripe.cancel-url", () -> "http://localhost:3000/checkout/cancel");
+        registry.add("stripe.billing-portal", () -> "http://localhost:3000/account");
+
+        registry.add("supabase.url", () -> "https://test.supabase.co");
+        registry.add("supabase.anon-key", () -> "test_anon_key");
+        registry.add("supabase.jwt-secret", () -> "test_jwt_secret");
+        registry.add("spaces.endpoint", () -> "https://nyc3.digitaloceanspaces.com");
+        registry.add("spaces.region", () -> "nyc3");
+        registry.add("spaces.bucket-name", () -> "test-bucket");
+        registry.add("spaces.access-key", () -> "test_access_key");
+        registry.add("spaces.secret-key", () -> "test_secret_key");
+        registry.add("spaces.cdn-endpoint", () -> "");
+        registry.add("cors.allowed-origins", () -> "http://localhost:3000");
+        registry.add("app.frontend-url", () -> "http://localhost:3000");
+        registry.add("app.join.base.url", () -> "http://localhost:3000/join?code=%s");
+        registry.add("app.guest-token.secret", () -> "test_guest_token_secret");
+        registry.add("app.storage.signing-secret", () -> "test_storage_signing_secret");
+    }
+
+    @Autowired
+    private DropFileContentRepository contentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User uploader;
+    private User otherUploader;
+
+    @BeforeEach
+    void setUp() {
+        uploader = userRepository.save(newUser("uploader@integration.com"));
+        otherUploader = userRepository.save(newUser("other@integration.com"));
+    }
+
+    @Test
+    @DisplayName("Should index content once per uploader and hash")
+    void testRegister() {
+        List<UUID> first = contentRepository.register(uploader.getId(), HASH, 10, "s1/a/file.bin", Instant.now());
+        List<UUID> duplicate = contentRepository.register(uploader.getId(), HASH, 10, "s1/b/file.bin", Instant.now());
+        List<UUID> otherUploaders = contentRepository.register(otherUploader.getId(), HASH, 10, "s2/c/file.bin", Instant.now());
+
+        assertThat(first).hasSize(1);
+        assertThat(duplicate).isEmpty();
+        assertThat(otherUploaders).hasSize(1).doesNotContainAnyElementsOf(first);
+    }
+
+    @Test
+    @DisplayName("Should only share content with the uploader who indexed it, at the indexed size")
+    void testAcquire() {
+        UUID id = contentRepository.register(uploader.getId(), HASH, 10, "s1/a/file.bin", Instant.now()).getFirst();
+
+        List<Object[]> acquired = contentRepository.acquire(uploader.getId(), HASH, 10);
+
+        assertThat(acquired).hasSize(1);
+        assertThat(acquired.getFirst()[0]).isEqualTo(id);
+        assertThat(acquired.getFirst()[1]).isEqualTo("s1/a/file.bin");
+        assertThat(refCount(id)).isEqualTo(2);
+
+        assertThat(contentRepository.acquire(otherUploader.getId(), HASH, 10)).isEmpty();
+        assertThat(contentRepository.acquire(uploader.getId(), HASH, 11)).isEmpty();
+        assertThat(contentRepository.findAvailable(otherUploader.getId(), Set.of(HASH))).isEmpty();
+        assertThat(refCount(id)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should drop one reference per occurrence of an id")
+    void testRelease() {
+        UUID id = contentRepository.register(uploader.getId(), HASH, 10, "s1/a/file.bin", Instant.now()).getFirst();
+        contentRepository.acquire(uploader.getId(), HASH, 10);
+        contentRepository.acquire(uploader.getId(), HASH, 10);
+
+        contentRepository.release(List.of(id, id));
+
+        assertThat(refCount(id)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should delete only unreferenced content, which can then no longer be acquired")
+    void testDeleteUnreferenced() {
+        UUID released = contentRepository.register(uploader.getId(), HASH, 10, "s1/a/file.bin", Instant.now()).getFirst();
+        UUID shared = contentRepository.register(uploader.getId(), "b".repeat(64), 20, "s1/b/file.bin", Instant.now()).getFirst();
+        contentRepository.acquire(uploader.getId(), "b".repeat(64), 20);
+
+        contentRepository.release(List.of(released, shared));
+        assertThat(contentRepository.acquire(uploader.getId(), HASH, 10)).isEmpty();
+
+        List<String> deleted = contentRepository.deleteUnreferenced(List.of(released, shared));
+
+        assertThat(deleted).containsExactly("s1/a/file.bin");
+        assertThat(contentRepository.findById(released)).isEmpty();
+        assertThat(refCount(shared)).isEqualTo(1);
+    }
+
+    private int refCount(UUID id) {
+        // The counters are changed by native statements, so read past the persistence context
+        entityManager.clear();
+        return contentRepository.findById(id).map(DropFileContent::getRefCount).orElseThrow();
+    }
+
+    private static User newUser(String email) {
+        return User.builder()
+                .email(email)
+                .supabaseUserId(UUID.randomUUID())
+                .guest(false)
+                .createdAt(Instant.now())
+                .build();
+    }
+}
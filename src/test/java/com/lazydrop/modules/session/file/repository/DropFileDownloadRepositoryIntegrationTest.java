@@ -0,0 +1,167 @@
+package com.lazydrop.modules.session.file.repository;
+
+import com.lazydrop.modules.session.core.model.DropSession;
+import com.lazydrop.modules.session.core.model.SessionEndReason;
+import com.lazydrop.modules.session.core.repository.DropSessionRepository;
+import com.lazydrop.modules.session.core.service.DropSessionService;
+import com.lazydrop.modules.session.file.model.DropFile;
+import com.lazydrop.modules.session.participant.repository.DropSessionParticipantRepository;
+import com.lazydrop.modules.user.model.User;
+import com.lazydrop.modules.user.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+@Testcontainers
+@Transactional
+@DisplayName("DropFileDownloadRepository Integration Tests")
+class DropFileDownloadRepositoryIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withDatabaseName("lazydrop_test")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+
+        registry.add("stripe.secret-key", () -> "sk_test_dummy_secret_key_for_tests");
+        registry.add("stripe.webhook-secret", () -> "whsec_test_dummy_webhook_secret");
+        registry.add("stripe.prices.pro", () -> "price_test_pro");
+        registry.add("stripe.prices.plus", () -> "price_test_plus");
+        registry.add("stripe.success-url", () -> "http://localhost:3000/checkout/success");
+        registry.add("stripe.cancel-url", () -> "http://localhost:3000/checkout/cancel");
+        registry.add("stripe.billing-portal", () -> "http://localhost:3000/account");
+
+        registry.add("supabase.url", () -> "https://test.supabase.co");
+        registry.add("supabase.anon-key", () -> "test_anon_key");
+        registry.add("supabase.jwt-secret", () -> "test_jwt_secret");
+        registry.add("spaces.endpoint", () -> "https://nyc3.digitaloceanspaces.com");
+        registry.add("spaces.region", () -> "nyc3");
+        registry.add("spaces.bucket-name", () -> "test-bucket");
+        registry.add("spaces.access-key", () -> "test_access_key");
+        registry.add("spaces.secret-key", () -> "test_secret_key");
+        registry.add("spaces.cdn-endpoint", () -> "");
+        registry.add("cors.allowed-origins", () -> "http://localhost:3000");
+        registry.add("app.frontend-url", () -> "http://localhost:3000");
+        registry.add("app.join.base.url", () -> "http://localhost:3000/join?code=%s");
+        registry.add("app.guest-token.secret", () -> "test_guest_token_secret");
+        registry.add("app.storage.signing-secret", () -> "test_storage_signing_secret");
+    }
+
+    @Autowired
+    private DropFileDownloadRepository downloadRepository;
+
+    @Autowired
+    private DropFileRepository dropFileRepository;
+
+    @Autowired
+    private DropSessionRepository dropSessionRepository;
+
+    @Autowired
+    private DropSessionParticipantRepository participantRepository;
+
+    @Autowired
+    private DropSessionService dropSessionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User owner;
+    private DropSession session;
+    private DropFile file;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(newUser("owner@integration.com"));
+        session = dropSessionService.createDropSession(owner);
+        file = saveFile(session, owner, "notes.txt");
+    }
+
+    @Test
+    @DisplayName("Should resolve the participant for files of a live session the user is in")
+    void testParticipantOfLiveSession() {
+        UUID participantId = participantRepository.findByDropSessionAndUser(session, owner).orElseThrow().getId();
+
+        List<Object[]> targets = findReceiptTargets(session, owner, file);
+
+        assertThat(targets).hasSize(1);
+        assertThat(targets.getFirst()[0]).isEqualTo(file.getId());
+        assertThat(targets.getFirst()[1]).isEqualTo(participantId);
+    }
+
+    @Test
+    @DisplayName("Should return no rows for a user who is not a participant of the session")
+    void testNonParticipant() {
+        User outsider = userRepository.save(newUser("outsider@integration.com"));
+
+        assertThat(findReceiptTargets(session, outsider, file)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should return no rows for a file that belongs to another session")
+    void testFileInOtherSession() {
+        User otherOwner = userRepository.save(newUser("other-owner@integration.com"));
+        DropSession otherSession = dropSessionService.createDropSession(otherOwner);
+        DropFile otherFile = saveFile(otherSession, otherOwner, "other.txt");
+
+        assertThat(findReceiptTargets(session, owner, otherFile)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should return no rows once the session has ended")
+    void testEndedSession() {
+        session.end(SessionEndReason.CLOSED);
+        dropSessionRepository.save(session);
+
+        assertThat(findReceiptTargets(session, owner, file)).isEmpty();
+    }
+
+    private List<Object[]> findReceiptTargets(DropSession dropSession, User user, DropFile dropFile) {
+        entityManager.flush();
+        return downloadRepository.findReceiptTargets(dropSession.getId(), user.getId(), List.of(dropFile.getId()),
+                Instant.now());
+    }
+
+    private DropFile saveFile(DropSession dropSession, User uploader, String name) {
+        return dropFileRepository.save(DropFile.builder()
+                .dropSession(dropSession)
+                .uploader(uploader)
+                .storagePath(dropSession.getId() + "/a/" + name)
+                .originalName(name)
+                .sizeBytes(5L)
+                .build());
+    }
+
+    private static User newUser(String email) {
+        return User.builder()
+                .email(email)
+                .supabaseUserId(UUID.randomUUID())
+                .guest(false)
+                .createdAt(Instant.now())
+                .build();
+    }
+}
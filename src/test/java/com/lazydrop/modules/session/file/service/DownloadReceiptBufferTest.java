@@ -0,0 +1,101 @@
+package com.lazydrop.modules.session.file.service;
+
+import com.lazydrop.modules.session.file.model.DownloadReceipt;
+import com.lazydrop.modules.session.file.repository.DropFileDownloadRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DownloadReceiptBuffer Tests")
+class DownloadReceiptBufferTest {
+
+    @Mock
+    private DropFileDownloadRepository downloadRepository;
+    @Mock
+    private TransactionTemplate txTemplate;
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    private DownloadReceiptBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        buffer = new DownloadReceiptBuffer(downloadRepository, txTemplate, taskScheduler, new SimpleMeterRegistry(), 3, 100);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void setupTransactionTemplateMock() {
+        doAnswer(invocation -> {
+            Consumer<Object> callback = invocation.getArgument(0);
+            callback.accept(null);
+            return null;
+        }).when(txTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    @DisplayName("Should write buffered receipts in one multi-row insert, collapsing repeats")
+    void testFlush() {
+        setupTransactionTemplateMock();
+        UUID participant = UUID.randomUUID();
+        UUID fileA = UUID.randomUUID();
+        UUID fileB = UUID.randomUUID();
+        Instant now = Instant.now();
+
+        buffer.add(new DownloadReceipt(fileA, participant, now));
+        buffer.add(new DownloadReceipt(fileA, participant, now));
+        assertThat(buffer.pendingFileIds(participant)).containsExactlyInAnyOrder(fileA);
+
+        int written = buffer.flush();
+
+        assertThat(written).isEqualTo(1);
+        verify(downloadRepository).insertReceipts(List.of(fileA), List.of(participant), List.of(now));
+        assertThat(buffer.pendingFileIds(participant)).isEmpty();
+
+        buffer.add(new DownloadReceipt(fileB, participant, now));
+        assertThat(buffer.pendingFileIds(participant)).containsExactly(fileB);
+    }
+
+    @Test
+    @DisplayName("Should schedule a flush once the batch size is reached")
+    void testFlushOnBatchSize() {
+        UUID participant = UUID.randomUUID();
+
+        buffer.add(new DownloadReceipt(UUID.randomUUID(), participant, Instant.now()));
+        buffer.add(new DownloadReceipt(UUID.randomUUID(), participant, Instant.now()));
+        verifyNoInteractions(taskScheduler);
+
+        buffer.add(new DownloadReceipt(UUID.randomUUID(), participant, Instant.now()));
+        verify(taskScheduler).schedule(any(Runnable.class), any(Instant.class));
+    }
+
+    @Test
+    @DisplayName("Should keep receipts when a write fails")
+    void testFlushFailureRequeues() {
+        UUID participant = UUID.randomUUID();
+        UUID file = UUID.randomUUID();
+        doThrow(new RuntimeException("db down")).when(txTemplate).executeWithoutResult(any());
+
+        buffer.add(new DownloadReceipt(file, participant, Instant.now()));
+
+        assertThat(buffer.flush()).isZero();
+        assertThat(buffer.pendingFileIds(participant)).containsExactly(file);
+        verify(downloadRepository, never()).insertReceipts(anyList(), anyList(), anyList());
+    }
+}
@@ -0,0 +1,56 @@
+package com.lazydrop.modules.session.file.service;
+
+import com.lazydrop.common.exception.ResourceNotFoundException;
+import com.lazydrop.modules.session.file.dto.ArchiveEntry;
+import com.lazydrop.modules.storage.service.StorageService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@DisplayName("DropFileArchiveService Tests")
+class DropFileArchiveServiceTest {
+
+    private final StorageService storageService = mock(StorageService.class);
+    private final DropFileArchiveService archiveService = new DropFileArchiveService(storageService);
+
+    @Test
+    @DisplayName("Should stream every object into the archive with unique names")
+    void testWriteArchive() throws IOException {
+        when(storageService.openObject("s/a/notes.txt"))
+                .thenReturn(new ByteArrayInputStream("first".getBytes(StandardCharsets.UTF_8)));
+        when(storageService.openObject("s/b/notes.txt"))
+                .thenReturn(new ByteArrayInputStream("second".getBytes(StandardCharsets.UTF_8)));
+        when(storageService.openObject("s/c/gone.png"))
+                .thenThrow(new ResourceNotFoundException("gone"));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        archiveService.writeArchive(List.of(
+                new ArchiveEntry("s/a/notes.txt", "notes.txt", 5L),
+                new ArchiveEntry("s/b/notes.txt", "notes.txt", 6L),
+                new ArchiveEntry("s/c/gone.png", "gone.png", 1L)), out);
+
+        List<String> names = new ArrayList<>();
+        List<String> contents = new ArrayList<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                names.add(entry.getName());
+                contents.add(new String(zip.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+
+        assertThat(names).containsExactly("notes.txt", "notes (2).txt");
+        assertThat(contents).containsExactly("first", "second");
+    }
+}
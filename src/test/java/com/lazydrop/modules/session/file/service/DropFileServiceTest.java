@@ -0,0 +1,413 @@
+package com.lazydrop.modules.session.file.service;
+
+import com.lazydrop.common.exception.BadRequestException;
+import com.lazydrop.modules.billing.service.PlanEnforcementService;
+import com.lazydrop.modules.session.core.dto.DropSessionStatus;
+import com.lazydrop.modules.session.core.model.DropSession;
+import com.lazydrop.modules.session.core.repository.DropSessionRepository;
+import com.lazydrop.modules.session.core.service.DropSessionService;
+import com.lazydrop.modules.session.file.dto.CompletedUploadPart;
+import com.lazydrop.modules.session.file.dto.DropFilePage;
+import com.lazydrop.modules.session.file.dto.FileConfirmRequest;
+import com.lazydrop.modules.session.file.dto.FileUploadRequest;
+import com.lazydrop.modules.session.file.dto.MultipartCompleteRequest;
+import com.lazydrop.modules.session.file.dto.MultipartUploadHandle;
+import com.lazydrop.modules.session.file.dto.MultipartUploadResponse;
+import com.lazydrop.modules.session.file.model.DropFile;
+import com.lazydrop.modules.session.file.model.DropFileListItem;
+import com.lazydrop.modules.session.file.model.DropFileUpload;
+import com.lazydrop.modules.session.file.repository.DropFileContentRepository;
+import com.lazydrop.modules.session.file.repository.DropFileDownloadRepository;
+import com.lazydrop.modules.session.file.repository.DropFileRepository;
+import com.lazydrop.modules.session.file.repository.DropFileUploadRepository;
+import com.lazydrop.modules.session.participant.model.DropSessionParticipant;
+import com.lazydrop.modules.session.participant.service.DropSessionParticipantService;
+import com.lazydrop.modules.storage.service.DownloadUrlCache;
+import com.lazydrop.modules.storage.service.ObjectDiskCache;
+import com.lazydrop.modules.storage.service.StorageService;
+import com.lazydrop.modules.subscription.service.SubscriptionService;
+import com.lazydrop.modules.user.model.User;
+import com.lazydrop.modules.websocket.WebSocketNotifier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DropFileService Tests")
+class DropFileServiceTest {
+
+    @Mock
+    private DropSessionService dropSessionService;
+    @Mock
+    private DropFileRepository dropFileRepository;
+    @Mock
+    private DropFileDownloadRepository dropFileDownloadRepository;
+    @Mock
+    private SubscriptionService subscriptionService;
+    @Mock
+    private StorageService storageService;
+    @Mock
+    private DownloadUrlCache downloadUrlCache;
+    @Mock
+    private ObjectDiskCache objectDiskCache;
+    @Mock
+    private DownloadReceiptBuffer downloadReceiptBuffer;
+    @Mock
+    private WebSocketNotifier webSocketNotifier;
+    @Mock
+    private DropSessionParticipantService dropSessionParticipantService;
+    @Mock
+    private PlanEnforcementService planEnforcementService;
+    @Mock
+    private DropSessionRepository dropSessionRepository;
+    @Mock
+    private DropFileUploadRepository dropFileUploadRepository;
+    @Mock
+    private DropFileContentRepository dropFileContentRepository;
+    @Mock
+    private TransactionTemplate txTemplate;
+
+    @InjectMocks
+    private DropFileService dropFileService;
+
+    private User uploader;
+    private DropSession session;
+    private DropSessionParticipant participant;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(dropFileService, "multipartMinPartSize", DataSize.ofMegabytes(8));
+        ReflectionTestUtils.setField(dropFileService, "inlineMaxSize", DataSize.ofKilobytes(256));
+        ReflectionTestUtils.setField(dropFileService, "sinceOverlap", Duration.ofSeconds(10));
+
+        uploader = User.builder()
+                .id(UUID.randomUUID())
+                .email("uploader@example.com")
+                .createdAt(Instant.now())
+                .build();
+        session = DropSession.builder()
+                .id(UUID.randomUUID())
+                .code("ABC12345")
+                .owner(uploader)
+                .status(DropSessionStatus.OPEN)
+                .expiresAt(Instant.now().plusSeconds(600))
+                .build();
+        participant = new DropSessionParticipant();
+        participant.setId(UUID.randomUUID());
+        participant.setDropSession(session);
+        participant.setUser(uploader);
+
+        lenient().when(txTemplate.execute(any())).thenAnswer(inv ->
+                inv.<TransactionCallback<?>>getArgument(0).doInTransaction(mock(TransactionStatus.class)));
+        lenient().doAnswer(inv -> {
+            inv.<Consumer<TransactionStatus>>getArgument(0).accept(mock(TransactionStatus.class));
+            return null;
+        }).when(txTemplate).executeWithoutResult(any());
+        lenient().when(dropSessionService.findById(session.getId())).thenReturn(Optional.of(session));
+        lenient().when(dropSessionParticipantService.findByDropSessionAndUser(session, uploader))
+                .thenReturn(Optional.of(participant));
+    }
+
+    @Test
+    @DisplayName("Should initiate a multipart upload in storage and record it")
+    void testInitiateMultipartUpload() {
+        FileUploadRequest request = new FileUploadRequest("big.bin", "application/octet-stream", 20L * 1024 * 1024, null);
+        when(storageService.initiateMultipartUpload(session.getId().toString(), "big.bin", "application/octet-stream"))
+                .thenReturn(new MultipartUploadHandle(session.getId() + "/x/big.bin", "s3-upload"));
+        when(dropSessionRepository.getReferenceById(session.getId())).thenReturn(session);
+        when(dropFileUploadRepository.save(any(DropFileUpload.class))).thenAnswer(inv -> {
+            DropFileUpload upload = inv.getArgument(0);
+            upload.setId(UUID.randomUUID());
+            return upload;
+        });
+
+        MultipartUploadResponse response = dropFileService.initiateMultipartUpload(session.getId(), uploader, request);
+
+        assertThat(response.partSize()).isEqualTo(DataSize.ofMegabytes(8).toBytes());
+        assertThat(response.partCount()).isEqualTo(3);
+        verify(planEnforcementService).checkFileUploadLimits(session, request.getFileSize());
+        verify(dropFileUploadRepository).save(argThat(u ->
+                "s3-upload".equals(u.getUploadId()) && u.getPartCount() == 3));
+    }
+
+    @Test
+    @DisplayName("Should abort the storage upload when recording it fails")
+    void testInitiateMultipartUploadAbortsOnSaveFailure() {
+        FileUploadRequest request = new FileUploadRequest("big.bin", "application/octet-stream", 20L * 1024 * 1024, null);
+        String objectPath = session.getId() + "/x/big.bin";
+        when(storageService.initiateMultipartUpload(any(), any(), any()))
+                .thenReturn(new MultipartUploadHandle(objectPath, "s3-upload"));
+        when(dropFileUploadRepository.save(any(DropFileUpload.class))).thenThrow(new IllegalStateException("db down"));
+
+        assertThatThrownBy(() -> dropFileService.initiateMultipartUpload(session.getId(), uploader, request))
+                .isInstanceOf(IllegalStateException.class);
+
+        verify(storageService).abortMultipartUpload(objectPath, "s3-upload");
+    }
+
+    @Test
+    @DisplayName("Should reserve the slot, complete in storage, then record the file")
+    void testCompleteMultipartUpload() {
+        DropFileUpload upload = upload(2);
+        MultipartCompleteRequest request = completeRequest(2);
+        when(dropFileUploadRepository.findByIdAndDropSession_Id(upload.getId(), session.getId()))
+                .thenReturn(Optional.of(upload));
+        when(dropFileUploadRepository.deleteUploadById(upload.getId())).thenReturn(1);
+        when(dropFileRepository.save(any(DropFile.class))).thenAnswer(inv -> {
+            DropFile file = inv.getArgument(0);
+            file.setId(UUID.randomUUID());
+            return file;
+        });
+
+        DropFile file = dropFileService.completeMultipartUpload(session.getId(), upload.getId(), uploader, request);
+
+        assertThat(file.getStoragePath()).isEqualTo(upload.getObjectPath());
+        assertThat(file.getSizeBytes()).isEqualTo(upload.getSizeBytes());
+        InOrder order = inOrder(planEnforcementService, storageService, dropFileUploadRepository, dropFileRepository);
+        order.verify(planEnforcementService).reserveFileSlot(session, upload.getSizeBytes());
+        order.verify(storageService).completeMultipartUpload(upload.getObjectPath(), upload.getUploadId(), request.parts());
+        order.verify(dropFileUploadRepository).deleteUploadById(upload.getId());
+        order.verify(dropFileRepository).save(any(DropFile.class));
+        verify(dropSessionRepository, never()).decrementFileCount(any(), anyInt(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Should reject a completion that does not list every part")
+    void testCompleteMultipartUploadMissingParts() {
+        DropFileUpload upload = upload(3);
+        when(dropFileUploadRepository.findByIdAndDropSession_Id(upload.getId(), session.getId()))
+                .thenReturn(Optional.of(upload));
+
+        assertThatThrownBy(() -> dropFileService.completeMultipartUpload(
+                session.getId(), upload.getId(), uploader, completeRequest(2)))
+                .isInstanceOf(BadRequestException.class);
+
+        verifyNoInteractions(storageService);
+        verify(planEnforcementService, never()).reserveFileSlot(any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Should give the slot back when storage fails to complete the upload")
+    void testCompleteMultipartUploadStorageFailure() {
+        DropFileUpload upload = upload(2);
+        when(dropFileUploadRepository.findByIdAndDropSession_Id(upload.getId(), session.getId()))
+                .thenReturn(Optional.of(upload));
+        doThrow(new IllegalStateException("bucket down")).when(storageService)
+                .completeMultipartUpload(any(), any(), any());
+
+        assertThatThrownBy(() -> dropFileService.completeMultipartUpload(
+                session.getId(), upload.getId(), uploader, completeRequest(2)))
+                .hasMessage("bucket down");
+
+        verify(dropSessionRepository).decrementFileCount(session.getId(), 1, upload.getSizeBytes());
+        verify(dropFileUploadRepository, never()).deleteUploadById(any());
+        verify(dropFileRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should give the slot back when a concurrent completion recorded the file first")
+    void testCompleteMultipartUploadAlreadyCompleted() {
+        DropFileUpload upload = upload(2);
+        when(dropFileUploadRepository.findByIdAndDropSession_Id(upload.getId(), session.getId()))
+                .thenReturn(Optional.of(upload));
+        when(dropFileUploadRepository.deleteUploadById(upload.getId())).thenReturn(0);
+
+        assertThatThrownBy(() -> dropFileService.completeMultipartUpload(
+                session.getId(), upload.getId(), uploader, completeRequest(2)))
+                .isInstanceOf(IllegalStateException.class);
+
+        verify(dropSessionRepository).decrementFileCount(session.getId(), 1, upload.getSizeBytes());
+        verify(dropFileRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should abort in storage before forgetting the upload")
+    void testAbortMultipartUpload() {
+        DropFileUpload upload = upload(2);
+        when(dropFileUploadRepository.findByIdAndDropSession_Id(upload.getId(), session.getId()))
+                .thenReturn(Optional.of(upload));
+
+        dropFileService.abortMultipartUpload(session.getId(), upload.getId(), uploader);
+
+        InOrder order = inOrder(storageService, dropFileUploadRepository);
+        order.verify(storageService).abortMultipartUpload(upload.getObjectPath(), upload.getUploadId());
+        order.verify(dropFileUploadRepository).deleteUploadById(upload.getId());
+    }
+
+    @Test
+    @DisplayName("Should reject confirming an object outside this session's prefix even without a hash")
+    void testConfirmUploadRejectsForeignObject() {
+        FileConfirmRequest request = FileConfirmRequest.builder()
+                .objectPath(UUID.randomUUID() + "/x/report.pdf")
+                .originalName("report.pdf")
+                .sizeBytes(5L)
+                .build();
+
+        assertThatThrownBy(() -> dropFileService.confirmUpload(session.getId(), uploader, request))
+                .isInstanceOf(BadRequestException.class);
+        verify(dropFileRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should confirm an inline object uploaded into this session")
+    void testConfirmUploadAcceptsOwnInlineObject() {
+        String objectPath = "inline/" + session.getId() + "/x/notes.txt";
+        when(dropFileRepository.save(any(DropFile.class))).thenAnswer(inv -> {
+            DropFile file = inv.getArgument(0);
+            file.setId(UUID.randomUUID());
+            return file;
+        });
+
+        DropFile file = dropFileService.confirmUpload(session.getId(), uploader, FileConfirmRequest.builder()
+                .objectPath(objectPath)
+                .originalName("notes.txt")
+                .sizeBytes(5L)
+                .build());
+
+        assertThat(file.getStoragePath()).isEqualTo(objectPath);
+        assertThat(file.getContentId()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should forget only the stale uploads storage aborted, outside any transaction")
+    void testAbortStaleUploads() {
+        DropFileUpload aborted = upload(2);
+        DropFileUpload failing = upload(2);
+        failing.setUploadId("s3-failing");
+        when(dropFileUploadRepository.findByCreatedAtBeforeOrderByCreatedAt(any(), any()))
+                .thenReturn(List.of(aborted, failing));
+        doAnswer(inv -> {
+            verify(txTemplate).execute(any());
+            verify(txTemplate, never()).executeWithoutResult(any());
+            return null;
+        }).when(storageService).abortMultipartUpload(aborted.getObjectPath(), aborted.getUploadId());
+        doThrow(new RuntimeException("storage down"))
+                .when(storageService).abortMultipartUpload(failing.getObjectPath(), failing.getUploadId());
+
+        assertThat(dropFileService.abortStaleUploads(Duration.ofHours(24), 100)).isEqualTo(1);
+
+        verify(dropFileUploadRepository).deleteAllByIdInBatch(List.of(aborted.getId()));
+        verify(txTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    @DisplayName("Should page from the creation time of an existing cursor file")
+    void testGetFilesWithIdCursor() {
+        UUID cursor = UUID.randomUUID();
+        Instant createdAt = Instant.parse("2026-01-01T10:00:00Z");
+        when(dropFileRepository.findCreatedAtById(cursor)).thenReturn(Optional.of(createdAt));
+        stubListing(List.of());
+
+        dropFileService.getFiles(session.getId(), uploader, cursor.toString(), null);
+
+        verify(dropFileRepository).findListItemsAfter(eq(session.getId()), eq(participant.getId()),
+                eq(createdAt), eq(cursor), any());
+    }
+
+    @Test
+    @DisplayName("Should fall back to the timestamp embedded in a deleted UUIDv7 cursor")
+    void testGetFilesWithDeletedUuidV7Cursor() {
+        Instant createdAt = Instant.parse("2026-01-01T10:00:00.123Z");
+        UUID cursor = new UUID((createdAt.toEpochMilli() << 16) | 0x7000L | 0x0abcL, 0x8000_0000_0000_0001L);
+        when(dropFileRepository.findCreatedAtById(cursor)).thenReturn(Optional.empty());
+        stubListing(List.of());
+
+        dropFileService.getFiles(session.getId(), uploader, cursor.toString(), null);
+
+        assertThat(cursor.version()).isEqualTo(7);
+        verify(dropFileRepository).findListItemsAfter(eq(session.getId()), eq(participant.getId()),
+                eq(createdAt), eq(cursor), any());
+    }
+
+    @Test
+    @DisplayName("Should reject an unknown cursor that carries no timestamp")
+    void testGetFilesWithUnknownRandomCursor() {
+        UUID cursor = UUID.randomUUID();
+        when(dropFileRepository.findCreatedAtById(cursor)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> dropFileService.getFiles(session.getId(), uploader, cursor.toString(), null))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    @DisplayName("Should rewind a timestamp cursor by the safety overlap")
+    void testGetFilesWithTimestamp() {
+        stubListing(List.of());
+
+        dropFileService.getFiles(session.getId(), uploader, "2026-01-01T10:00:10Z", null);
+
+        verify(dropFileRepository).findListItemsAfter(eq(session.getId()), eq(participant.getId()),
+                eq(Instant.parse("2026-01-01T10:00:00Z")), eq(new UUID(-1L, -1L)), any());
+    }
+
+    @Test
+    @DisplayName("Should reject a cursor that is neither a file id nor a timestamp")
+    void testGetFilesWithMalformedCursor() {
+        assertThatThrownBy(() -> dropFileService.getFiles(session.getId(), uploader, "yesterday", null))
+                .isInstanceOf(BadRequestException.class);
+        verify(dropFileRepository, never()).findListItemsAfter(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should return the last id as the next cursor only when the page is full")
+    void testGetFilesNextCursor() {
+        DropFileListItem first = new DropFileListItem(UUID.randomUUID(), "a.txt", 1L, Instant.now(), false);
+        DropFileListItem second = new DropFileListItem(UUID.randomUUID(), "b.txt", 2L, Instant.now(), true);
+        stubListing(List.of(first, second));
+
+        DropFilePage full = dropFileService.getFiles(session.getId(), uploader, null, 2);
+        DropFilePage partial = dropFileService.getFiles(session.getId(), uploader, null, 3);
+
+        assertThat(full.files()).hasSize(2);
+        assertThat(full.nextCursor()).isEqualTo(second.id().toString());
+        assertThat(partial.nextCursor()).isNull();
+    }
+
+    private void stubListing(List<DropFileListItem> items) {
+        when(dropFileRepository.findListItemsAfter(any(), any(), any(), any(), any())).thenReturn(items);
+        when(downloadReceiptBuffer.pendingFileIds(participant.getId())).thenReturn(Set.of());
+    }
+
+    private DropFileUpload upload(int partCount) {
+        return DropFileUpload.builder()
+                .id(UUID.randomUUID())
+                .dropSession(session)
+                .uploader(uploader)
+                .objectPath(session.getId() + "/x/big.bin")
+                .uploadId("s3-upload")
+                .originalName("big.bin")
+                .sizeBytes(partCount * DataSize.ofMegabytes(8).toBytes())
+                .partSize(DataSize.ofMegabytes(8).toBytes())
+                .partCount(partCount)
+                .build();
+    }
+
+    private static MultipartCompleteRequest completeRequest(int parts) {
+        return new MultipartCompleteRequest(IntStream.rangeClosed(1, parts)
+                .mapToObj(n -> new CompletedUploadPart(n, "etag-" + n))
+                .toList());
+    }
+}
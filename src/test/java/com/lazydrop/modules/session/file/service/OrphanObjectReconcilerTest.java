@@ -0,0 +1,91 @@
+package com.lazydrop.modules.session.file.service;
+
+import com.lazydrop.modules.session.core.repository.DropSessionRepository;
+import com.lazydrop.modules.session.file.dto.OrphanReconcileResult;
+import com.lazydrop.modules.session.file.repository.DropFileRepository;
+import com.lazydrop.modules.session.file.repository.DropFileUploadRepository;
+import com.lazydrop.modules.storage.dto.BulkDeleteResult;
+import com.lazydrop.modules.storage.dto.ObjectListing;
+import com.lazydrop.modules.storage.dto.StoredObject;
+import com.lazydrop.modules.storage.service.StorageService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OrphanObjectReconciler Tests")
+class OrphanObjectReconcilerTest {
+
+    @Mock
+    private StorageService storageService;
+    @Mock
+    private DropSessionRepository dropSessionRepository;
+    @Mock
+    private DropFileRepository dropFileRepository;
+    @Mock
+    private DropFileUploadRepository uploadRepository;
+
+    private OrphanObjectReconciler reconciler;
+
+    private final Instant old = Instant.now().minus(Duration.ofDays(3));
+
+    @BeforeEach
+    void setUp() {
+        reconciler = new OrphanObjectReconciler(storageService, dropSessionRepository, dropFileRepository,
+                uploadRepository, new SimpleMeterRegistry(), Duration.ofHours(24), 100_000, 1000);
+    }
+
+    @Test
+    @DisplayName("Should delete unreferenced objects and report reclaimed bytes")
+    void testReconcile() {
+        UUID liveSession = UUID.randomUUID();
+        UUID goneSession = UUID.randomUUID();
+        String livePrefix = liveSession + "/";
+        String gonePrefix = goneSession + "/";
+
+        String kept = livePrefix + "a/kept.txt";
+        String unconfirmed = livePrefix + "b/unconfirmed.txt";
+        String fresh = livePrefix + "c/fresh.txt";
+        String leftover = gonePrefix + "d/leftover.txt";
+
+        when(storageService.listObjects(eq(""), eq("/"), isNull(), isNull()))
+                .thenReturn(new ObjectListing(List.of(), List.of(livePrefix, gonePrefix, "static/"), null));
+        when(dropSessionRepository.findExistingIds(anyCollection())).thenReturn(List.of(liveSession));
+        when(storageService.listObjects(eq(livePrefix), isNull(), isNull(), isNull()))
+                .thenReturn(new ObjectListing(List.of(
+                        new StoredObject(kept, 10, old),
+                        new StoredObject(unconfirmed, 20, old),
+                        new StoredObject(fresh, 30, Instant.now())), List.of(), null));
+        when(storageService.listObjects(eq(gonePrefix), isNull(), isNull(), isNull()))
+                .thenReturn(new ObjectListing(List.of(new StoredObject(leftover, 40, old)), List.of(), null));
+        when(dropFileRepository.findStoragePathsIn(anyCollection())).thenReturn(List.of(kept));
+        when(uploadRepository.findObjectPathsIn(anyCollection())).thenReturn(List.of());
+        when(storageService.deleteFiles(anyCollection())).thenAnswer(invocation ->
+                new BulkDeleteResult(List.copyOf(invocation.<java.util.Collection<String>>getArgument(0)), Map.of()));
+
+        OrphanReconcileResult result = reconciler.reconcile();
+
+        verify(storageService).deleteFiles(Set.of(unconfirmed));
+        verify(storageService).deleteFiles(Set.of(leftover));
+        verify(storageService, never()).listObjects(eq("static/"), any(), any(), any());
+        assertThat(result.scannedObjects()).isEqualTo(4);
+        assertThat(result.deletedObjects()).isEqualTo(2);
+        assertThat(result.reclaimedBytes()).isEqualTo(60);
+        assertThat(result.complete()).isTrue();
+    }
+}
@@ -0,0 +1,68 @@
+package com.lazydrop.modules.storage.controller;
+
+import com.lazydrop.modules.storage.service.ObjectContent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ObjectResponses Tests")
+class ObjectResponsesTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Should hand file-backed ranges to sendfile when the connector supports it")
+    void testSendfile() throws Exception {
+        Path file = Files.writeString(directory.resolve("object"), "hello world");
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/storage/content/s1/a/file.txt");
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        request.addHeader(HttpHeaders.RANGE, "bytes=6-");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        try (ObjectContent content = ObjectContent.of(FileChannel.open(file, StandardOpenOption.READ), file)) {
+            ObjectResponses.write(request, response, content, "file.txt", "text/plain", null);
+        }
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 6-10/11");
+        assertThat(response.getContentLengthLong()).isEqualTo(5);
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.filename")).isEqualTo(file.toAbsolutePath().toString());
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.start")).isEqualTo(6L);
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.end")).isEqualTo(11L);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should stream the body itself when sendfile is unavailable or the content has no file")
+    void testStreamsWithoutSendfile() throws Exception {
+        Path file = Files.writeString(directory.resolve("object"), "hello world");
+        MockHttpServletRequest plain = new MockHttpServletRequest("GET", "/storage/content/s1/a/file.txt");
+        MockHttpServletResponse fromFile = new MockHttpServletResponse();
+        try (ObjectContent content = ObjectContent.of(FileChannel.open(file, StandardOpenOption.READ), file)) {
+            ObjectResponses.write(plain, fromFile, content, "file.txt", "text/plain", null);
+        }
+
+        MockHttpServletRequest supported = new MockHttpServletRequest("GET", "/storage/content/inline/s1/file.txt");
+        supported.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        MockHttpServletResponse fromBytes = new MockHttpServletResponse();
+        ObjectResponses.write(supported, fromBytes, ObjectContent.of("hello world".getBytes(StandardCharsets.UTF_8)),
+                "file.txt", "text/plain", null);
+
+        assertThat(plain.getAttribute("org.apache.tomcat.sendfile.filename")).isNull();
+        assertThat(supported.getAttribute("org.apache.tomcat.sendfile.filename")).isNull();
+        assertThat(fromFile.getContentAsString()).isEqualTo("hello world");
+        assertThat(fromBytes.getContentAsString()).isEqualTo("hello world");
+    }
+}
@@ -0,0 +1,44 @@
+package com.lazydrop.modules.storage.service;
+
+import com.lazydrop.modules.storage.dto.SignedDownloadUrl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("DownloadUrlCache Tests")
+class DownloadUrlCacheTest {
+
+    private final StorageService storageService = mock(StorageService.class);
+    private final DownloadUrlCache cache =
+            new DownloadUrlCache(storageService, new SimpleMeterRegistry(), Duration.ofHours(1), 100);
+
+    @Test
+    @DisplayName("Should return the same URL for the same object within a window")
+    void testSameWindowSameUrl() {
+        when(storageService.createSignedDownloadUrl(eq("s/a/file.txt"), anyInt())).thenReturn("https://cdn/one");
+
+        SignedDownloadUrl first = cache.get("s/a/file.txt", 3600);
+        SignedDownloadUrl second = cache.get("s/a/file.txt", 3600);
+
+        assertThat(second).isEqualTo(first);
+        verify(storageService, times(1)).createSignedDownloadUrl(eq("s/a/file.txt"), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should keep URLs valid for at least the requested duration")
+    void testMinimumValidity() {
+        when(storageService.createSignedDownloadUrl(anyString(), anyInt())).thenReturn("https://cdn/x");
+
+        SignedDownloadUrl url = cache.get("s/b/file.txt", 600);
+
+        assertThat(url.expiresAt()).isAfterOrEqualTo(Instant.now().plusSeconds(599));
+        verify(storageService).createSignedDownloadUrl(eq("s/b/file.txt"), intThat(sec -> sec >= 600 && sec <= 600 + 3600));
+    }
+}
@@ -0,0 +1,144 @@
+package com.lazydrop.modules.storage.service;
+
+import com.lazydrop.common.exception.BadRequestException;
+import com.lazydrop.common.exception.ForbiddenOperationException;
+import com.lazydrop.common.exception.PayloadTooLargeException;
+import com.lazydrop.modules.session.file.dto.CompletedUploadPart;
+import com.lazydrop.modules.session.file.dto.MultipartUploadHandle;
+import com.lazydrop.modules.storage.dto.ObjectListing;
+import com.lazydrop.modules.storage.dto.StoredObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("FileSystemStorageService Tests")
+class FileSystemStorageServiceTest {
+
+    @TempDir
+    Path root;
+
+    private FileSystemStorageService storageService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        storageService = new FileSystemStorageService(root, new ObjectUrlSigner("test-secret", "http://localhost:8080/"));
+    }
+
+    @Test
+    @DisplayName("Should accept its own signed URLs and reject tampered or expired ones")
+    void testSignedUrls() {
+        String objectPath = storageService.putObject("s1", "a.txt", "text/plain", bytes("hello"));
+        UriComponents url = UriComponentsBuilder.fromUriString(storageService.createSignedDownloadUrl(objectPath, 60)).build();
+
+        assertThat(url.getPath()).isEqualTo("/storage/objects/" + objectPath);
+        long expires = Long.parseLong(url.getQueryParams().getFirst("expires"));
+        String signature = url.getQueryParams().getFirst("signature");
+
+        storageService.verifySignature("GET", objectPath, expires, null, null, null, signature);
+        assertThatThrownBy(() -> storageService.verifySignature("PUT", objectPath, expires, null, null, null, signature))
+                .isInstanceOf(ForbiddenOperationException.class);
+        assertThatThrownBy(() -> storageService.verifySignature("GET", objectPath, expires + 60, null, null, null, signature))
+                .isInstanceOf(ForbiddenOperationException.class);
+
+        UriComponents expired = UriComponentsBuilder.fromUriString(storageService.createSignedDownloadUrl(objectPath, -1)).build();
+        assertThatThrownBy(() -> storageService.verifySignature("GET", objectPath,
+                Long.parseLong(expired.getQueryParams().getFirst("expires")), null, null, null,
+                expired.getQueryParams().getFirst("signature")))
+                .isInstanceOf(ForbiddenOperationException.class);
+    }
+
+    @Test
+    @DisplayName("Should stream uploads into place and read them back")
+    void testWriteAndOpen() throws Exception {
+        String objectPath = "s1/abcd1234/b.bin";
+
+        String etag = storageService.writeObject(objectPath, new ByteArrayInputStream(bytes("payload")), 7);
+
+        assertThat(etag).startsWith("\"");
+        try (InputStream in = storageService.openObject(objectPath)) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("payload");
+        }
+        assertThatThrownBy(() -> storageService.writeObject("../escape.txt", new ByteArrayInputStream(bytes("x")), 1))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    @DisplayName("Should bind the size limit into upload URLs")
+    void testSignedUploadUrlBindsSize() {
+        String signedUrl = storageService.createSignedUploadUrl("s1", "a.txt", "text/plain", 5, 60).getSignedUrl();
+        UriComponents url = UriComponentsBuilder.fromUriString(signedUrl).build();
+        String objectPath = url.getPath().substring("/storage/objects/".length());
+        long expires = Long.parseLong(url.getQueryParams().getFirst("expires"));
+        String signature = url.getQueryParams().getFirst("signature");
+
+        assertThat(url.getQueryParams().getFirst("maxBytes")).isEqualTo("5");
+        storageService.verifySignature("PUT", objectPath, expires, null, null, 5L, signature);
+        assertThatThrownBy(() -> storageService.verifySignature("PUT", objectPath, expires, null, null, 6L, signature))
+                .isInstanceOf(ForbiddenOperationException.class);
+    }
+
+    @Test
+    @DisplayName("Should reject bodies over the limit without leaving temporary files")
+    void testRejectsOversizedBody() throws Exception {
+        String objectPath = "s1/abcd1234/c.bin";
+
+        assertThatThrownBy(() -> storageService.writeObject(objectPath, new ByteArrayInputStream(bytes("payload")), 6))
+                .isInstanceOf(PayloadTooLargeException.class);
+
+        try (var entries = Files.list(root.resolve("objects/s1/abcd1234"))) {
+            assertThat(entries).isEmpty();
+        }
+    }
+
+    @Test
+    @DisplayName("Should concatenate multipart parts in part-number order")
+    void testMultipartUpload() throws Exception {
+        MultipartUploadHandle handle = storageService.initiateMultipartUpload("s1", "big.bin", "application/octet-stream");
+
+        String second = storageService.writePart(handle.uploadId(), 2, new ByteArrayInputStream(bytes("world")), 6);
+        String first = storageService.writePart(handle.uploadId(), 1, new ByteArrayInputStream(bytes("hello ")), 6);
+        storageService.completeMultipartUpload(handle.objectPath(), handle.uploadId(), List.of(
+                new CompletedUploadPart(2, second),
+                new CompletedUploadPart(1, first)));
+
+        try (InputStream in = storageService.openObject(handle.objectPath())) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("hello world");
+        }
+        assertThat(Files.list(root.resolve("staging"))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should roll keys up by delimiter and drop emptied directories on delete")
+    void testListAndDelete() {
+        String a = storageService.putObject("s1", "a.txt", "text/plain", bytes("a"));
+        String b = storageService.putObject("s2", "b.txt", "text/plain", bytes("bb"));
+
+        ObjectListing top = storageService.listObjects("", "/", null, null);
+        assertThat(top.commonPrefixes()).containsExactly("s1/", "s2/");
+        assertThat(top.nextContinuationToken()).isNull();
+
+        ObjectListing s2 = storageService.listObjects("s2/", null, null, null);
+        assertThat(s2.objects()).extracting(StoredObject::key).containsExactly(b);
+        assertThat(s2.objects().getFirst().sizeBytes()).isEqualTo(2L);
+
+        storageService.deleteFiles(List.of(a));
+        assertThat(storageService.listObjects("", "/", null, null).commonPrefixes()).containsExactly("s2/");
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,291 @@
+package com.lazydrop.modules.storage.service;
+
+import com.lazydrop.common.exception.ForbiddenOperationException;
+import com.lazydrop.modules.storage.dto.StoredObject;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ObjectDiskCache Tests")
+class ObjectDiskCacheTest {
+
+    @Mock
+    private StorageService storageService;
+
+    @TempDir
+    Path directory;
+
+    private final ObjectUrlSigner signer = new ObjectUrlSigner("test-secret", "http://localhost:8080");
+
+    @Test
+    @DisplayName("Should fetch an object once and serve later reads from disk")
+    void testHit() throws Exception {
+        stubObject("s1/a/file.bin", "hello");
+        ObjectDiskCache cache = newCache(DataSize.ofKilobytes(1));
+
+        assertThat(read(cache.open("s1/a/file.bin").orElseThrow())).isEqualTo("hello");
+        assertThat(read(cache.open("s1/a/file.bin").orElseThrow())).isEqualTo("hello");
+
+        verify(storageService, times(1)).openObject("s1/a/file.bin");
+    }
+
+    @Test
+    @DisplayName("Should evict the least recently used entry once the size bound is exceeded")
+    void testEviction() throws Exception {
+        when(storageService.headObject(anyString()))
+                .thenAnswer(inv -> Optional.of(new StoredObject(inv.getArgument(0), 5, Instant.now())));
+        when(storageService.openObject(anyString())).thenAnswer(inv -> stream("12345"));
+        ObjectDiskCache cache = newCache(DataSize.ofBytes(10));
+
+        read(cache.open("a").orElseThrow());
+        read(cache.open("b").orElseThrow());
+        read(cache.open("a").orElseThrow());
+        read(cache.open("c").orElseThrow());
+
+        assertThat(cache.cachedBytes()).isEqualTo(10);
+        try (var files = Files.list(directory)) {
+            assertThat(files.count()).isEqualTo(2);
+        }
+
+        read(cache.open("a").orElseThrow());
+        read(cache.open("b").orElseThrow());
+        verify(storageService, times(1)).openObject("a");
+        verify(storageService, times(2)).openObject("b");
+    }
+
+    @Test
+    @DisplayName("Should drop evicted objects and fetch them again on the next read")
+    void testEvict() throws Exception {
+        stubObject("s1/a/file.bin", "hello");
+        ObjectDiskCache cache = newCache(DataSize.ofKilobytes(1));
+
+        read(cache.open("s1/a/file.bin").orElseThrow());
+        cache.evict(List.of("s1/a/file.bin", "s1/b/never-cached.bin"));
+
+        assertThat(cache.cachedBytes()).isZero();
+        try (var files = Files.list(directory)) {
+            assertThat(files.count()).isZero();
+        }
+
+        read(cache.open("s1/a/file.bin").orElseThrow());
+        verify(storageService, times(2)).openObject("s1/a/file.bin");
+    }
+
+    @Test
+    @DisplayName("Should not admit a fill whose object was evicted while it ran")
+    void testEvictDuringFill() throws Exception {
+        PipedOutputStream origin = new PipedOutputStream();
+        PipedInputStream body = new PipedInputStream(origin);
+        when(storageService.headObject("gone")).thenReturn(Optional.of(new StoredObject("gone", 5, Instant.now())));
+        when(storageService.openObject("gone")).thenReturn(body);
+        ObjectDiskCache cache = newCache(DataSize.ofKilobytes(1));
+
+        try (ObjectContent content = cache.open("gone").orElseThrow()) {
+            cache.evict(List.of("gone"));
+            origin.write(bytes("hello"));
+            origin.close();
+
+            assertThat(read(content, 0, 5)).isEqualTo("hello");
+        }
+        assertThat(cache.cachedBytes()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should refetch entries older than the maximum age")
+    void testMaxAge() throws Exception {
+        stubObject("s1/a/file.bin", "hello");
+        ObjectDiskCache cache = newCache(DataSize.ofKilobytes(1), Duration.ofMillis(1));
+
+        read(cache.open("s1/a/file.bin").orElseThrow());
+        Thread.sleep(10);
+        assertThat(read(cache.open("s1/a/file.bin").orElseThrow())).isEqualTo("hello");
+
+        verify(storageService, times(2)).openObject("s1/a/file.bin");
+        assertThat(cache.cachedBytes()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Should coalesce concurrent misses onto a single fetch")
+    void testCoalescing() throws Exception {
+        CountDownLatch fetchStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(storageService.headObject("hot")).thenReturn(Optional.of(new StoredObject("hot", 7, Instant.now())));
+        when(storageService.openObject("hot")).thenAnswer(inv -> {
+            fetchStarted.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return stream("payload");
+        });
+        ObjectDiskCache cache = newCache(DataSize.ofKilobytes(1));
+
+        ExecutorService readers = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            results.add(readers.submit(() -> read(cache.open("hot").orElseThrow())));
+            assertThat(fetchStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            for (int i = 0; i < 7; i++) {
+                results.add(readers.submit(() -> read(cache.open("hot").orElseThrow())));
+            }
+            Thread.sleep(50);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("payload");
+            }
+        } finally {
+            readers.shutdownNow();
+        }
+
+        verify(storageService, times(1)).openObject("hot");
+    }
+
+    @Test
+    @DisplayName("Should stream bytes to readers, from any offset, while the fill is still running")
+    void testStreamsDuringFill() throws Exception {
+        PipedOutputStream origin = new PipedOutputStream();
+        PipedInputStream body = new PipedInputStream(origin);
+        when(storageService.headObject("big")).thenReturn(Optional.of(new StoredObject("big", 11, Instant.now())));
+        when(storageService.openObject("big")).thenReturn(body);
+        ObjectDiskCache cache = newCache(DataSize.ofKilobytes(1));
+
+        try (ObjectContent content = cache.open("big").orElseThrow()) {
+            assertThat(content.size()).isEqualTo(11);
+            origin.write(bytes("hello"));
+            origin.flush();
+
+            assertThat(read(content, 0, 5)).isEqualTo("hello");
+            assertThat(read(content, 1, 3)).isEqualTo("ell");
+
+            origin.write(bytes(" world"));
+            origin.close();
+            assertThat(read(content, 6, 5)).isEqualTo("world");
+        }
+    }
+
+    @Test
+    @DisplayName("Should refuse objects whose stored size exceeds the entry limit, whatever was declared")
+    void testRejectsOversizedObject() throws Exception {
+        when(storageService.headObject("large")).thenReturn(Optional.of(new StoredObject("large", 11, Instant.now())));
+        ObjectDiskCache cache = newCache(DataSize.ofBytes(10));
+
+        assertThat(cache.open("large")).isEmpty();
+        verify(storageService, never()).openObject(anyString());
+    }
+
+    @Test
+    @DisplayName("Should fail readers when the origin sends more bytes than the object was sized at")
+    void testRejectsGrowingObject() throws Exception {
+        when(storageService.headObject("grown")).thenReturn(Optional.of(new StoredObject("grown", 3, Instant.now())));
+        when(storageService.openObject("grown")).thenAnswer(inv -> stream("12345"));
+        ObjectDiskCache cache = newCache(DataSize.ofKilobytes(1));
+
+        try (ObjectContent content = cache.open("grown").orElseThrow()) {
+            assertThatThrownBy(() -> read(content, 0, 3)).isInstanceOf(IOException.class);
+        }
+        assertThat(cache.cachedBytes()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should only proxy objects once they are hot, and only within the entry size limit when enabled")
+    void testShouldProxy() throws Exception {
+        ObjectDiskCache cache = newCache(DataSize.ofBytes(10));
+        ObjectDiskCache disabled = new ObjectDiskCache(storageService, signer, new SimpleMeterRegistry(), false,
+                directory, DataSize.ofBytes(10), DataSize.ofBytes(10), 1, Duration.ofMinutes(10), Duration.ofHours(1));
+
+        assertThat(cache.shouldProxy("a", 10L)).isFalse();
+        assertThat(cache.shouldProxy("a", 10L)).isTrue();
+        assertThat(cache.shouldProxy("b", 11L)).isFalse();
+        assertThat(cache.shouldProxy("b", 11L)).isFalse();
+        assertThat(cache.shouldProxy("c", null)).isFalse();
+        assertThat(disabled.shouldProxy("a", 1L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should issue absolute signed URLs and reject tampered ones")
+    void testSignedUrls() throws Exception {
+        stubObject("s1/a/file.bin", "hello");
+        ObjectDiskCache cache = newCache(DataSize.ofKilobytes(1));
+
+        UriComponents url = UriComponentsBuilder.fromUriString(cache.createSignedUrl("s1/a/file.bin", 60)).build();
+        long expires = Long.parseLong(url.getQueryParams().getFirst("expires"));
+        String signature = url.getQueryParams().getFirst("signature");
+
+        assertThat(url.getHost()).isEqualTo("localhost");
+        assertThat(url.getPath()).isEqualTo("/storage/content/s1/a/file.bin");
+        assertThat(read(cache.openSigned("s1/a/file.bin", expires, signature).orElseThrow())).isEqualTo("hello");
+        assertThatThrownBy(() -> cache.openSigned("s1/a/other.bin", expires, signature))
+                .isInstanceOf(ForbiddenOperationException.class);
+    }
+
+    private ObjectDiskCache newCache(DataSize maxSize) throws Exception {
+        return newCache(maxSize, Duration.ofHours(1));
+    }
+
+    private ObjectDiskCache newCache(DataSize maxSize, Duration maxAge) throws Exception {
+        return new ObjectDiskCache(storageService, signer, new SimpleMeterRegistry(), true, directory, maxSize, maxSize,
+                2, Duration.ofMinutes(10), maxAge);
+    }
+
+    private void stubObject(String objectPath, String value) {
+        when(storageService.headObject(objectPath))
+                .thenReturn(Optional.of(new StoredObject(objectPath, value.length(), Instant.now())));
+        when(storageService.openObject(objectPath)).thenAnswer(inv -> stream(value));
+    }
+
+    private static ByteArrayInputStream stream(String value) {
+        return new ByteArrayInputStream(bytes(value));
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String read(ObjectContent content) throws Exception {
+        try (content) {
+            return read(content, 0, content.size());
+        }
+    }
+
+    private static String read(ObjectContent content, long position, long count) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        WritableByteChannel target = Channels.newChannel(out);
+        for (long end = position + count; position < end; ) {
+            long transferred = content.transferTo(position, end - position, target);
+            if (transferred <= 0) break;
+            position += transferred;
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,110 @@
+package com.lazydrop.modules.storage.service;
+
+import com.lazydrop.config.SpacesProperties;
+import com.lazydrop.modules.storage.dto.BulkDeleteResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.S3Error;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("S3StorageService Tests")
+class S3StorageServiceTest {
+
+    @Mock
+    private S3Client s3Client;
+    @Mock
+    private S3AsyncClient s3AsyncClient;
+    @Mock
+    private S3Presigner originPresigner;
+    @Mock
+    private S3Presigner cdnPresigner;
+
+    private S3StorageService storageService;
+
+    @BeforeEach
+    void setUp() {
+        SpacesProperties spaces = new SpacesProperties();
+        spaces.setBucketName("test-bucket");
+        storageService = new S3StorageService(s3Client, s3AsyncClient, originPresigner, cdnPresigner, spaces,
+                new SimpleMeterRegistry(), 4, 100);
+    }
+
+    @Test
+    @DisplayName("Should split bulk deletes into batches of at most 1000 distinct keys")
+    void testDeleteFilesBatches() {
+        List<String> keys = new ArrayList<>(IntStream.range(0, 2500).mapToObj(i -> "s1/" + i).toList());
+        keys.add("s1/0");
+        when(s3AsyncClient.deleteObjects(any(DeleteObjectsRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(DeleteObjectsResponse.builder().build()));
+
+        BulkDeleteResult result = storageService.deleteFilesAsync(keys).join();
+
+        ArgumentCaptor<DeleteObjectsRequest> requests = ArgumentCaptor.forClass(DeleteObjectsRequest.class);
+        verify(s3AsyncClient, times(3)).deleteObjects(requests.capture());
+        assertThat(requests.getAllValues())
+                .extracting(request -> request.delete().objects().size())
+                .containsExactlyInAnyOrder(1000, 1000, 500);
+        assertThat(requests.getAllValues())
+                .flatExtracting(request -> request.delete().objects())
+                .extracting(ObjectIdentifier::key)
+                .doesNotHaveDuplicates()
+                .hasSize(2500);
+        assertThat(result.isComplete()).isTrue();
+        assertThat(result.deleted()).hasSize(2500);
+    }
+
+    @Test
+    @DisplayName("Should report keys the bucket refused, and every key of a batch that failed outright")
+    void testDeleteFilesReportsFailures() {
+        List<String> keys = IntStream.range(0, 1001).mapToObj(i -> "s1/" + i).toList();
+        when(s3AsyncClient.deleteObjects(any(DeleteObjectsRequest.class))).thenAnswer(inv -> {
+            DeleteObjectsRequest request = inv.getArgument(0);
+            if (request.delete().objects().size() == 1) {
+                return CompletableFuture.failedFuture(new IllegalStateException("connection reset"));
+            }
+            return CompletableFuture.completedFuture(DeleteObjectsResponse.builder()
+                    .errors(S3Error.builder().key("s1/7").code("AccessDenied").message("Access Denied").build())
+                    .build());
+        });
+
+        BulkDeleteResult result = storageService.deleteFilesAsync(keys).join();
+
+        assertThat(result.isComplete()).isFalse();
+        assertThat(result.failed()).containsOnly(
+                entry("s1/7", "AccessDenied: Access Denied"),
+                entry("s1/1000", "connection reset"));
+        assertThat(result.deleted()).hasSize(999).doesNotContain("s1/7", "s1/1000");
+    }
+
+    @Test
+    @DisplayName("Should not call the bucket for an empty delete")
+    void testDeleteFilesEmpty() {
+        BulkDeleteResult result = storageService.deleteFiles(List.of());
+
+        assertThat(result.isComplete()).isTrue();
+        assertThat(result.deleted()).isEmpty();
+        verifyNoInteractions(s3AsyncClient);
+    }
+}
@@ -0,0 +1,92 @@
+package com.lazydrop.modules.storage.service;
+
+import com.lazydrop.common.exception.ForbiddenOperationException;
+import com.lazydrop.modules.storage.dto.BulkDeleteResult;
+import com.lazydrop.modules.storage.model.InlineObject;
+import com.lazydrop.modules.storage.repository.InlineObjectRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TieredStorageService Tests")
+class TieredStorageServiceTest {
+
+    @Mock
+    private StorageService bucket;
+    @Mock
+    private InlineObjectRepository inlineObjectRepository;
+
+    private TieredStorageService storageService;
+
+    @BeforeEach
+    void setUp() {
+        storageService = new TieredStorageService(bucket, inlineObjectRepository,
+                new ObjectUrlSigner("test-secret", "http://localhost:8080"), DataSize.ofBytes(4));
+    }
+
+    @Test
+    @DisplayName("Should keep small payloads inline and send larger ones to the bucket")
+    void testPutObject() {
+        when(bucket.putObject("s", "big.txt", "text/plain", new byte[5])).thenReturn("s/abc/big.txt");
+
+        String small = storageService.putObject("s", "small.txt", "text/plain", new byte[4]);
+        String big = storageService.putObject("s", "big.txt", "text/plain", new byte[5]);
+
+        ArgumentCaptor<InlineObject> saved = ArgumentCaptor.forClass(InlineObject.class);
+        verify(inlineObjectRepository).save(saved.capture());
+        assertThat(small).startsWith("inline/s/").endsWith("/small.txt");
+        assertThat(saved.getValue().getObjectPath()).isEqualTo(small);
+        assertThat(big).isEqualTo("s/abc/big.txt");
+    }
+
+    @Test
+    @DisplayName("Should sign absolute download URLs for inline objects and verify them on the way back")
+    void testSignedInlineDownloadUrl() {
+        String objectPath = "inline/s/abc/tiny.txt";
+        InlineObject object = InlineObject.builder().objectPath(objectPath).data(new byte[3]).build();
+        when(inlineObjectRepository.findById(objectPath)).thenReturn(Optional.of(object));
+
+        UriComponents url = UriComponentsBuilder.fromUriString(storageService.createSignedDownloadUrl(objectPath, 60)).build();
+        long expires = Long.parseLong(url.getQueryParams().getFirst("expires"));
+        String signature = url.getQueryParams().getFirst("signature");
+
+        assertThat(url.getScheme()).isEqualTo("http");
+        assertThat(url.getPath()).isEqualTo("/storage/content/" + objectPath);
+        assertThat(storageService.getSignedInlineObject(objectPath, expires, signature)).isSameAs(object);
+        assertThatThrownBy(() -> storageService.getSignedInlineObject("inline/s/abc/other.txt", expires, signature))
+                .isInstanceOf(ForbiddenOperationException.class);
+        verify(bucket, never()).createSignedDownloadUrl(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should route deletes to the tier each path belongs to")
+    void testDeleteFiles() {
+        when(bucket.deleteFilesAsync(List.of("s/a/remote.bin")))
+                .thenReturn(CompletableFuture.completedFuture(new BulkDeleteResult(List.of("s/a/remote.bin"), Map.of())));
+
+        BulkDeleteResult result = storageService.deleteFiles(List.of("inline/s/b/tiny.txt", "s/a/remote.bin"));
+
+        verify(inlineObjectRepository).deleteAllByObjectPathIn(List.of("inline/s/b/tiny.txt"));
+        assertThat(result.deleted()).containsExactlyInAnyOrder("inline/s/b/tiny.txt", "s/a/remote.bin");
+        assertThat(result.isComplete()).isTrue();
+        verify(bucket, never()).deleteFile(any());
+    }
+}
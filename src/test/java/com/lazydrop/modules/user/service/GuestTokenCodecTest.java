@@ -0,0 +1,55 @@
+package com.lazydrop.modules.user.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("GuestTokenCodec Tests")
+class GuestTokenCodecTest {
+
+    private final GuestTokenCodec codec = new GuestTokenCodec("test-guest-secret", Duration.ofDays(30));
+
+    @Test
+    @DisplayName("Should round-trip the guest user id")
+    void testIssueAndVerify() {
+        UUID userId = UUID.randomUUID();
+
+        String token = codec.issue(userId);
+
+        assertThat(GuestTokenCodec.looksLikeToken(token)).isTrue();
+        assertThat(codec.verify(token))
+                .hasValueSatisfying(t -> assertThat(t.userId()).isEqualTo(userId));
+    }
+
+    @Test
+    @DisplayName("Should reject tampered tokens")
+    void testRejectsTamperedToken() {
+        String token = codec.issue(UUID.randomUUID());
+        String otherPayload = codec.issue(UUID.randomUUID()).split("\\.")[1];
+        String[] parts = token.split("\\.");
+
+        assertThat(codec.verify(parts[0] + "." + otherPayload + "." + parts[2])).isEmpty();
+        assertThat(codec.verify(token + "x")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should reject tokens signed with another secret")
+    void testRejectsForeignSecret() {
+        GuestTokenCodec other = new GuestTokenCodec("another-secret", Duration.ofDays(30));
+
+        assertThat(codec.verify(other.issue(UUID.randomUUID()))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should not treat legacy guest ids as tokens")
+    void testLegacyCookie() {
+        String legacy = UUID.randomUUID().toString();
+
+        assertThat(GuestTokenCodec.looksLikeToken(legacy)).isFalse();
+        assertThat(codec.verify(legacy)).isEmpty();
+    }
+}
@@ -25,6 +25,9 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserIdentityCache identityCache;
+
     @InjectMocks
     private UserService userService;
 
@@ -111,6 +114,37 @@ class UserServiceTest {
         assertThat(result).isNotNull();
         verify(userRepository).findBySupabaseUserId(supabaseId);
         verify(userRepository).save(any(User.class));
+        verify(identityCache).evictAfterCommit(testUser);
+    }
+
+    @Test
+    @DisplayName("Should serve cached identity without querying the repository")
+    void testFindCachedBySupabaseUserIdHit() {
+        // Arrange
+        when(identityCache.findBySupabaseUserId(testUser.getSupabaseUserId()))
+                .thenReturn(Optional.of(testUser));
+
+        // Act
+        Optional<User> result = userService.findCachedBySupabaseUserId(testUser.getSupabaseUserId());
+
+        // Assert
+        assertThat(result).contains(testUser);
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    @DisplayName("Should populate identity cache on miss")
+    void testFindCachedBySupabaseUserIdMiss() {
+        // Arrange
+        when(identityCache.findBySupabaseUserId(testUser.getSupabaseUserId())).thenReturn(Optional.empty());
+        when(userRepository.findBySupabaseUserId(testUser.getSupabaseUserId())).thenReturn(Optional.of(testUser));
+
+        // Act
+        Optional<User> result = userService.findCachedBySupabaseUserId(testUser.getSupabaseUserId());
+
+        // Assert
+        assertThat(result).contains(testUser);
+        verify(identityCache).put(testUser);
     }
 
     @Test
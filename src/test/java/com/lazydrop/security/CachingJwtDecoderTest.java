@@ -0,0 +1,108 @@
+package com.lazydrop.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CachingJwtDecoder Tests")
+class CachingJwtDecoderTest {
+
+    private static final String TOKEN = "header.payload.signature";
+
+    @Mock
+    private JwtDecoder delegate;
+
+    @Test
+    @DisplayName("Should serve a validated token from cache without calling the delegate")
+    void testCacheHit() {
+        Jwt jwt = jwt(Instant.now().plusSeconds(300));
+        when(delegate.decode(TOKEN)).thenReturn(jwt);
+        CachingJwtDecoder decoder = decoder(Duration.ofMinutes(5));
+
+        assertThat(decoder.decode(TOKEN)).isSameAs(jwt);
+        assertThat(decoder.decode(TOKEN)).isSameAs(jwt);
+
+        verify(delegate, times(1)).decode(TOKEN);
+    }
+
+    @Test
+    @DisplayName("Should never cache a token the delegate rejected")
+    void testFailureNotCached() {
+        Jwt jwt = jwt(Instant.now().plusSeconds(300));
+        when(delegate.decode(TOKEN))
+                .thenThrow(new BadJwtException("Invalid signature"))
+                .thenThrow(new BadJwtException("Invalid signature"))
+                .thenReturn(jwt);
+        CachingJwtDecoder decoder = decoder(Duration.ofMinutes(5));
+
+        assertThatThrownBy(() -> decoder.decode(TOKEN)).isInstanceOf(BadJwtException.class);
+        assertThatThrownBy(() -> decoder.decode(TOKEN)).isInstanceOf(BadJwtException.class);
+        assertThat(decoder.decode(TOKEN)).isSameAs(jwt);
+
+        verify(delegate, times(3)).decode(TOKEN);
+    }
+
+    @Test
+    @DisplayName("Should go back to the delegate once the token's exp has passed")
+    void testNotServedPastExpiry() throws Exception {
+        when(delegate.decode(TOKEN)).thenReturn(jwt(Instant.now().plusMillis(100)));
+        CachingJwtDecoder decoder = decoder(Duration.ofMinutes(5));
+
+        decoder.decode(TOKEN);
+        Thread.sleep(200);
+        decoder.decode(TOKEN);
+
+        verify(delegate, times(2)).decode(TOKEN);
+    }
+
+    @Test
+    @DisplayName("Should go back to the delegate once max-ttl has passed, even before exp")
+    void testNotServedPastMaxTtl() throws Exception {
+        when(delegate.decode(TOKEN)).thenReturn(jwt(Instant.now().plusSeconds(300)));
+        CachingJwtDecoder decoder = decoder(Duration.ofMillis(100));
+
+        decoder.decode(TOKEN);
+        Thread.sleep(200);
+        decoder.decode(TOKEN);
+
+        verify(delegate, times(2)).decode(TOKEN);
+    }
+
+    @Test
+    @DisplayName("Should not cache tokens without an exp claim")
+    void testNoExpiryNotCached() {
+        when(delegate.decode(TOKEN)).thenReturn(jwt(null));
+        CachingJwtDecoder decoder = decoder(Duration.ofMinutes(5));
+
+        decoder.decode(TOKEN);
+        decoder.decode(TOKEN);
+
+        verify(delegate, times(2)).decode(TOKEN);
+    }
+
+    private CachingJwtDecoder decoder(Duration maxTtl) {
+        return new CachingJwtDecoder(delegate, 100, maxTtl, new SimpleMeterRegistry());
+    }
+
+    private static Jwt jwt(Instant expiresAt) {
+        Jwt.Builder builder = Jwt.withTokenValue(TOKEN)
+                .header("alg", "HS256")
+                .subject("user")
+                .issuedAt(Instant.now().minusSeconds(1));
+        return expiresAt == null ? builder.build() : builder.expiresAt(expiresAt).build();
+    }
+}